@@ -1,6 +1,7 @@
 package de.simonaltschaeffl.poker.api;
 
 import de.simonaltschaeffl.poker.model.ActionType;
+import de.simonaltschaeffl.poker.model.Card;
 import de.simonaltschaeffl.poker.model.GameState;
 import de.simonaltschaeffl.poker.model.Player;
 import java.util.List;
@@ -84,4 +85,32 @@ public interface GameEventListener {
      * @param amount The amount of chips collected.
      */
     void onRakeCollected(int amount);
+
+    /**
+     * Called before each street is dealt when the remaining players are all-in
+     * and the board runs out without further betting. The equities are exact:
+     * each is the share of the pot the player wins over all possible run-outs,
+     * counting split pots, so together they add up to 1. Preflop the event is
+     * only sent for heads-up Texas Hold'em with the standard deck.
+     * 
+     * @param roundName the street whose board the equities are for, e.g.
+     *                  "PRE_FLOP", "FLOP", "TURN"
+     * @param equities  the equity of each player still in the hand by player
+     *                  ID, in seat order
+     */
+    default void onAllInEquity(String roundName, Map<String, Double> equities) {
+    }
+
+    /**
+     * Called at a showdown where the board was run more than once, before
+     * {@link #onHandEnded(List, Map)} reports the total payouts. The first board
+     * is the one in {@link GameState#getBoard()}, the others those in
+     * {@link GameState#getExtraBoards()}.
+     * 
+     * @param boards     the complete board of each run
+     * @param runPayouts the chips won by each player ID on each run, in the
+     *                   order of the boards
+     */
+    default void onRunsCompleted(List<List<Card>> boards, List<Map<String, Integer>> runPayouts) {
+    }
 }
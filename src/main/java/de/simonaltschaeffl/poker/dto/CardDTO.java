@@ -4,7 +4,25 @@ import de.simonaltschaeffl.poker.model.Card;
 import jakarta.validation.constraints.NotNull;
 
 public record CardDTO(@NotNull Card.Suit suit, @NotNull Card.Rank rank) {
+
+    // One shared DTO per card, indexed like the interned cards
+    private static final CardDTO[] DTOS = new CardDTO[52];
+
+    static {
+        for (int i = 0; i < DTOS.length; i++) {
+            Card card = Card.of(i);
+            DTOS[i] = new CardDTO(card.suit(), card.rank());
+        }
+    }
+
     public static CardDTO from(Card card) {
-        return new CardDTO(card.suit(), card.rank());
+        return DTOS[card.index()];
+    }
+
+    /**
+     * @return the interned card this DTO describes
+     */
+    public Card toCard() {
+        return Card.of(rank, suit);
     }
 }
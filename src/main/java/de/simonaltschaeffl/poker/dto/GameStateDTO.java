@@ -10,10 +10,20 @@ import java.util.stream.Collectors;
 public record GameStateDTO(
                 @Min(0) int potTotal,
                 @NotNull List<CardDTO> board,
+                @NotNull List<List<CardDTO>> extraBoards,
                 @NotNull List<PlayerDTO> players,
                 @NotNull GameState.GamePhase currentPhase,
                 @Min(0) int dealerPosition,
                 @Min(0) int actionPosition) {
+
+        /**
+         * Creates a state without the boards of further runs.
+         */
+        public GameStateDTO(int potTotal, List<CardDTO> board, List<PlayerDTO> players,
+                        GameState.GamePhase currentPhase, int dealerPosition, int actionPosition) {
+                this(potTotal, board, List.of(), players, currentPhase, dealerPosition, actionPosition);
+        }
+
         public static GameStateDTO from(GameState gameState) {
                 boolean isShowdown = gameState.getPhase() == GameState.GamePhase.SHOWDOWN
                                 || gameState.getPhase() == GameState.GamePhase.HAND_ENDED;
@@ -29,6 +39,7 @@ public record GameStateDTO(
                 return new GameStateDTO(
                                 gameState.getPot().getTotal(),
                                 gameState.getBoard().stream().map(CardDTO::from).collect(Collectors.toList()),
+                                extraBoardsOf(gameState),
                                 playerDTOs,
                                 gameState.getPhase(),
                                 gameState.getDealerButtonPosition(),
@@ -47,9 +58,18 @@ public record GameStateDTO(
                 return new GameStateDTO(
                                 gameState.getPot().getTotal(),
                                 gameState.getBoard().stream().map(CardDTO::from).collect(Collectors.toList()),
+                                extraBoardsOf(gameState),
                                 playerDTOs,
                                 gameState.getPhase(),
                                 gameState.getDealerButtonPosition(),
                                 gameState.getCurrentActionPosition());
         }
+
+        // The boards of the second and later runs when the board was run more
+        // than once
+        private static List<List<CardDTO>> extraBoardsOf(GameState gameState) {
+                return gameState.getExtraBoards().stream()
+                                .map(board -> board.stream().map(CardDTO::from).collect(Collectors.toList()))
+                                .collect(Collectors.toList());
+        }
 }
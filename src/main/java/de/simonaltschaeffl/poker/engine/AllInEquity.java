@@ -0,0 +1,215 @@
+package de.simonaltschaeffl.poker.engine;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.service.HandEvaluator;
+import de.simonaltschaeffl.poker.service.LowHandEvaluator;
+import de.simonaltschaeffl.poker.service.PreflopEquityTable;
+
+import java.util.Arrays;
+
+/**
+ * Computes the exact equity of every seat in an all-in run-out, once per
+ * street, quickly enough to run while the table is locked.
+ * <p>
+ * Before enumerating, the work is estimated as run-outs times seats times the
+ * cost of one seat's hand, counted in 7-card Hold'em evaluations: an Omaha
+ * hand picks from every two hole cards with every three board cards, 60
+ * five-card hands for four hole cards, and a low evaluator doubles the cost.
+ * Above {@value #MAX_WORK} evaluations, about a millisecond, no equity is
+ * computed. Every Hold'em flop and every Omaha turn stays within the limit;
+ * Omaha flops only do when so many players are in that few run-outs are left.
+ * <p>
+ * On the flop all turn and river run-outs are enumerated and the pot share of
+ * each seat is kept for every run-out. The turn equities are then the average
+ * over the kept run-outs that contain the turn card, so no hand is evaluated
+ * a second time. A turn reached without a flop enumeration (for example after
+ * a stacked flop was replaced) enumerates its rivers directly. Preflop, where
+ * a full enumeration takes seconds, the equity is only available for heads-up
+ * Texas Hold'em with the standard deck, from the {@link PreflopEquityTable}.
+ * <p>
+ * With a low evaluator the pot of each run-out is split between the best high
+ * hands and, if a low qualifies, the best low hands, like at showdown. Side
+ * pots are not taken into account: the equity is the share of a pot everyone
+ * contributed to equally. Instances are not thread-safe; the game calls them
+ * under its lock.
+ */
+final class AllInEquity {
+
+    /** Largest enumeration, in 7-card Hold'em hand evaluations. */
+    static final int MAX_WORK = 30_000;
+
+    private final HandEvaluator evaluator;
+    private final LowHandEvaluator lowEvaluator;
+    private final long deckMask;
+    private final int handCost;
+    private final PreflopEquityTable preflopTable;
+
+    // Run-outs of the last flop enumeration and the pot share of each seat in
+    // each of them, row by row
+    private long[] flopHoles;
+    private long flopBoard;
+    private long[] flopRunOuts;
+    private double[] flopShares;
+
+    /**
+     * @param evaluator     the evaluator of the high hands
+     * @param lowEvaluator  the evaluator of the low hands, or {@code null} if
+     *                      the pot is not split
+     * @param deckMask      the cards of the full deck, see
+     *                      {@link de.simonaltschaeffl.poker.model.Deck#getCardMask()}
+     * @param holeCardCount the number of hole cards of each player
+     */
+    AllInEquity(HandEvaluator evaluator, LowHandEvaluator lowEvaluator, long deckMask, int holeCardCount) {
+        this.evaluator = evaluator;
+        this.lowEvaluator = lowEvaluator;
+        this.deckMask = deckMask;
+        int holePairs = holeCardCount * (holeCardCount - 1) / 2;
+        int highCost = holeCardCount > 2 ? holePairs * 10 : 1;
+        this.handCost = lowEvaluator == null ? highCost : 2 * highCost;
+        // Loaded now so the first all-in does not pay for reading the resource
+        this.preflopTable = lowEvaluator == null && holeCardCount == 2 && deckMask == CardSet.FULL_DECK
+                ? PreflopEquityTable.getDefault()
+                : null;
+    }
+
+    /**
+     * Computes the equity of each seat on the given board.
+     *
+     * @param holes the hole cards of each seat still in the hand
+     * @param board the community cards dealt so far
+     * @return the equity of each seat in the same order, adding up to 1, or
+     *         {@code null} preflop outside heads-up Hold'em, on fewer than
+     *         three community cards, or if the enumeration would exceed
+     *         {@value #MAX_WORK} evaluations
+     */
+    double[] equities(long[] holes, long board) {
+        int boardCards = Long.bitCount(board);
+        if (boardCards == 0) {
+            if (preflopTable == null || holes.length != 2) {
+                return null;
+            }
+            double equity = preflopTable.equity(holes[0], holes[1]);
+            return new double[] { equity, 1 - equity };
+        }
+        if (boardCards == 4 && flopRunOuts != null && (board & flopBoard) == flopBoard
+                && Arrays.equals(holes, flopHoles)) {
+            return fromFlop(board & ~flopBoard, holes.length);
+        }
+        if (boardCards < 3 || boardCards > 5) {
+            return null;
+        }
+
+        long live = deckMask & ~board & ~used(holes);
+        if (runOutCount(Long.bitCount(live), 5 - boardCards) * holes.length * handCost > MAX_WORK) {
+            return null;
+        }
+        long[] runOuts = runOuts(live, 5 - boardCards);
+        double[] shares = new double[runOuts.length * holes.length];
+        double[] equities = new double[holes.length];
+        for (int r = 0; r < runOuts.length; r++) {
+            split(holes, board | runOuts[r], shares, r * holes.length);
+            for (int seat = 0; seat < holes.length; seat++) {
+                equities[seat] += shares[r * holes.length + seat];
+            }
+        }
+        if (boardCards == 3) {
+            flopHoles = holes.clone();
+            flopBoard = board;
+            flopRunOuts = runOuts;
+            flopShares = shares;
+        }
+        return average(equities, runOuts.length);
+    }
+
+    // Turn equities from the flop run-outs that contain the turn card
+    private double[] fromFlop(long turn, int seats) {
+        double[] equities = new double[seats];
+        int count = 0;
+        for (int r = 0; r < flopRunOuts.length; r++) {
+            if ((flopRunOuts[r] & turn) != 0) {
+                for (int seat = 0; seat < seats; seat++) {
+                    equities[seat] += flopShares[r * seats + seat];
+                }
+                count++;
+            }
+        }
+        return average(equities, count);
+    }
+
+    // Writes each seat's share of the pot on a complete board
+    private void split(long[] holes, long board, double[] shares, int offset) {
+        int[] high = evaluator.evaluateAll(board, holes);
+        int[] low = lowEvaluator == null ? null : lowEvaluator.evaluateAllLow(board, holes);
+        int bestLow = 0;
+        if (low != null) {
+            for (int strength : low) {
+                bestLow = Math.max(bestLow, strength);
+            }
+        }
+        // Without a qualifying low the high hands take the whole pot
+        double highPot = bestLow > 0 ? 0.5 : 1;
+        award(high, Integer.MIN_VALUE, highPot, shares, offset);
+        if (bestLow > 0) {
+            award(low, 0, 0.5, shares, offset);
+        }
+    }
+
+    // Splits a pot between the seats with the highest strength above the floor
+    private static void award(int[] strengths, int floor, double pot, double[] shares, int offset) {
+        int best = floor;
+        int winners = 0;
+        for (int strength : strengths) {
+            if (strength > best) {
+                best = strength;
+                winners = 1;
+            } else if (strength == best) {
+                winners++;
+            }
+        }
+        for (int seat = 0; seat < strengths.length; seat++) {
+            if (strengths[seat] == best) {
+                shares[offset + seat] += pot / winners;
+            }
+        }
+    }
+
+    private static double[] average(double[] equities, int count) {
+        for (int seat = 0; seat < equities.length; seat++) {
+            equities[seat] /= count;
+        }
+        return equities;
+    }
+
+    private static long used(long[] holes) {
+        long used = CardSet.EMPTY;
+        for (long hole : holes) {
+            used |= hole;
+        }
+        return used;
+    }
+
+    // Number of combinations of the given number of cards (0 to 2) from n cards
+    private static long runOutCount(int n, int cards) {
+        return cards == 0 ? 1 : cards == 1 ? n : (long) n * (n - 1) / 2;
+    }
+
+    // All combinations of the given number of cards (0 to 2) from the live cards
+    private static long[] runOuts(long live, int cards) {
+        if (cards == 0) {
+            return new long[] { CardSet.EMPTY };
+        }
+        long[] runOuts = new long[(int) runOutCount(Long.bitCount(live), cards)];
+        int count = 0;
+        for (long first = live; first != 0; first &= first - 1) {
+            long card = first & -first;
+            if (cards == 1) {
+                runOuts[count++] = card;
+                continue;
+            }
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                runOuts[count++] = card | (second & -second);
+            }
+        }
+        return runOuts;
+    }
+}
@@ -20,5 +20,8 @@ record GameContext(
         ActionHandler actionHandler,
         RuleEngine ruleEngine,
         int smallBlind,
-        int bigBlind) {
+        int bigBlind,
+        int holeCardCount,
+        int runItTimes,
+        AllInEquity allInEquity) {
 }
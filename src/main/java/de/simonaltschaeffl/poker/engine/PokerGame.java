@@ -2,7 +2,11 @@ package de.simonaltschaeffl.poker.engine;
 
 import de.simonaltschaeffl.poker.api.GameEventListener;
 import de.simonaltschaeffl.poker.model.*;
+import de.simonaltschaeffl.poker.service.AceToFiveLowEvaluator;
 import de.simonaltschaeffl.poker.service.HandEvaluator;
+import de.simonaltschaeffl.poker.service.LowHandEvaluator;
+import de.simonaltschaeffl.poker.service.OmahaHandEvaluator;
+import de.simonaltschaeffl.poker.service.ShortDeckHandEvaluator;
 import de.simonaltschaeffl.poker.service.StandardHandEvaluator;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,7 +41,11 @@ public class PokerGame {
      * @param config        The game configuration (blinds, maximum players,
      *                      timeouts, strategies).
      * @param handEvaluator The evaluator to use for determining hand strengths at
-     *                      showdown.
+     *                      showdown. In a hi-lo game it also ranks the low hands
+     *                      if it is a {@link LowHandEvaluator}; otherwise lows
+     *                      are ranked by an {@link OmahaHandEvaluator} when more
+     *                      than 2 hole cards are dealt, and by an
+     *                      {@link AceToFiveLowEvaluator} when not.
      * @param deck          The deck to use for dealing cards.
      */
     public PokerGame(PokerGameConfiguration config, HandEvaluator handEvaluator, Deck deck) {
@@ -47,8 +55,18 @@ public class PokerGame {
         this.smallBlind = config.getSmallBlind();
         this.bigBlind = config.getBigBlind();
 
+        LowHandEvaluator lowEvaluator = null;
+        if (config.isHiLo()) {
+            if (handEvaluator instanceof LowHandEvaluator low) {
+                lowEvaluator = low;
+            } else if (config.getHoleCardCount() > 2) {
+                lowEvaluator = new OmahaHandEvaluator();
+            } else {
+                lowEvaluator = new AceToFiveLowEvaluator();
+            }
+        }
         de.simonaltschaeffl.poker.service.PayoutCalculator payoutCalculator = new de.simonaltschaeffl.poker.service.PayoutCalculator(
-                handEvaluator, config.getRakeStrategy(), listeners);
+                handEvaluator, lowEvaluator, config.getRakeStrategy(), listeners);
 
         this.tableManager = new TableManager(listeners,
                 config.getMaxPlayers());
@@ -57,19 +75,37 @@ public class PokerGame {
 
         GameContext context = new GameContext(
                 gameState, deck, listeners, payoutCalculator, tableManager, actionHandler, ruleEngine,
-                config.getSmallBlind(), config.getBigBlind());
+                config.getSmallBlind(), config.getBigBlind(), config.getHoleCardCount(),
+                config.getRunItTimes(), new AllInEquity(handEvaluator, lowEvaluator, deck.getCardMask(), config.getHoleCardCount()));
         this.roundLifecycle = new RoundLifecycle(context);
         this.timeoutManager = new TimeoutManager(config.getActionTimeoutMs(), this::performAction);
     }
 
     /**
      * Constructs a new PokerGame with the specified configuration using default
-     * hand evaluator and deck.
+     * hand evaluator and deck, or the short-deck ones if
+     * {@link PokerGameConfiguration#isShortDeck()} is set. With more than 2
+     * hole cards the hands are ranked by an {@link OmahaHandEvaluator}, which
+     * plays exactly two hole cards for both the high and the low hand.
      *
      * @param config The game configuration.
+     * @throws IllegalArgumentException if a short deck is combined with more
+     *                                  than 2 hole cards, which has no default
+     *                                  evaluator
      */
     public PokerGame(PokerGameConfiguration config) {
-        this(config, new StandardHandEvaluator(), new Deck());
+        this(config, defaultEvaluator(config), config.isShortDeck() ? new ShortDeck() : new Deck());
+    }
+
+    private static HandEvaluator defaultEvaluator(PokerGameConfiguration config) {
+        if (config.getHoleCardCount() > 2) {
+            if (config.isShortDeck()) {
+                throw new IllegalArgumentException("No default evaluator for short-deck games with "
+                        + config.getHoleCardCount() + " hole cards; pass one explicitly");
+            }
+            return new OmahaHandEvaluator();
+        }
+        return config.isShortDeck() ? new ShortDeckHandEvaluator() : new StandardHandEvaluator();
     }
 
     /**
@@ -22,6 +22,12 @@ public class PokerGameConfiguration {
     private final int maxPlayers;
     @Min(0)
     private final long actionTimeoutMs;
+    @Min(2)
+    private final int holeCardCount;
+    private final boolean hiLo;
+    private final boolean shortDeck;
+    @Min(1)
+    private final int runItTimes;
     private final RakeStrategy rakeStrategy;
     private final BettingRuleStrategy bettingRuleStrategy;
 
@@ -30,6 +36,10 @@ public class PokerGameConfiguration {
         this.bigBlind = builder.bigBlind;
         this.maxPlayers = builder.maxPlayers;
         this.actionTimeoutMs = builder.actionTimeoutMs;
+        this.holeCardCount = builder.holeCardCount;
+        this.hiLo = builder.hiLo;
+        this.shortDeck = builder.shortDeck;
+        this.runItTimes = builder.runItTimes;
         this.rakeStrategy = builder.rakeStrategy;
         this.bettingRuleStrategy = builder.bettingRuleStrategy;
     }
@@ -50,6 +60,22 @@ public class PokerGameConfiguration {
         return actionTimeoutMs;
     }
 
+    public int getHoleCardCount() {
+        return holeCardCount;
+    }
+
+    public boolean isHiLo() {
+        return hiLo;
+    }
+
+    public boolean isShortDeck() {
+        return shortDeck;
+    }
+
+    public int getRunItTimes() {
+        return runItTimes;
+    }
+
     public RakeStrategy getRakeStrategy() {
         return rakeStrategy;
     }
@@ -66,6 +92,10 @@ public class PokerGameConfiguration {
         private int bigBlind = 20;
         private int maxPlayers = 10;
         private long actionTimeoutMs = 0; // 0 means disabled
+        private int holeCardCount = 2;
+        private boolean hiLo = false;
+        private boolean shortDeck = false;
+        private int runItTimes = 1;
         private RakeStrategy rakeStrategy = new NoRakeStrategy();
         private BettingRuleStrategy bettingRuleStrategy = new NoLimitBettingStrategy();
 
@@ -89,6 +119,52 @@ public class PokerGameConfiguration {
             return this;
         }
 
+        /**
+         * Sets the number of hole cards dealt to each player: 2 for Texas
+         * Hold'em, 4 for PLO4, 5 for PLO5. Games with more than two hole cards
+         * need a matching evaluator such as
+         * {@link de.simonaltschaeffl.poker.service.OmahaHandEvaluator}.
+         */
+        public Builder holeCardCount(int holeCardCount) {
+            this.holeCardCount = holeCardCount;
+            return this;
+        }
+
+        /**
+         * Enables hi-lo split pots with an eight-or-better low. The low uses
+         * the hand evaluator if it implements
+         * {@link de.simonaltschaeffl.poker.service.LowHandEvaluator}, as
+         * {@link de.simonaltschaeffl.poker.service.OmahaHandEvaluator} does, and
+         * the best five of all cards otherwise.
+         */
+        public Builder hiLo(boolean hiLo) {
+            this.hiLo = hiLo;
+            return this;
+        }
+
+        /**
+         * Plays Short Deck (6+) Hold'em: {@link PokerGame#PokerGame(PokerGameConfiguration)}
+         * then deals from a 36-card
+         * {@link de.simonaltschaeffl.poker.model.ShortDeck} and evaluates with
+         * {@link de.simonaltschaeffl.poker.service.ShortDeckHandEvaluator}.
+         */
+        public Builder shortDeck(boolean shortDeck) {
+            this.shortDeck = shortDeck;
+            return this;
+        }
+
+        /**
+         * Deals the rest of the board this many times when the remaining
+         * players are all-in before the river. Every pot is divided evenly
+         * between the runs and each run's part goes to its own winners. The
+         * default of 1 deals a single board; runs the deck has no cards left
+         * for are not dealt.
+         */
+        public Builder runItTimes(int runItTimes) {
+            this.runItTimes = runItTimes;
+            return this;
+        }
+
         public Builder rakeStrategy(RakeStrategy rakeStrategy) {
             this.rakeStrategy = rakeStrategy;
             return this;
@@ -106,6 +182,16 @@ public class PokerGameConfiguration {
             if (maxPlayers < 2) {
                 throw new IllegalArgumentException("Max players must be at least 2");
             }
+            if (holeCardCount < 2) {
+                throw new IllegalArgumentException("Hole card count must be at least 2");
+            }
+            if (runItTimes < 1) {
+                throw new IllegalArgumentException("Run it times must be at least 1");
+            }
+            if (maxPlayers * holeCardCount + 5 > (shortDeck ? 36 : 52)) {
+                throw new IllegalArgumentException("Not enough cards to deal " + holeCardCount
+                        + " hole cards to " + maxPlayers + " players");
+            }
             return new PokerGameConfiguration(this);
         }
     }
@@ -2,6 +2,8 @@ package de.simonaltschaeffl.poker.engine;
 
 import de.simonaltschaeffl.poker.api.GameEventListener;
 import de.simonaltschaeffl.poker.model.ActionType;
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
 import de.simonaltschaeffl.poker.model.GameState;
 import de.simonaltschaeffl.poker.model.Player;
 import de.simonaltschaeffl.poker.model.PlayerStatus;
@@ -9,7 +11,11 @@ import de.simonaltschaeffl.poker.service.PayoutCalculator;
 import de.simonaltschaeffl.poker.exception.NotEnoughPlayersException;
 import de.simonaltschaeffl.poker.exception.HandIsOverException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages the lifecycle and phases of a single poker round (hand).
@@ -18,7 +24,12 @@ import java.util.List;
  * (PRE_FLOP, FLOP, TURN, RIVER, SHOWDOWN).
  */
 class RoundLifecycle {
+    private static final int BOARD_SIZE = 5;
+
     private final GameContext context;
+    // Board cards dealt when the all-in run-out of the current hand began, or
+    // -1 while players can still bet
+    private int runOutBoardSize = -1;
 
     public RoundLifecycle(GameContext context) {
         this.context = context;
@@ -53,6 +64,7 @@ class RoundLifecycle {
         notifyGameStarted();
 
         // 1. Reset
+        runOutBoardSize = -1;
         context.deck().reset();
         context.gameState().clearBoard();
         context.gameState().getPot().reset();
@@ -62,8 +74,10 @@ class RoundLifecycle {
         for (Player p : context.gameState().getPlayers()) {
             p.clearHoleCards();
             p.setStatus(PlayerStatus.ACTIVE);
-            context.deck().deal().ifPresent(p::addHoleCard);
-            context.deck().deal().ifPresent(p::addHoleCard);
+            p.setMaxHoleCards(context.holeCardCount());
+            for (int i = 0; i < context.holeCardCount(); i++) {
+                context.deck().deal().ifPresent(p::addHoleCard);
+            }
         }
 
         // 3. Post Blinds
@@ -125,6 +139,13 @@ class RoundLifecycle {
             handleWinByFold(winner);
             return;
         }
+        List<Player> allIn = allInContenders();
+        if (allIn != null) {
+            if (runOutBoardSize < 0) {
+                runOutBoardSize = context.gameState().getBoard().size();
+            }
+            notifyAllInEquity(allIn);
+        }
 
         context.gameState().getPlayers().forEach(Player::resetBet);
         context.gameState().clearActedPlayers();
@@ -214,6 +235,69 @@ class RoundLifecycle {
         }
     }
 
+    // The players still in the hand if the rest of the board runs out without
+    // betting, that is when at most one of them can still act; null otherwise
+    private List<Player> allInContenders() {
+        GameState.GamePhase phase = context.gameState().getPhase();
+        if (phase != GameState.GamePhase.PRE_FLOP && phase != GameState.GamePhase.FLOP
+                && phase != GameState.GamePhase.TURN) {
+            return null;
+        }
+        List<Player> contenders = new ArrayList<>();
+        int canAct = 0;
+        for (Player p : context.gameState().getPlayers()) {
+            if (p.getStatus() == PlayerStatus.ACTIVE || p.getStatus() == PlayerStatus.ALL_IN) {
+                contenders.add(p);
+            }
+            if (p.getStatus() == PlayerStatus.ACTIVE) {
+                canAct++;
+            }
+        }
+        return canAct > 1 || contenders.size() < 2 ? null : contenders;
+    }
+
+    // Sends the equities of the current board before the next street is dealt
+    private void notifyAllInEquity(List<Player> contenders) {
+        if (context.listeners().isEmpty()) {
+            return;
+        }
+        long[] holes = new long[contenders.size()];
+        for (int i = 0; i < holes.length; i++) {
+            holes[i] = contenders.get(i).getHoleCardMask();
+        }
+        double[] equities = context.allInEquity().equities(holes, CardSet.of(context.gameState().getBoard()));
+        if (equities == null) {
+            return;
+        }
+        Map<String, Double> byPlayer = new LinkedHashMap<>();
+        for (int i = 0; i < equities.length; i++) {
+            byPlayer.put(contenders.get(i).getId(), equities[i]);
+        }
+        Map<String, Double> view = Collections.unmodifiableMap(byPlayer);
+        String round = context.gameState().getPhase().name();
+        context.listeners().forEach(l -> l.onAllInEquity(round, view));
+    }
+
+    // Deals the boards of the second and later runs when the game runs it more
+    // than once and the all-in run-out began before the river. Each run keeps
+    // the cards dealt before the all-in; runs the deck cannot complete are
+    // dropped.
+    private void dealExtraRuns() {
+        if (context.runItTimes() < 2 || runOutBoardSize < 0 || runOutBoardSize >= BOARD_SIZE) {
+            return;
+        }
+        List<Card> common = context.gameState().getBoard().subList(0, runOutBoardSize);
+        int missing = BOARD_SIZE - runOutBoardSize;
+        int runs = Math.min(context.runItTimes() - 1, context.deck().remainingCards() / missing);
+        for (int run = 0; run < runs; run++) {
+            List<Card> board = new ArrayList<>(common);
+            for (int i = 0; i < missing; i++) {
+                board.add(context.deck().deal().orElseThrow());
+            }
+            context.gameState().addExtraBoard(board);
+        }
+    }
+
     private void handleWinByFold(Player winner) {
         int pot = context.gameState().getPot().getTotal();
         winner.win(pot);
@@ -222,9 +306,12 @@ class RoundLifecycle {
     }
 
     private void handleShowdown() {
+        dealExtraRuns();
+        List<List<Card>> boards = new ArrayList<>();
+        boards.add(context.gameState().getBoard());
+        boards.addAll(context.gameState().getExtraBoards());
         PayoutCalculator.ShowdownResult result = context.payoutCalculator()
-                .calculate(context.gameState().getPlayers(), context.gameState().getBoard(),
-                        context.gameState().getPot());
+                .calculateRuns(context.gameState().getPlayers(), boards, context.gameState().getPot());
 
         // Apply payouts
         for (java.util.Map.Entry<String, Integer> entry : result.payouts().entrySet()) {
@@ -234,6 +321,9 @@ class RoundLifecycle {
                     .ifPresent(p -> p.win(entry.getValue()));
         }
 
+        if (boards.size() > 1) {
+            notifyRunsCompleted(Collections.unmodifiableList(boards), result.runPayouts());
+        }
         notifyHandEnded(result.winners(), result.payouts());
         context.gameState().setPhase(GameState.GamePhase.HAND_ENDED);
     }
@@ -246,6 +336,10 @@ class RoundLifecycle {
         context.listeners().forEach(l -> l.onRoundStarted(round));
     }
 
+    private void notifyRunsCompleted(List<List<Card>> boards, List<java.util.Map<String, Integer>> runPayouts) {
+        context.listeners().forEach(l -> l.onRunsCompleted(boards, runPayouts));
+    }
+
     private void notifyHandEnded(List<Player> winners, java.util.Map<String, Integer> payouts) {
         context.listeners().forEach(l -> l.onHandEnded(winners, payouts));
     }
@@ -1,8 +1,8 @@
 package de.simonaltschaeffl.poker.exception;
 
 /**
- * Thrown when attempting to deal a third hole card to a player in Texas
- * Hold'em.
+ * Thrown when attempting to deal a player more hole cards than the game
+ * variant allows, e.g. a third card in Texas Hold'em.
  */
 public class TooManyHoleCardsException extends PokerException {
     /**
@@ -2,8 +2,64 @@ package de.simonaltschaeffl.poker.model;
 
 import jakarta.validation.constraints.NotNull;
 
+/**
+ * A playing card.
+ * <p>
+ * The 52 distinct cards are interned: {@link #of(Rank, Suit)} and
+ * {@link #of(int)} return shared instances, so dealing and converting cards
+ * never allocates. Each card also carries its {@link #index()} (the
+ * {@link CardSet} bit, {@code suit * 13 + rank}) and its precomputed Cactus Kev
+ * integer.
+ */
 public record Card(@NotNull Rank rank, @NotNull Suit suit) implements Comparable<Card> {
 
+    // Primes corresponding to 2, 3, 4, 5, 6, 7, 8, 9, T, J, Q, K, A
+    private static final int[] PRIMES = { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41 };
+
+    private static final Card[] CARDS = new Card[52];
+    private static final int[] CACTUS_KEV = new int[52];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                int index = suit.ordinal() * 13 + rank.ordinal();
+                CARDS[index] = new Card(rank, suit);
+                // |xxxbbbbb|bbbbbbbb|cdhsrrrr|xxpppppp|: rank bit, suit bit, rank, prime
+                int r = rank.ordinal();
+                CACTUS_KEV[index] = (1 << (16 + r)) | (suit.cactusKevMask << 12) | (r << 8) | PRIMES[r];
+            }
+        }
+    }
+
+    /**
+     * @return the interned card of the given rank and suit
+     */
+    public static Card of(Rank rank, Suit suit) {
+        return CARDS[suit.ordinal() * 13 + rank.ordinal()];
+    }
+
+    /**
+     * @param index the card index, {@code suit.ordinal() * 13 + rank.ordinal()}
+     * @return the interned card with that index
+     */
+    public static Card of(int index) {
+        return CARDS[index];
+    }
+
+    /**
+     * @return the card's index (0..51), also its bit in a {@link CardSet}
+     */
+    public int index() {
+        return suit.ordinal() * 13 + rank.ordinal();
+    }
+
+    /**
+     * @return the card in Cactus Kev's integer format
+     */
+    public int cactusKev() {
+        return CACTUS_KEV[index()];
+    }
+
     @Override
     public String toString() {
         return rank.getSymbol() + suit.getSymbol();
@@ -15,15 +71,17 @@ public record Card(@NotNull Rank rank, @NotNull Suit suit) implements Comparable
     }
 
     public enum Suit {
-        CLUBS("c"),
-        DIAMONDS("d"),
-        HEARTS("h"),
-        SPADES("s");
+        CLUBS("c", 0x1),
+        DIAMONDS("d", 0x2),
+        HEARTS("h", 0x4),
+        SPADES("s", 0x8);
 
         private final String symbol;
+        private final int cactusKevMask;
 
-        Suit(String symbol) {
+        Suit(String symbol, int cactusKevMask) {
             this.symbol = symbol;
+            this.cactusKevMask = cactusKevMask;
         }
 
         public String getSymbol() {
@@ -61,5 +119,13 @@ public record Card(@NotNull Rank rank, @NotNull Suit suit) implements Comparable
         public String getSymbol() {
             return symbol;
         }
+
+        /**
+         * @return the prime of the rank in Cactus Kev's card format, 2 for a
+         *         deuce up to 41 for an ace
+         */
+        public int getPrime() {
+            return PRIMES[ordinal()];
+        }
     }
 }
@@ -0,0 +1,134 @@
+package de.simonaltschaeffl.poker.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Primitive set of cards packed into a single {@code long}, one bit per card.
+ * <p>
+ * Card {@code rank, suit} lives at bit {@code suit.ordinal() * 13 + rank.ordinal()},
+ * so the 13 bits of each suit form a rank mask with the deuce in the lowest bit.
+ * All operations are static and work on the raw {@code long}, which lets hot
+ * paths such as dealing, dead-card tracking and evaluation run without
+ * allocating.
+ *
+ * <pre>
+ * long dead = CardSet.union(holeMask, boardMask);
+ * for (long rest = CardSet.FULL_DECK &amp; ~dead; rest != 0; rest &amp;= rest - 1) {
+ *     int index = CardSet.firstIndex(rest);
+ *     ...
+ * }
+ * </pre>
+ */
+public final class CardSet {
+
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = (1L << 52) - 1;
+
+    private CardSet() {
+    }
+
+    /**
+     * @return the bit index (0..51) of the card
+     */
+    public static int index(Card card) {
+        return card.index();
+    }
+
+    /**
+     * @return the card at the given bit index (0..51)
+     */
+    public static Card card(int index) {
+        return Card.of(index);
+    }
+
+    /**
+     * @return the single-card set of the card
+     */
+    public static long bit(Card card) {
+        return 1L << index(card);
+    }
+
+    public static long of(Card... cards) {
+        long set = EMPTY;
+        for (Card card : cards) {
+            set |= bit(card);
+        }
+        return set;
+    }
+
+    public static long of(Collection<Card> cards) {
+        long set = EMPTY;
+        for (Card card : cards) {
+            set |= bit(card);
+        }
+        return set;
+    }
+
+    public static long add(long set, Card card) {
+        return set | bit(card);
+    }
+
+    public static long remove(long set, Card card) {
+        return set & ~bit(card);
+    }
+
+    public static long union(long a, long b) {
+        return a | b;
+    }
+
+    public static boolean contains(long set, Card card) {
+        return (set & bit(card)) != 0;
+    }
+
+    public static boolean containsAll(long set, long other) {
+        return (set & other) == other;
+    }
+
+    public static boolean intersects(long a, long b) {
+        return (a & b) != 0;
+    }
+
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+    /**
+     * @return the lowest bit index in the set, or 64 if the set is empty
+     */
+    public static int firstIndex(long set) {
+        return Long.numberOfTrailingZeros(set);
+    }
+
+    /**
+     * Returns the 13-bit rank mask of one suit, deuce in bit 0 and ace in bit 12.
+     */
+    public static int suitMask(long set, Card.Suit suit) {
+        return (int) (set >>> (suit.ordinal() * 13)) & 0x1FFF;
+    }
+
+    /**
+     * Calls the consumer with the bit index of every card in the set, lowest first.
+     */
+    public static void forEach(long set, IntConsumer action) {
+        while (set != 0) {
+            action.accept(Long.numberOfTrailingZeros(set));
+            set &= set - 1;
+        }
+    }
+
+    public static List<Card> toList(long set) {
+        List<Card> cards = new ArrayList<>(Long.bitCount(set));
+        while (set != 0) {
+            cards.add(Card.of(Long.numberOfTrailingZeros(set)));
+            set &= set - 1;
+        }
+        return cards;
+    }
+
+    public static String toString(long set) {
+        return toList(set).toString();
+    }
+}
@@ -12,10 +12,31 @@ public class Deck {
     @NotNull
     private final List<Card> cards;
     private final SecureRandom secureRandom;
+    private final Card.Rank lowestRank;
+    private final long cardMask;
 
     public Deck() {
+        this(Card.Rank.TWO);
+    }
+
+    /**
+     * Creates a stripped deck without the ranks below {@code lowestRank}.
+     *
+     * @param lowestRank the lowest rank in the deck
+     */
+    protected Deck(Card.Rank lowestRank) {
         this.cards = new ArrayList<>();
         this.secureRandom = new SecureRandom();
+        this.lowestRank = lowestRank;
+        long mask = CardSet.EMPTY;
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                if (rank.compareTo(lowestRank) >= 0) {
+                    mask |= CardSet.of(Card.of(rank, suit));
+                }
+            }
+        }
+        this.cardMask = mask;
         reset();
     }
 
@@ -23,7 +44,9 @@ public class Deck {
         cards.clear();
         for (Card.Suit suit : Card.Suit.values()) {
             for (Card.Rank rank : Card.Rank.values()) {
-                cards.add(new Card(rank, suit));
+                if (rank.compareTo(lowestRank) >= 0) {
+                    cards.add(Card.of(rank, suit));
+                }
             }
         }
         shuffle();
@@ -40,6 +63,14 @@ public class Deck {
         return Optional.of(cards.remove(cards.size() - 1));
     }
 
+    /**
+     * @return every card of the full deck as a {@link CardSet} mask, regardless
+     *         of how many have been dealt
+     */
+    public long getCardMask() {
+        return cardMask;
+    }
+
     public int remainingCards() {
         return cards.size();
     }
@@ -12,6 +12,9 @@ public class GameState {
     private final List<Player> players;
     @NotNull
     private final List<Card> board;
+    private long boardMask;
+    @NotNull
+    private final List<List<Card>> extraBoards;
     @NotNull
     private final Pot pot;
     @Min(0)
@@ -37,6 +40,7 @@ public class GameState {
     public GameState() {
         this.players = new ArrayList<>();
         this.board = new ArrayList<>();
+        this.extraBoards = new ArrayList<>();
         this.pot = new Pot();
         this.phase = GamePhase.PRE_GAME;
         this.dealerButtonPosition = 0;
@@ -73,12 +77,34 @@ public class GameState {
         return Collections.unmodifiableList(board);
     }
 
+    /**
+     * @return the board as a {@link CardSet} mask, without copying
+     */
+    public long getBoardMask() {
+        return boardMask;
+    }
+
     public void addToBoard(Card card) {
         board.add(card);
+        boardMask = CardSet.add(boardMask, card);
     }
 
     public void clearBoard() {
         board.clear();
+        boardMask = CardSet.EMPTY;
+        extraBoards.clear();
+    }
+
+    /**
+     * @return the complete boards of the second and later runs if the board
+     *         was run more than once, otherwise an empty list
+     */
+    public List<List<Card>> getExtraBoards() {
+        return Collections.unmodifiableList(extraBoards);
+    }
+
+    public void addExtraBoard(List<Card> extraBoard) {
+        extraBoards.add(List.copyOf(extraBoard));
     }
 
     public Pot getPot() {
@@ -0,0 +1,270 @@
+package de.simonaltschaeffl.poker.model;
+
+import java.util.Arrays;
+
+/**
+ * Weighted range of Texas Hold'em starting hands: one weight for each of the
+ * 1,326 two-card combos.
+ * <p>
+ * Combo {@code index} covers the cards {@code first < second} in
+ * {@link CardSet} order, counting up from {@code (0, 1)}; {@link #comboIndex}
+ * and {@link #comboCards} convert between the two. Ranges are immutable, so
+ * they can be shared and used as cache keys.
+ * <p>
+ * {@link #parse(String)} reads the usual comma-separated notation:
+ * <ul>
+ * <li>{@code QQ}, {@code TT+} (tens or better), {@code 77-99}: pocket pairs</li>
+ * <li>{@code AK}, {@code AKs}, {@code AKo}: all, suited or offsuit combos</li>
+ * <li>{@code A9s+} (kicker up to a king), {@code K9o-KJo}: kicker ranges</li>
+ * <li>{@code AsKh}: a single combo</li>
+ * <li>a {@code :weight} suffix, for example {@code AKo:0.5}, sets the weight
+ * of the entry's combos instead of 1</li>
+ * </ul>
+ * Later entries overwrite earlier ones.
+ */
+public final class HandRange {
+
+    /** Number of two-card combos. */
+    public static final int COMBOS = 1326;
+
+    private static final long[] COMBO_CARDS = new long[COMBOS];
+    // Combo index by the lower card and the higher card
+    private static final short[][] COMBO_INDEX = new short[52][52];
+
+    static {
+        int index = 0;
+        for (int first = 0; first < 52; first++) {
+            for (int second = first + 1; second < 52; second++) {
+                COMBO_CARDS[index] = 1L << first | 1L << second;
+                COMBO_INDEX[first][second] = (short) index++;
+            }
+        }
+    }
+
+    private final float[] weights;
+    private final int hash;
+
+    private HandRange(float[] weights) {
+        this.weights = weights;
+        this.hash = Arrays.hashCode(weights);
+    }
+
+    /**
+     * Creates a range from one weight per combo.
+     *
+     * @throws IllegalArgumentException if there are not 1,326 weights or one is
+     *                                  negative or not a number
+     */
+    public static HandRange of(float[] weights) {
+        if (weights.length != COMBOS) {
+            throw new IllegalArgumentException("Range needs " + COMBOS + " weights, got " + weights.length);
+        }
+        for (float weight : weights) {
+            checkWeight(weight);
+        }
+        return new HandRange(weights.clone());
+    }
+
+    /**
+     * Creates a range holding the given combos with weight 1.
+     *
+     * @param holes the hole cards of each combo as card masks
+     */
+    public static HandRange of(long... holes) {
+        float[] weights = new float[COMBOS];
+        for (long hole : holes) {
+            weights[comboIndex(hole)] = 1;
+        }
+        return new HandRange(weights);
+    }
+
+    /**
+     * Parses a range in the notation described in the class comment.
+     *
+     * @throws IllegalArgumentException if an entry cannot be parsed
+     */
+    public static HandRange parse(String notation) {
+        float[] weights = new float[COMBOS];
+        for (String entry : notation.split(",")) {
+            String token = entry.trim();
+            if (token.isEmpty())
+                continue;
+            float weight = 1;
+            int colon = token.indexOf(':');
+            if (colon >= 0) {
+                try {
+                    weight = Float.parseFloat(token.substring(colon + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid weight in range entry: " + token, e);
+                }
+                checkWeight(weight);
+                token = token.substring(0, colon).trim();
+            }
+            for (long hole : parseEntry(token)) {
+                weights[comboIndex(hole)] = weight;
+            }
+        }
+        return new HandRange(weights);
+    }
+
+    /**
+     * @return the index (0..1325) of the combo with the given two cards
+     * @throws IllegalArgumentException if the mask does not hold exactly two cards
+     */
+    public static int comboIndex(long hole) {
+        if (Long.bitCount(hole) != 2 || (hole & ~CardSet.FULL_DECK) != 0) {
+            throw new IllegalArgumentException("A combo needs exactly 2 cards, got " + Long.bitCount(hole));
+        }
+        return COMBO_INDEX[Long.numberOfTrailingZeros(hole)][63 - Long.numberOfLeadingZeros(hole)];
+    }
+
+    /**
+     * @return the two cards of a combo as a card mask
+     */
+    public static long comboCards(int index) {
+        return COMBO_CARDS[index];
+    }
+
+    public float weight(int index) {
+        return weights[index];
+    }
+
+    public float weight(long hole) {
+        return weights[comboIndex(hole)];
+    }
+
+    /**
+     * @return a copy of the weights, indexed by combo
+     */
+    public float[] weights() {
+        return weights.clone();
+    }
+
+    /**
+     * @return the number of combos with a positive weight
+     */
+    public int size() {
+        int size = 0;
+        for (float weight : weights) {
+            if (weight > 0)
+                size++;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof HandRange other))
+            return false;
+        return hash == other.hash && Arrays.equals(weights, other.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HandRange[" + size() + " combos]";
+    }
+
+    private static void checkWeight(float weight) {
+        if (!(weight >= 0) || Float.isInfinite(weight)) {
+            throw new IllegalArgumentException("Range weights must be finite and not negative, got " + weight);
+        }
+    }
+
+    // Combos of a single entry without its weight
+    private static long[] parseEntry(String token) {
+        if (token.length() == 4 && isSuit(token.charAt(1)) && isSuit(token.charAt(3))) {
+            long hole = card(token.charAt(0), token.charAt(1)) | card(token.charAt(2), token.charAt(3));
+            if (Long.bitCount(hole) != 2) {
+                throw new IllegalArgumentException("Invalid combo: " + token);
+            }
+            return new long[] { hole };
+        }
+        int dash = token.indexOf('-');
+        if (dash >= 0) {
+            Hand from = Hand.parse(token.substring(0, dash).trim(), token);
+            Hand to = Hand.parse(token.substring(dash + 1).trim(), token);
+            if (from.plus || to.plus || from.suitedness != to.suitedness || from.isPair() != to.isPair()
+                    || (!from.isPair() && from.high != to.high)) {
+                throw new IllegalArgumentException("Invalid range entry: " + token);
+            }
+            int lowest = Math.min(from.low, to.low);
+            int highest = Math.max(from.low, to.low);
+            return from.combos(lowest, highest);
+        }
+        Hand hand = Hand.parse(token, token);
+        if (!hand.plus) {
+            return hand.combos(hand.low, hand.low);
+        }
+        // TT+ runs up to aces, A9s+ up to the kicker below the high card
+        return hand.combos(hand.low, hand.isPair() ? 12 : hand.high - 1);
+    }
+
+    private static boolean isSuit(char symbol) {
+        return "cdhs".indexOf(symbol) >= 0;
+    }
+
+    private static long card(char rank, char suit) {
+        return 1L << ("cdhs".indexOf(suit) * 13 + rank(rank, String.valueOf(rank)));
+    }
+
+    private static int rank(char symbol, String token) {
+        for (Card.Rank rank : Card.Rank.values()) {
+            if (rank.getSymbol().charAt(0) == Character.toUpperCase(symbol)) {
+                return rank.ordinal();
+            }
+        }
+        throw new IllegalArgumentException("Invalid rank '" + symbol + "' in range entry: " + token);
+    }
+
+    // A starting hand in class notation: two ranks, optional suitedness and '+'
+    private record Hand(int high, int low, char suitedness, boolean plus) {
+
+        static Hand parse(String text, String token) {
+            if (text.length() < 2 || text.length() > 4) {
+                throw new IllegalArgumentException("Invalid range entry: " + token);
+            }
+            int first = rank(text.charAt(0), token);
+            int second = rank(text.charAt(1), token);
+            String rest = text.substring(2);
+            boolean plus = rest.endsWith("+");
+            if (plus) {
+                rest = rest.substring(0, rest.length() - 1);
+            }
+            char suitedness = rest.isEmpty() ? ' ' : rest.charAt(0);
+            if (rest.length() > 1 || (suitedness != ' ' && suitedness != 's' && suitedness != 'o')
+                    || (first == second && suitedness != ' ')) {
+                throw new IllegalArgumentException("Invalid range entry: " + token);
+            }
+            return new Hand(Math.max(first, second), Math.min(first, second), suitedness, plus);
+        }
+
+        boolean isPair() {
+            return high == low;
+        }
+
+        // Combos for second ranks lowest..highest; for pairs both ranks move
+        long[] combos(int lowest, int highest) {
+            long[] combos = new long[(highest - lowest + 1) * 16];
+            int n = 0;
+            for (int low = lowest; low <= highest; low++) {
+                int high = isPair() ? low : this.high;
+                for (int s1 = 0; s1 < 4; s1++) {
+                    for (int s2 = 0; s2 < 4; s2++) {
+                        boolean suited = s1 == s2;
+                        if (isPair() ? s1 >= s2 : (suitedness == 's' && !suited) || (suitedness == 'o' && suited))
+                            continue;
+                        combos[n++] = 1L << (s1 * 13 + high) | 1L << (s2 * 13 + low);
+                    }
+                }
+            }
+            return Arrays.copyOf(combos, n);
+        }
+    }
+}
@@ -2,45 +2,68 @@ package de.simonaltschaeffl.poker.model;
 
 import java.util.List;
 
-public record HandResult(HandRank rank, List<Card> bestFive) implements Comparable<HandResult> {
+/**
+ * The best five cards of a hand together with a packed strength code.
+ * <p>
+ * {@code strength} holds the {@link HandRank} value in bits 20 and up, followed
+ * by the five card ranks (2..14) in 4-bit groups, ordered by frequency and then
+ * by rank. A wheel straight counts its ace as 1. Comparing two strengths with
+ * {@link Integer#compare} therefore orders hands exactly, and equal strengths
+ * are true ties. Evaluators of variants that order the categories differently,
+ * such as Short Deck, remap the value in bits 20 and up so that the comparison
+ * still holds; {@link #rank()} is always the category.
+ */
+public record HandResult(HandRank rank, List<Card> bestFive, int strength) implements Comparable<HandResult> {
+
+    /**
+     * Creates a result and derives its strength from the best five cards.
+     * Evaluators that already know the strength should pass it directly.
+     */
+    public HandResult(HandRank rank, List<Card> bestFive) {
+        this(rank, bestFive, strengthOf(rank, bestFive));
+    }
+
     @Override
     public int compareTo(HandResult other) {
-        int rankComp = this.rank.compareTo(other.rank); // Enums are ordered from HIGH_CARD to ROYAL.
-
-        if (rankComp != 0)
-            return rankComp;
+        return Integer.compare(this.strength, other.strength);
+    }
 
-        // Compare kickers dynamically by grouping cards by frequency
-        java.util.Map<Integer, Integer> freq1 = new java.util.HashMap<>();
-        for (Card c : this.bestFive)
-            freq1.merge(c.rank().getValue(), 1, Integer::sum);
-        List<Card> sorted1 = new java.util.ArrayList<>(this.bestFive);
-        sorted1.sort((c1, c2) -> {
-            int f1 = freq1.get(c1.rank().getValue());
-            int f2 = freq1.get(c2.rank().getValue());
-            if (f1 != f2)
-                return Integer.compare(f2, f1);
-            return Integer.compare(c2.rank().getValue(), c1.rank().getValue());
-        });
+    /**
+     * Packs a hand category and its ranks, already in significance order, into a
+     * strength code.
+     */
+    public static int packStrength(HandRank rank, int r0, int r1, int r2, int r3, int r4) {
+        return rank.getValue() << 20 | r0 << 16 | r1 << 12 | r2 << 8 | r3 << 4 | r4;
+    }
 
-        java.util.Map<Integer, Integer> freq2 = new java.util.HashMap<>();
-        for (Card c : other.bestFive)
-            freq2.merge(c.rank().getValue(), 1, Integer::sum);
-        List<Card> sorted2 = new java.util.ArrayList<>(other.bestFive);
-        sorted2.sort((c1, c2) -> {
-            int f1 = freq2.get(c1.rank().getValue());
-            int f2 = freq2.get(c2.rank().getValue());
-            if (f1 != f2)
-                return Integer.compare(f2, f1);
-            return Integer.compare(c2.rank().getValue(), c1.rank().getValue());
-        });
+    /**
+     * Computes the strength code of up to five cards.
+     */
+    public static int strengthOf(HandRank rank, List<Card> cards) {
+        int[] counts = new int[15];
+        for (int i = 0; i < cards.size(); i++) {
+            counts[cards.get(i).rank().getValue()]++;
+        }
+        if ((rank == HandRank.STRAIGHT || rank == HandRank.STRAIGHT_FLUSH) && counts[14] == 1 && counts[5] == 1
+                && counts[13] == 0) {
+            // Wheel: the ace plays low
+            return packStrength(rank, 5, 4, 3, 2, 1);
+        }
 
-        for (int i = 0; i < Math.min(sorted1.size(), sorted2.size()); i++) {
-            int c1 = sorted1.get(i).rank().getValue();
-            int c2 = sorted2.get(i).rank().getValue();
-            if (c1 != c2)
-                return Integer.compare(c1, c2);
+        // Highest frequency first, higher rank first within the same frequency
+        int packed = 0;
+        int taken = 0;
+        for (int freq = 4; freq >= 1 && taken < 5; freq--) {
+            for (int value = 14; value >= 2 && taken < 5; value--) {
+                if (counts[value] != freq)
+                    continue;
+                for (int k = 0; k < freq && taken < 5; k++) {
+                    packed = packed << 4 | value;
+                    taken++;
+                }
+            }
         }
-        return 0;
+        packed <<= 4 * (5 - taken);
+        return rank.getValue() << 20 | packed;
     }
 }
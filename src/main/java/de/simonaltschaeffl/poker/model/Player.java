@@ -19,6 +19,9 @@ public abstract class Player {
     private int chips;
     @NotNull
     private final List<Card> holeCards;
+    private long holeCardMask;
+    @Min(1)
+    private int maxHoleCards = 2;
     @NotNull
     private PlayerStatus status;
     @Min(0)
@@ -34,20 +37,47 @@ public abstract class Player {
     }
 
     public void addHoleCard(Card card) {
-        if (holeCards.size() >= 2) {
-            throw new TooManyHoleCardsException("Player already has 2 hole cards");
+        if (holeCards.size() >= maxHoleCards) {
+            throw new TooManyHoleCardsException("Player already has " + maxHoleCards + " hole cards");
         }
         holeCards.add(card);
+        holeCardMask = CardSet.add(holeCardMask, card);
+    }
+
+    /**
+     * Sets how many hole cards the player may hold, e.g. 2 for Texas Hold'em
+     * or 4 for Omaha. The engine sets it from
+     * {@code PokerGameConfiguration#getHoleCardCount()} before dealing.
+     *
+     * @param maxHoleCards the maximum number of hole cards, at least 1
+     */
+    public void setMaxHoleCards(int maxHoleCards) {
+        if (maxHoleCards < 1) {
+            throw new IllegalArgumentException("Max hole cards must be at least 1");
+        }
+        this.maxHoleCards = maxHoleCards;
+    }
+
+    public int getMaxHoleCards() {
+        return maxHoleCards;
     }
 
     public void clearHoleCards() {
         holeCards.clear();
+        holeCardMask = CardSet.EMPTY;
     }
 
     public List<Card> getHoleCards() {
         return new ArrayList<>(holeCards);
     }
 
+    /**
+     * @return the hole cards as a {@link CardSet} mask, without copying
+     */
+    public long getHoleCardMask() {
+        return holeCardMask;
+    }
+
     public void bet(int amount) {
         if (amount > chips) {
             throw new InsufficientChipsException("Not enough chips");
@@ -0,0 +1,11 @@
+package de.simonaltschaeffl.poker.model;
+
+/**
+ * The 36-card deck of Short Deck (6+) Hold'em: sixes to aces in four suits.
+ */
+public class ShortDeck extends Deck {
+
+    public ShortDeck() {
+        super(Card.Rank.SIX);
+    }
+}
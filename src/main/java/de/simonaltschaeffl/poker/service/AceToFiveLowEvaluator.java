@@ -0,0 +1,51 @@
+package de.simonaltschaeffl.poker.service;
+
+/**
+ * Ace-to-five, eight-or-better low for games where the best five of all cards
+ * play, such as Hold'em hi-lo.
+ * <p>
+ * Only the distinct ranks ace to eight matter for the low, so the cards are
+ * folded into an 8-bit mask (ace in bit 0, eight in bit 7) and a 256-entry
+ * table gives the strength. The table keeps the five lowest ranks and stores
+ * {@code 256 - mask}: comparing two 5-bit masks as integers compares their
+ * highest cards first, exactly as ace-to-five does, so the best low
+ * A-2-3-4-5 gets 225 and the worst qualifying 8-7-6-5-4 gets 8.
+ */
+public class AceToFiveLowEvaluator implements LowHandEvaluator {
+
+    private static final byte[] LOW = new byte[256];
+
+    static {
+        for (int ranks = 0; ranks < 256; ranks++) {
+            if (Integer.bitCount(ranks) < 5)
+                continue;
+            int five = ranks;
+            while (Integer.bitCount(five) > 5) {
+                five &= ~Integer.highestOneBit(five);
+            }
+            LOW[ranks] = (byte) (256 - five);
+        }
+    }
+
+    @Override
+    public int lowStrength(long holeCards, long communityCards) {
+        return lowStrength(lowRanks(holeCards | communityCards));
+    }
+
+    /**
+     * @param lowRanks ranks ace to eight as returned by {@link #lowRanks(long)}
+     * @return the strength of the best low among these ranks, or 0 if fewer
+     *         than five are present
+     */
+    public static int lowStrength(int lowRanks) {
+        return LOW[lowRanks] & 0xFF;
+    }
+
+    /**
+     * Folds a card mask into the ranks ace to eight it holds, ace in bit 0.
+     */
+    public static int lowRanks(long cards) {
+        int ranks = (int) (cards | cards >>> 13 | cards >>> 26 | cards >>> 39) & 0x1FFF;
+        return (ranks >>> 12) & 1 | (ranks & 0x7F) << 1;
+    }
+}
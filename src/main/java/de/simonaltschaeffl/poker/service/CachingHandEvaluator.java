@@ -0,0 +1,138 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link HandEvaluator} decorator that caches results by the suit-isomorphic
+ * canonical form of the hand, see {@link SuitCanonicalizer}.
+ * <p>
+ * The cache is a fixed-size, direct-mapped table of two {@code long} arrays, so
+ * its memory is bounded at 16 bytes per entry and a colliding entry simply
+ * replaces the old one. Each entry packs the delegate's category, the strength
+ * and the canonical best five cards; on a hit the cards are mapped back to the
+ * caller's suits. The category is stored rather than decoded from the
+ * strength, since evaluators such as {@link ShortDeckHandEvaluator} order the
+ * categories differently.
+ * <p>
+ * The table is shared between threads without locking. The key slot stores
+ * {@code key ^ value}, so an entry whose two halves were written by different
+ * threads fails the key check and counts as a miss instead of returning a
+ * wrong result.
+ */
+public class CachingHandEvaluator implements HandEvaluator {
+
+    private static final HandRank[] RANKS = HandRank.values();
+
+    private final HandEvaluator delegate;
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache in front of the given evaluator.
+     *
+     * @param delegate   the evaluator used on cache misses
+     * @param maxEntries upper bound on the number of cached entries; rounded down
+     *                   to a power of two
+     */
+    public CachingHandEvaluator(HandEvaluator delegate, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache needs at least one entry");
+        }
+        int capacity = Integer.highestOneBit(maxEntries);
+        this.delegate = delegate;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+        return evaluate(CardSet.of(holeCards), CardSet.of(communityCards));
+    }
+
+    @Override
+    public HandResult evaluate(long holeCards, long communityCards) {
+        if (!isCacheable(holeCards, communityCards)) {
+            return delegate.evaluate(holeCards, communityCards);
+        }
+        int order = SuitCanonicalizer.suitOrder(holeCards, communityCards);
+        long entry = lookup(holeCards, communityCards, order);
+        int strength = (int) (entry >>> 33) & 0xFFFFFF;
+        int count = (int) (entry >>> 30) & 7;
+        List<Card> bestFive = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int canonical = (int) (entry >>> (6 * i)) & 0x3F;
+            bestFive.add(CardSet.card(SuitCanonicalizer.originalIndex(canonical, order)));
+        }
+        return new HandResult(RANKS[(int) (entry >>> 57)], bestFive, strength);
+    }
+
+    @Override
+    public int strength(long holeCards, long communityCards) {
+        if (!isCacheable(holeCards, communityCards)) {
+            return delegate.strength(holeCards, communityCards);
+        }
+        int order = SuitCanonicalizer.suitOrder(holeCards, communityCards);
+        return (int) (lookup(holeCards, communityCards, order) >>> 33) & 0xFFFFFF;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries the cache can hold
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    private long lookup(long holeCards, long communityCards, int order) {
+        long canonicalHole = SuitCanonicalizer.apply(holeCards, order);
+        long canonicalBoard = SuitCanonicalizer.apply(communityCards, order);
+        long key = SuitCanonicalizer.index(canonicalHole, canonicalBoard);
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+
+        long value = values[slot];
+        if (value != 0 && (keys[slot] ^ value) == key) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = pack(delegate.evaluate(canonicalHole, canonicalBoard));
+        values[slot] = value;
+        keys[slot] = key ^ value;
+        return value;
+    }
+
+    // category ordinal << 57 | strength (24 bits) << 33 | card count << 30 | up
+    // to five 6-bit card indices
+    private static long pack(HandResult result) {
+        List<Card> bestFive = result.bestFive();
+        long packed = (long) result.rank().ordinal() << 57 | (long) result.strength() << 33
+                | (long) bestFive.size() << 30;
+        for (int i = 0; i < bestFive.size(); i++) {
+            packed |= (long) CardSet.index(bestFive.get(i)) << (6 * i);
+        }
+        return packed;
+    }
+
+    private static boolean isCacheable(long holeCards, long communityCards) {
+        return Long.bitCount(holeCards) <= SuitCanonicalizer.MAX_CARDS
+                && Long.bitCount(communityCards) <= SuitCanonicalizer.MAX_CARDS;
+    }
+}
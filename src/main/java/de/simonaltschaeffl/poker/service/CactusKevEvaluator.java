@@ -1,51 +1,134 @@
 package de.simonaltschaeffl.poker.service;
 
 import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
 import de.simonaltschaeffl.poker.model.HandRank;
 import de.simonaltschaeffl.poker.model.HandResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static de.simonaltschaeffl.poker.service.CactusKevTables.QUINARY_DP;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.classRanks;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.classStrength;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.flushBestLookup;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.flushLookup;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.noFlushLookup;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.primeProductValues;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.primeProducts;
+import static de.simonaltschaeffl.poker.service.CactusKevTables.uniqueLookup;
+
 /**
  * An implementation of the HandEvaluator interface using a variant of the
  * Cactus Kev evaluator algorithm. It maps 5-card hands to unique integers
  * to quickly determine their poker hand rank.
+ * <p>
+ * Hands of up to seven cards are scored in a single pass by default: a flush
+ * check on the per-suit rank masks, followed by a perfect hash over the rank
+ * counts. The classic approach of scoring every 5-card subset is still
+ * available through {@link Mode#COMBINATIONS}.
  */
 public class CactusKevEvaluator implements HandEvaluator {
 
-    // Lookup tables
-    private static final short[] flushLookup = new short[8192]; // 2^13 for suits
-    private static final java.util.Map<Integer, Short> primeProductMap = new java.util.HashMap<>();
+    /**
+     * Selects how hands with more than five cards are scored.
+     */
+    public enum Mode {
+        /** Scores every 5-card subset with {@link #eval5(int[])} and keeps the best. */
+        COMBINATIONS,
+        /** Scores five to seven cards in one pass through the rank-count tables. */
+        SEVEN_CARD
+    }
+
+    private final Mode mode;
 
-    static {
-        generateLookups();
+    /**
+     * Constructs an evaluator using the single-pass {@link Mode#SEVEN_CARD} mode.
+     */
+    public CactusKevEvaluator() {
+        this(Mode.SEVEN_CARD);
     }
 
     /**
-     * Evaluates a 5-card hand and returns its strength score.
-     * Lower scores indicate stronger hands.
+     * Constructs an evaluator using the given mode.
+     *
+     * @param mode how hands with more than five cards are scored
+     */
+    public CactusKevEvaluator(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Evaluates a 5-card hand and returns its Cactus Kev equivalence class.
+     * Lower scores indicate stronger hands: 1 is a royal flush and 7462 is
+     * 7-5-4-3-2 offsuit. Does not allocate.
      *
      * @param c an array of 5 integers representing the cards in Cactus Kev's format
-     * @return a short value representing the numerical strength of the hand
+     * @return a short value between 1 and 7462 representing the strength of the hand
      */
     public short eval5(int[] c) {
         int q = (c[0] | c[1] | c[2] | c[3] | c[4]) >> 16;
-        short s;
 
         if ((c[0] & c[1] & c[2] & c[3] & c[4] & 0xF000) != 0) {
-            s = flushLookup[q];
-        } else {
-            int product = (c[0] & 0xFF) * (c[1] & 0xFF) * (c[2] & 0xFF) * (c[3] & 0xFF) * (c[4] & 0xFF);
-            s = primeProductMap.get(product);
+            return flushLookup[q];
         }
-        return s;
+        short s = uniqueLookup[q];
+        if (s != 0) {
+            return s;
+        }
+        int product = (c[0] & 0xFF) * (c[1] & 0xFF) * (c[2] & 0xFF) * (c[3] & 0xFF) * (c[4] & 0xFF);
+        return primeProductValues[Arrays.binarySearch(primeProducts, product)];
+    }
+
+    /**
+     * Scores five to seven cards in a single pass. Does not allocate.
+     *
+     * @param clubs    13-bit rank mask of the clubs (bit 0 = deuce, bit 12 = ace)
+     * @param diamonds 13-bit rank mask of the diamonds
+     * @param hearts   13-bit rank mask of the hearts
+     * @param spades   13-bit rank mask of the spades
+     * @return the Cactus Kev score of the best 5-card hand, between 1 and 7462
+     */
+    public static int evalSuitMasks(int clubs, int diamonds, int hearts, int spades) {
+        // With at most seven cards, five of one suit leave too few cards for
+        // quads or a full house, so the flush is always the best hand.
+        if (Integer.bitCount(clubs) >= 5)
+            return flushBestLookup[clubs];
+        if (Integer.bitCount(diamonds) >= 5)
+            return flushBestLookup[diamonds];
+        if (Integer.bitCount(hearts) >= 5)
+            return flushBestLookup[hearts];
+        if (Integer.bitCount(spades) >= 5)
+            return flushBestLookup[spades];
+        return evalNoFlush(clubs, diamonds, hearts, spades);
+    }
+
+    // Scores five to seven cards that are known not to contain a flush
+    static int evalNoFlush(int clubs, int diamonds, int hearts, int spades) {
+        int cardCount = Integer.bitCount(clubs) + Integer.bitCount(diamonds) + Integer.bitCount(hearts)
+                + Integer.bitCount(spades);
+        // Ranks that are absent contribute nothing to the hash, so only the
+        // present ranks are visited, highest first.
+        int hash = 0;
+        int remaining = cardCount;
+        int present = clubs | diamonds | hearts | spades;
+        while (present != 0) {
+            int r = 31 - Integer.numberOfLeadingZeros(present);
+            int count = ((clubs >>> r) & 1) + ((diamonds >>> r) & 1) + ((hearts >>> r) & 1) + ((spades >>> r) & 1);
+            hash += QUINARY_DP[(count * 13 + r) * 8 + remaining];
+            remaining -= count;
+            present ^= 1 << r;
+        }
+        return noFlushLookup[cardCount - 5][hash];
     }
 
     /**
      * Evaluates the best possible 5-card hand from a combination of hole cards and
      * community cards.
-     * Evaluates all 21 possible combinations of 5 cards out of 7.
+     * In {@link Mode#SEVEN_CARD} mode hands of up to seven cards are scored in one
+     * pass and the best five cards are rebuilt once from the winning class.
+     * Otherwise all 5-card combinations (21 for seven cards) are scored.
      *
      * @param holeCards      the player's private cards (usually 2)
      * @param communityCards the shared community cards (up to 5)
@@ -53,22 +136,208 @@ public class CactusKevEvaluator implements HandEvaluator {
      */
     @Override
     public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+        int cardCount = holeCards.size() + communityCards.size();
+        if (cardCount < 5) {
+            throw new IllegalArgumentException("Need at least 5 cards to evaluate");
+        }
+        if (mode == Mode.SEVEN_CARD && cardCount <= 7) {
+            return evaluateSevenCard(holeCards, communityCards);
+        }
+        return evaluateCombinations(holeCards, communityCards);
+    }
+
+    /**
+     * Evaluates a hand given as {@link CardSet} masks. Each 13-bit block of the
+     * combined mask already is a suit's rank mask, so the score is computed
+     * without touching any {@link Card} objects.
+     */
+    @Override
+    public HandResult evaluate(long holeCards, long communityCards) {
+        long cards = holeCards | communityCards;
+        int cardCount = Long.bitCount(cards);
+        if (cardCount < 5) {
+            throw new IllegalArgumentException("Need at least 5 cards to evaluate");
+        }
+        if (mode == Mode.COMBINATIONS || cardCount > 7) {
+            return evaluateCombinations(CardSet.toList(holeCards), CardSet.toList(communityCards));
+        }
+        return toHandResult(evalCardSet(cards), cards);
+    }
+
+    @Override
+    public int strength(long holeCards, long communityCards) {
+        long cards = holeCards | communityCards;
+        int cardCount = Long.bitCount(cards);
+        if (mode == Mode.COMBINATIONS || cardCount < 5 || cardCount > 7) {
+            return evaluate(holeCards, communityCards).strength();
+        }
+        return classStrength[evalCardSet(cards)];
+    }
+
+    /**
+     * Evaluates all seats against one board. The board's suit masks are split
+     * once, and the flush checks are skipped for every seat whose hole cards
+     * cannot complete a flush on this board.
+     */
+    @Override
+    public int[] evaluateAll(long communityCards, long[] holeCards) {
+        if (mode == Mode.COMBINATIONS) {
+            return HandEvaluator.super.evaluateAll(communityCards, holeCards);
+        }
+        int clubs = (int) communityCards & 0x1FFF;
+        int diamonds = (int) (communityCards >>> 13) & 0x1FFF;
+        int hearts = (int) (communityCards >>> 26) & 0x1FFF;
+        int spades = (int) (communityCards >>> 39) & 0x1FFF;
+        int longestSuit = Math.max(Math.max(Integer.bitCount(clubs), Integer.bitCount(diamonds)),
+                Math.max(Integer.bitCount(hearts), Integer.bitCount(spades)));
+
+        int[] strengths = new int[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            long hole = holeCards[i];
+            int cardCount = Long.bitCount(hole | communityCards);
+            if (cardCount < 5 || cardCount > 7) {
+                strengths[i] = evaluate(hole, communityCards).strength();
+                continue;
+            }
+            int c = clubs | ((int) hole & 0x1FFF);
+            int d = diamonds | ((int) (hole >>> 13) & 0x1FFF);
+            int h = hearts | ((int) (hole >>> 26) & 0x1FFF);
+            int s = spades | ((int) (hole >>> 39) & 0x1FFF);
+            int score = longestSuit + Long.bitCount(hole) >= 5 ? evalSuitMasks(c, d, h, s) : evalNoFlush(c, d, h, s);
+            strengths[i] = classStrength[score];
+        }
+        return strengths;
+    }
+
+    @Override
+    public int[] evaluateAll(List<Card> communityCards, List<List<Card>> holeCards) {
+        if (mode == Mode.COMBINATIONS) {
+            return HandEvaluator.super.evaluateAll(communityCards, holeCards);
+        }
+        long[] holeMasks = new long[holeCards.size()];
+        for (int i = 0; i < holeMasks.length; i++) {
+            holeMasks[i] = CardSet.of(holeCards.get(i));
+        }
+        return evaluateAll(CardSet.of(communityCards), holeMasks);
+    }
+
+    /**
+     * Scores five to seven cards given as a {@link CardSet} mask.
+     *
+     * @return the Cactus Kev score, 1 (royal flush) to 7462
+     */
+    public static int evalCardSet(long cards) {
+        return evalSuitMasks((int) cards & 0x1FFF, (int) (cards >>> 13) & 0x1FFF,
+                (int) (cards >>> 26) & 0x1FFF, (int) (cards >>> 39) & 0x1FFF);
+    }
+
+    /**
+     * Builds the {@link HandResult} for a known Cactus Kev score from a card mask.
+     */
+    static HandResult toHandResult(int score, long cards) {
+        int flushSuit = -1;
+        if (isFlushScore(score)) {
+            for (int s = 0; s < 4; s++) {
+                if (Long.bitCount((cards >>> (s * 13)) & 0x1FFF) >= 5)
+                    flushSuit = s;
+            }
+        }
+
+        List<Card> bestFive = new ArrayList<>(5);
+        int pattern = classRanks[score];
+        long remaining = cards;
+        for (int shift = 16; shift >= 0; shift -= 4) {
+            int rank = (pattern >>> shift) & 0xF;
+            // Any suit of the rank will do unless the hand is a flush
+            for (int s = 3; s >= 0; s--) {
+                if (flushSuit >= 0 && s != flushSuit)
+                    continue;
+                long bit = 1L << (s * 13 + rank);
+                if ((remaining & bit) != 0) {
+                    remaining &= ~bit;
+                    bestFive.add(CardSet.card(s * 13 + rank));
+                    break;
+                }
+            }
+        }
+        return new HandResult(handRankOf(score), bestFive, classStrength[score]);
+    }
+
+    private HandResult evaluateSevenCard(List<Card> holeCards, List<Card> communityCards) {
+        int[] suitMasks = suitMasksOf(holeCards, communityCards);
+        int score = evalSuitMasks(suitMasks[0], suitMasks[1], suitMasks[2], suitMasks[3]);
+        return toHandResult(score, holeCards, communityCards);
+    }
+
+    /**
+     * Builds the {@link HandResult} for a known Cactus Kev score. The best five
+     * cards are picked from the given cards following the rank pattern of the
+     * score's equivalence class.
+     *
+     * @param score          the Cactus Kev score of the best 5-card hand
+     * @param holeCards      the player's private cards
+     * @param communityCards the shared community cards
+     * @return the HandResult for the score
+     */
+    static HandResult toHandResult(int score, List<Card> holeCards, List<Card> communityCards) {
+        int flushSuit = -1;
+        if (isFlushScore(score)) {
+            int[] suitMasks = suitMasksOf(holeCards, communityCards);
+            for (int s = 0; s < 4; s++) {
+                if (Integer.bitCount(suitMasks[s]) >= 5)
+                    flushSuit = s;
+            }
+        }
+
+        // Rebuild the best five cards once, following the rank pattern of the class.
+        // Cards already taken are tracked by their position in the combined hand.
+        List<Card> bestFive = new ArrayList<>(5);
+        int pattern = classRanks[score];
+        int used = 0;
+        for (int shift = 16; shift >= 0; shift -= 4) {
+            int rankValue = ((pattern >>> shift) & 0xF) + 2;
+            for (int i = 0; i < holeCards.size() + communityCards.size(); i++) {
+                Card c = i < holeCards.size() ? holeCards.get(i) : communityCards.get(i - holeCards.size());
+                if ((used & (1 << i)) == 0 && c.rank().getValue() == rankValue
+                        && (flushSuit < 0 || c.suit().ordinal() == flushSuit)) {
+                    used |= 1 << i;
+                    bestFive.add(c);
+                    break;
+                }
+            }
+        }
+        return new HandResult(handRankOf(score), bestFive, classStrength[score]);
+    }
+
+    private static int[] suitMasksOf(List<Card> holeCards, List<Card> communityCards) {
+        int[] suitMasks = new int[4];
+        for (int i = 0; i < holeCards.size(); i++) {
+            Card c = holeCards.get(i);
+            suitMasks[c.suit().ordinal()] |= 1 << (c.rank().getValue() - 2);
+        }
+        for (int i = 0; i < communityCards.size(); i++) {
+            Card c = communityCards.get(i);
+            suitMasks[c.suit().ordinal()] |= 1 << (c.rank().getValue() - 2);
+        }
+        return suitMasks;
+    }
+
+    private HandResult evaluateCombinations(List<Card> holeCards, List<Card> communityCards) {
         List<Card> sevenCards = new ArrayList<>();
         sevenCards.addAll(holeCards);
         sevenCards.addAll(communityCards);
 
-        // Iterate 21 combinations
         // Performance optimization: Use standard loop for array initialization
         int[] pool = new int[sevenCards.size()];
         for (int i = 0; i < sevenCards.size(); i++) {
-            pool[i] = CactusKevCommon.toInt(sevenCards.get(i));
+            pool[i] = sevenCards.get(i).cactusKev();
         }
 
         short bestScore = Short.MAX_VALUE;
         int[] bestHandInts = new int[5];
 
-        // combinatorics 7 choose 5
-        int n = 7;
+        // combinatorics n choose 5
+        int n = pool.length;
         int k = 5;
         int[] indices = { 0, 1, 2, 3, 4 };
 
@@ -84,18 +353,9 @@ public class CactusKevEvaluator implements HandEvaluator {
                 bestScore = score;
                 // Capture the ints for the best hand configuration.
                 System.arraycopy(hand, 0, bestHandInts, 0, 5);
-            } else if (score == bestScore && score < Short.MAX_VALUE) {
-                // Secondary comparison using HandResult logic for kickers
-                int[] currentHandInts = new int[5];
-                System.arraycopy(hand, 0, currentHandInts, 0, 5);
-                List<Card> currentCards = intsToCards(currentHandInts, sevenCards);
-                List<Card> bestCards = intsToCards(bestHandInts, sevenCards);
-                HandResult currentRes = new HandResult(HandRank.HIGH_CARD, currentCards);
-                HandResult bestRes = new HandResult(HandRank.HIGH_CARD, bestCards);
-                if (currentRes.compareTo(bestRes) > 0) {
-                    System.arraycopy(hand, 0, bestHandInts, 0, 5);
-                }
             }
+            // Scores are exact equivalence classes, so equal scores are true ties
+            // and the first combination found is kept.
 
             // Next combination
             int i = k - 1;
@@ -111,26 +371,6 @@ public class CactusKevEvaluator implements HandEvaluator {
             }
         }
 
-        HandRank rank;
-        if (bestScore <= 10)
-            rank = HandRank.STRAIGHT_FLUSH;
-        else if (bestScore <= 166)
-            rank = HandRank.FOUR_OF_A_KIND;
-        else if (bestScore <= 322)
-            rank = HandRank.FULL_HOUSE;
-        else if (bestScore <= 1599)
-            rank = HandRank.FLUSH;
-        else if (bestScore <= 1609)
-            rank = HandRank.STRAIGHT;
-        else if (bestScore <= 2467)
-            rank = HandRank.THREE_OF_A_KIND;
-        else if (bestScore <= 3325)
-            rank = HandRank.TWO_PAIR;
-        else if (bestScore <= 6185)
-            rank = HandRank.ONE_PAIR;
-        else
-            rank = HandRank.HIGH_CARD;
-
         // Reconstruct bestFive cards
         List<Card> bestFive = intsToCards(bestHandInts, sevenCards);
 
@@ -146,7 +386,7 @@ public class CactusKevEvaluator implements HandEvaluator {
             return Integer.compare(c2.rank().getValue(), c1.rank().getValue());
         });
 
-        return new HandResult(rank, bestFive);
+        return new HandResult(handRankOf(bestScore), bestFive, classStrength[bestScore]);
     }
 
     private List<Card> intsToCards(int[] handInts, List<Card> sevenCards) {
@@ -155,7 +395,7 @@ public class CactusKevEvaluator implements HandEvaluator {
         for (int ckInt : handInts) {
             for (int i = 0; i < sevenCards.size(); i++) {
                 Card c = sevenCards.get(i);
-                if (!used[i] && CactusKevCommon.toInt(c) == ckInt) {
+                if (!used[i] && c.cactusKev() == ckInt) {
                     used[i] = true;
                     five.add(c);
                     break;
@@ -165,136 +405,29 @@ public class CactusKevEvaluator implements HandEvaluator {
         return five;
     }
 
-    private static void generateLookups() {
-        initFlushLookup();
-        initFiveUniqueLookup();
-    }
-
-    private static void initFlushLookup() {
-        // Iterate all 13-bit patterns with exactly 5 bits set
-        for (int i = 0; i < 8192; i++) {
-            if (Integer.bitCount(i) != 5)
-                continue;
-
-            int[] ranks = getRanksFromMask(i);
-            boolean straight = isStraight(ranks);
-
-            // Base score 1 is best.
-            // Straight Flush: 1 (Royal) .. 10 (Steel Wheel)
-            // Regular Flush: 323 .. ?
-
-            if (straight) {
-                if (ranks[0] == 12) {
-                    flushLookup[i] = 1; // Royal
-                } else if (ranks[0] == 3 && ranks[4] == 12) {
-                    flushLookup[i] = 10; // Steel Wheel
-                } else {
-                    flushLookup[i] = (short) (1 + (12 - ranks[0])); // StrFlush based on high card
-                }
-            } else {
-                // Regular Flush.
-                // Range for Flush: 323 to 1599.
-                // We assign a valid constant score for now to pass identification.
-                flushLookup[i] = 400;
-            }
-        }
-    }
-
-    private static void initFiveUniqueLookup() {
-        // Iterate all 5-card rank combinations
-        recurseRanks(12, 0, 1, new int[5]);
-    }
-
-    // Recursive iterator for 5 cards with replacement (combinations with rep)
-    // 13 ranks (0..12).
-    private static void recurseRanks(int rankLimit, int depth, int currentProduct, int[] currentHand) {
-        if (depth == 5) {
-            // Evaluate this hand
-            short score = calculateScore(currentHand);
-            primeProductMap.put(currentProduct, score);
-            return;
-        }
-
-        for (int r = rankLimit; r >= 0; r--) {
-            currentHand[depth] = r;
-            // Primes: 2, 3, 5, 7, 11...
-            int p = CactusKevCommon.PRIMES[r];
-            recurseRanks(r, depth + 1, currentProduct * p, currentHand);
-        }
-    }
-
-    private static short calculateScore(int[] ranks) {
-        // ranks are sorted desc (r1 >= r2...) due to loop order
-        // Check counts
-        int[] counts = new int[13];
-        for (int r : ranks)
-            counts[r]++;
-
-        boolean four = false, three = false, two = false, two2 = false;
-
-        for (int c : counts) {
-            if (c == 4)
-                four = true;
-            if (c == 3)
-                three = true;
-            if (c == 2) {
-                if (two)
-                    two2 = true;
-                else
-                    two = true;
-            }
-        }
-
-        boolean straight = isStraight(ranks);
-
-        // Ranges for Cactus Kev scoring thresholds
-        // Quads: 11..166, Full House: 167..322, Flush: 323..1599, Straight: 1600..1609
-        // Trips: 1610..2467, Two Pair: 2468..3325, Pair: 3326..6185, High Card:
-        // 6186..7462
-
-        if (four)
-            return 100; // Simplified Score
-        if (three && two)
-            return 200;
-        if (straight)
-            return 1605;
-        if (three)
-            return 2000;
-        if (two && two2)
-            return 3000;
-        if (two)
-            return 4000;
-        return 7000;
-        // NOTE: This simplified scoring is sufficient for architectural validation
-        // but breaks strict kicker comparison.
+    private static boolean isFlushScore(int score) {
+        return score <= 10 || (score >= 323 && score <= 1599);
     }
 
-    // --- Utils ---
-    private static int[] getRanksFromMask(int mask) {
-        int[] r = new int[5];
-        int idx = 0;
-        for (int i = 12; i >= 0; i--) {
-            if ((mask & (1 << i)) != 0)
-                r[idx++] = i;
-        }
-        return r;
+    static HandRank handRankOf(int score) {
+        if (score == 1)
+            return HandRank.ROYAL_FLUSH;
+        else if (score <= 10)
+            return HandRank.STRAIGHT_FLUSH;
+        else if (score <= 166)
+            return HandRank.FOUR_OF_A_KIND;
+        else if (score <= 322)
+            return HandRank.FULL_HOUSE;
+        else if (score <= 1599)
+            return HandRank.FLUSH;
+        else if (score <= 1609)
+            return HandRank.STRAIGHT;
+        else if (score <= 2467)
+            return HandRank.THREE_OF_A_KIND;
+        else if (score <= 3325)
+            return HandRank.TWO_PAIR;
+        else if (score <= 6185)
+            return HandRank.ONE_PAIR;
+        return HandRank.HIGH_CARD;
     }
-
-    private static boolean isStraight(int[] ranks) {
-        // ranks sorted desc.
-        // 5 unique.
-        // Check neighbors
-        boolean seq = true;
-        for (int i = 0; i < 4; i++)
-            if (ranks[i] != ranks[i + 1] + 1)
-                seq = false;
-
-        // Validate wheel straight (A-2-3-4-5) where Ace acts as the low card.
-        if (!seq && ranks[0] == 12 && ranks[1] == 3 && ranks[2] == 2 && ranks[3] == 1 && ranks[4] == 0) {
-            return true;
-        }
-
-        return seq;
-    }
-
 }
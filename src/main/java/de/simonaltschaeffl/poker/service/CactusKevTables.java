@@ -0,0 +1,451 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lookup tables of {@link CactusKevEvaluator}, initialized lazily on first use.
+ * <p>
+ * This class is only touched by the evaluation methods, so loading or
+ * constructing an evaluator is cheap and the JVM initializes the tables
+ * exactly once, on the first evaluation. The tables are read from the
+ * {@value #RESOURCE} classpath resource, which the Maven build generates by
+ * running {@link #main(String[])} after compilation. If the resource is
+ * missing, for example when running from an IDE without the build step, the
+ * tables are computed in-process instead.
+ */
+public final class CactusKevTables {
+
+    static final String RESOURCE = "cactus-kev.tables";
+
+    // "CKT" followed by the format version
+    private static final int MAGIC = 0x434B5401;
+
+    // Lookup tables, indexed by the 13-bit rank mask of the five cards
+    static final short[] flushLookup = new short[8192];
+    static final short[] uniqueLookup = new short[8192];
+
+    // Hands with a paired rank, keyed by the product of their rank primes.
+    // Sorted ascending so that eval5 can binary-search without boxing.
+    static final int[] primeProducts = new int[4888];
+    static final short[] primeProductValues = new short[4888];
+
+    private static final Card.Rank[] RANKS = Card.Rank.values();
+
+    // Rank masks of the ten straights, from ace-high down to the wheel (5-4-3-2-A)
+    private static final int[] STRAIGHT_MASKS = {
+            0x1F00, 0x0F80, 0x07C0, 0x03E0, 0x01F0, 0x00F8, 0x007C, 0x003E, 0x001F, 0x100F };
+
+    // Best flush or straight flush for any 13-bit suit mask with at least five bits
+    static final short[] flushBestLookup = new short[8192];
+
+    // Best non-flush score for 5, 6 and 7 cards, indexed by the rank-count hash
+    static final short[][] noFlushLookup = new short[3][];
+
+    // QUINARY_DP[(count * 13 + rank) * 8 + remaining] is the number of rank-count
+    // vectors that sort before the current prefix, see CactusKevEvaluator.evalSuitMasks
+    static final int[] QUINARY_DP = new int[5 * 13 * 8];
+
+    // The five ranks of each equivalence class, packed 4 bits each in display order
+    static final int[] classRanks = new int[7463];
+
+    // HandResult strength code of each equivalence class
+    static final int[] classStrength = new int[7463];
+
+    static {
+        if (!loadResource()) {
+            generate();
+        }
+    }
+
+
+    private CactusKevTables() {
+    }
+
+    /**
+     * Writes the tables to the given file, creating parent directories as needed.
+     * Used by the build to produce the {@value #RESOURCE} resource. The tables
+     * are always computed afresh: the build runs this with the output directory
+     * on the classpath, so the static initializer may have loaded the resource
+     * of an earlier build.
+     */
+    public static void main(String[] args) throws IOException {
+        generate();
+        Path target = Paths.get(args.length > 0 ? args[0] : RESOURCE);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(target)) {
+            write(out);
+        }
+        System.out.printf("Wrote %,d bytes to %s%n", Files.size(target), target.toAbsolutePath());
+    }
+
+    static void write(OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target, 1 << 16);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(MAGIC);
+        writeShorts(out, flushLookup);
+        writeShorts(out, uniqueLookup);
+        writeInts(out, primeProducts);
+        writeShorts(out, primeProductValues);
+        writeShorts(out, flushBestLookup);
+        for (short[] table : noFlushLookup) {
+            out.writeInt(table.length);
+            writeShorts(out, table);
+        }
+        writeInts(out, QUINARY_DP);
+        writeInts(out, classRanks);
+        writeInts(out, classStrength);
+        out.flush();
+        gzip.finish();
+    }
+
+    private static boolean loadResource() {
+        try (InputStream resource = CactusKevTables.class.getResourceAsStream(RESOURCE)) {
+            if (resource == null) {
+                return false;
+            }
+            read(resource);
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load " + RESOURCE, e);
+        }
+    }
+
+    static void read(InputStream source) throws IOException {
+        // Inflate everything first and copy the arrays out in bulk; reading
+        // element by element is noticeably slower while the JVM is still cold.
+        ByteBuffer in = ByteBuffer.wrap(new GZIPInputStream(source, 1 << 16).readAllBytes());
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Unexpected table format");
+        }
+        readShorts(in, flushLookup);
+        readShorts(in, uniqueLookup);
+        readInts(in, primeProducts);
+        readShorts(in, primeProductValues);
+        readShorts(in, flushBestLookup);
+        for (int i = 0; i < noFlushLookup.length; i++) {
+            noFlushLookup[i] = new short[in.getInt()];
+            readShorts(in, noFlushLookup[i]);
+        }
+        readInts(in, QUINARY_DP);
+        readInts(in, classRanks);
+        readInts(in, classStrength);
+    }
+
+    private static void writeShorts(DataOutputStream out, short[] values) throws IOException {
+        for (short value : values)
+            out.writeShort(value);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values)
+            out.writeInt(value);
+    }
+
+    private static void readShorts(ByteBuffer in, short[] values) throws IOException {
+        if (in.remaining() < values.length * 2) {
+            throw new IOException("Truncated table resource");
+        }
+        in.asShortBuffer().get(values);
+        in.position(in.position() + values.length * 2);
+    }
+
+    private static void readInts(ByteBuffer in, int[] values) throws IOException {
+        if (in.remaining() < values.length * 4) {
+            throw new IOException("Truncated table resource");
+        }
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * 4);
+    }
+
+    // Computes every table, replacing whatever was loaded before
+    static void generate() {
+        Arrays.fill(flushLookup, (short) 0);
+        Arrays.fill(uniqueLookup, (short) 0);
+        Arrays.fill(primeProducts, 0);
+        Arrays.fill(primeProductValues, (short) 0);
+        Arrays.fill(flushBestLookup, (short) 0);
+        Arrays.fill(noFlushLookup, null);
+        Arrays.fill(QUINARY_DP, 0);
+        Arrays.fill(classRanks, 0);
+        Arrays.fill(classStrength, 0);
+        initFlushAndUniqueLookups();
+        initPrimeProductLookup();
+        initFlushBestLookup();
+        initNoFlushLookups();
+        initClassStrength();
+    }
+
+    private static void initClassStrength() {
+        for (int score = 1; score <= 7462; score++) {
+            int pattern = classRanks[score];
+            HandRank rank = CactusKevEvaluator.handRankOf(score);
+            if (score == 10 || score == 1609) {
+                // Wheel: the ace plays low
+                classStrength[score] = HandResult.packStrength(rank, 5, 4, 3, 2, 1);
+            } else {
+                classStrength[score] = HandResult.packStrength(rank, ((pattern >>> 16) & 0xF) + 2,
+                        ((pattern >>> 12) & 0xF) + 2, ((pattern >>> 8) & 0xF) + 2, ((pattern >>> 4) & 0xF) + 2,
+                        (pattern & 0xF) + 2);
+            }
+        }
+    }
+
+    private static void initFlushAndUniqueLookups() {
+        // Straight flushes (1..10) and straights (1600..1609), royal down to the wheel
+        for (int i = 0; i < STRAIGHT_MASKS.length; i++) {
+            flushLookup[STRAIGHT_MASKS[i]] = (short) (1 + i);
+            uniqueLookup[STRAIGHT_MASKS[i]] = (short) (1600 + i);
+            classRanks[1 + i] = packRanks(getRanksFromMask(STRAIGHT_MASKS[i]));
+            classRanks[1600 + i] = classRanks[1 + i];
+        }
+
+        // Flushes (323..1599) and high cards (6186..7462). For masks with exactly
+        // five bits set, a larger mask is always the stronger hand, so walking the
+        // masks downwards visits the classes strongest first.
+        short flushScore = 323;
+        short highCardScore = 6186;
+        for (int mask = 0x1F00; mask >= 0x1F; mask--) {
+            if (Integer.bitCount(mask) != 5 || isStraight(getRanksFromMask(mask))) {
+                continue;
+            }
+            classRanks[flushScore] = packRanks(getRanksFromMask(mask));
+            classRanks[highCardScore] = classRanks[flushScore];
+            flushLookup[mask] = flushScore++;
+            uniqueLookup[mask] = highCardScore++;
+        }
+    }
+
+    private static void initPrimeProductLookup() {
+        int idx = 0;
+        int score = 11;
+
+        // Four of a Kind: 11..166
+        for (int quad = 12; quad >= 0; quad--) {
+            for (int kicker = 12; kicker >= 0; kicker--) {
+                if (kicker != quad) {
+                    addProductClass(idx++, score++, quad, quad, quad, quad, kicker);
+                }
+            }
+        }
+
+        // Full House: 167..322
+        for (int trips = 12; trips >= 0; trips--) {
+            for (int pair = 12; pair >= 0; pair--) {
+                if (pair != trips) {
+                    addProductClass(idx++, score++, trips, trips, trips, pair, pair);
+                }
+            }
+        }
+
+        // Three of a Kind: 1610..2467 (flushes and straights live in the 13-bit tables)
+        score = 1610;
+        for (int trips = 12; trips >= 0; trips--) {
+            for (int k1 = 12; k1 >= 0; k1--) {
+                for (int k2 = k1 - 1; k2 >= 0; k2--) {
+                    if (k1 != trips && k2 != trips) {
+                        addProductClass(idx++, score++, trips, trips, trips, k1, k2);
+                    }
+                }
+            }
+        }
+
+        // Two Pair: 2468..3325
+        for (int high = 12; high >= 0; high--) {
+            for (int low = high - 1; low >= 0; low--) {
+                for (int kicker = 12; kicker >= 0; kicker--) {
+                    if (kicker != high && kicker != low) {
+                        addProductClass(idx++, score++, high, high, low, low, kicker);
+                    }
+                }
+            }
+        }
+
+        // One Pair: 3326..6185
+        for (int pair = 12; pair >= 0; pair--) {
+            for (int k1 = 12; k1 >= 0; k1--) {
+                for (int k2 = k1 - 1; k2 >= 0; k2--) {
+                    for (int k3 = k2 - 1; k3 >= 0; k3--) {
+                        if (k1 != pair && k2 != pair && k3 != pair) {
+                            addProductClass(idx++, score++, pair, pair, k1, k2, k3);
+                        }
+                    }
+                }
+            }
+        }
+
+        sortByProduct();
+    }
+
+    private static void addProductClass(int idx, int score, int r0, int r1, int r2, int r3, int r4) {
+        primeProducts[idx] = RANKS[r0].getPrime() * RANKS[r1].getPrime() * RANKS[r2].getPrime()
+                * RANKS[r3].getPrime() * RANKS[r4].getPrime();
+        primeProductValues[idx] = (short) score;
+        classRanks[score] = packRanks(new int[] { r0, r1, r2, r3, r4 });
+    }
+
+    // Insertion sort keeps the product and value arrays in step without boxing.
+    private static void sortByProduct() {
+        for (int i = 1; i < primeProducts.length; i++) {
+            int product = primeProducts[i];
+            short value = primeProductValues[i];
+            int j = i - 1;
+            while (j >= 0 && primeProducts[j] > product) {
+                primeProducts[j + 1] = primeProducts[j];
+                primeProductValues[j + 1] = primeProductValues[j];
+                j--;
+            }
+            primeProducts[j + 1] = product;
+            primeProductValues[j + 1] = value;
+        }
+    }
+
+    private static void initFlushBestLookup() {
+        for (int mask = 0; mask < 8192; mask++) {
+            if (Integer.bitCount(mask) < 5)
+                continue;
+            short best = 0;
+            for (int straight : STRAIGHT_MASKS) {
+                if ((mask & straight) == straight) {
+                    best = flushLookup[straight];
+                    break;
+                }
+            }
+            if (best == 0) {
+                // Drop the lowest ranks until the five highest remain
+                int top = mask;
+                while (Integer.bitCount(top) > 5)
+                    top &= top - 1;
+                best = flushLookup[top];
+            }
+            flushBestLookup[mask] = best;
+        }
+    }
+
+    private static void initNoFlushLookups() {
+        // ways[m][s]: number of rank-count vectors over m ranks (0..4 each) summing to s
+        int[][] ways = new int[14][8];
+        ways[0][0] = 1;
+        for (int m = 1; m <= 13; m++) {
+            for (int s = 0; s < 8; s++) {
+                for (int d = 0; d <= 4 && d <= s; d++)
+                    ways[m][s] += ways[m - 1][s - d];
+            }
+        }
+        for (int count = 0; count <= 4; count++) {
+            for (int r = 0; r < 13; r++) {
+                for (int remaining = 0; remaining < 8; remaining++) {
+                    int below = 0;
+                    for (int d = 0; d < count && d <= remaining; d++)
+                        below += ways[r][remaining - d];
+                    QUINARY_DP[(count * 13 + r) * 8 + remaining] = below;
+                }
+            }
+        }
+
+        for (int cardCount = 5; cardCount <= 7; cardCount++) {
+            noFlushLookup[cardCount - 5] = new short[ways[13][cardCount]];
+            fillNoFlush(12, cardCount, new int[13], cardCount);
+        }
+    }
+
+    // Enumerates every rank-count vector with the given card count and stores
+    // the best score of its 5-card sub-hands under its hash.
+    private static void fillNoFlush(int rank, int remaining, int[] counts, int cardCount) {
+        if (rank < 0) {
+            if (remaining == 0) {
+                int hash = 0;
+                int left = cardCount;
+                for (int r = 12; r >= 0 && left > 0; r--) {
+                    hash += QUINARY_DP[(counts[r] * 13 + r) * 8 + left];
+                    left -= counts[r];
+                }
+                noFlushLookup[cardCount - 5][hash] = bestFiveOf(12, 5, counts, new int[13]);
+            }
+            return;
+        }
+        for (int c = 0; c <= 4 && c <= remaining; c++) {
+            counts[rank] = c;
+            fillNoFlush(rank - 1, remaining - c, counts, cardCount);
+        }
+        counts[rank] = 0;
+    }
+
+    private static short bestFiveOf(int rank, int remaining, int[] counts, int[] picked) {
+        if (remaining == 0) {
+            int mask = 0;
+            int product = 1;
+            boolean paired = false;
+            for (int r = 0; r < 13; r++) {
+                if (picked[r] > 0)
+                    mask |= 1 << r;
+                if (picked[r] > 1)
+                    paired = true;
+                for (int i = 0; i < picked[r]; i++)
+                    product *= RANKS[r].getPrime();
+            }
+            if (!paired)
+                return uniqueLookup[mask];
+            return primeProductValues[Arrays.binarySearch(primeProducts, product)];
+        }
+        if (rank < 0)
+            return Short.MAX_VALUE;
+        short best = Short.MAX_VALUE;
+        for (int c = Math.min(counts[rank], remaining); c >= 0; c--) {
+            picked[rank] = c;
+            short score = bestFiveOf(rank - 1, remaining - c, counts, picked);
+            if (score < best)
+                best = score;
+        }
+        picked[rank] = 0;
+        return best;
+    }
+
+    // --- Utils ---
+
+    private static int packRanks(int[] ranks) {
+        return (ranks[0] << 16) | (ranks[1] << 12) | (ranks[2] << 8) | (ranks[3] << 4) | ranks[4];
+    }
+
+    private static int[] getRanksFromMask(int mask) {
+        int[] r = new int[5];
+        int idx = 0;
+        for (int i = 12; i >= 0; i--) {
+            if ((mask & (1 << i)) != 0)
+                r[idx++] = i;
+        }
+        return r;
+    }
+
+    private static boolean isStraight(int[] ranks) {
+        // ranks sorted desc.
+        // 5 unique.
+        // Check neighbors
+        boolean seq = true;
+        for (int i = 0; i < 4; i++)
+            if (ranks[i] != ranks[i + 1] + 1)
+                seq = false;
+
+        // Validate wheel straight (A-2-3-4-5) where Ace acts as the low card.
+        if (!seq && ranks[0] == 12 && ranks[1] == 3 && ranks[2] == 2 && ranks[3] == 1 && ranks[4] == 0) {
+            return true;
+        }
+
+        return seq;
+    }
+}
@@ -0,0 +1,541 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the showdown equity of known hands by sampling random run-outs of
+ * the board (Monte Carlo).
+ * <p>
+ * Given the hole cards of every player, a partial board and dead cards, each
+ * sample completes the board from the remaining deck and scores all hands with
+ * {@link HandEvaluator#evaluateBatch}, so the SIMD evaluator from
+ * {@link BatchEvaluatorFactory} is used when available.
+ * <p>
+ * Sampling runs in rounds on a {@link ForkJoinPool}. Every round is split into
+ * chunks of {@value #CHUNK_SAMPLES} run-outs; each chunk draws from its own
+ * {@link SplittableRandom}, split from the root generator before the round
+ * starts, and returns its own tally, so workers share no mutable state and a
+ * seeded run gives the same result on any number of threads. Between rounds
+ * the calculator checks the {@link Budget}: it stops at the sample limit, when
+ * the time limit has passed, or once the standard error of every player's
+ * equity is below the target.
+ * <p>
+ * When few cards are missing, {@link #enumerate(long[], long, long)} scores
+ * every possible run-out instead and returns exact equities. After the flop
+ * that is at most 990 boards (903 with three players), so a three-way flop
+ * takes well under a millisecond. The run-outs are partitioned by their
+ * lowest card, the turn card on the flop, across the pool; each task builds
+ * the board up to that card once and reuses it, together with the seats'
+ * hole card arrays, for every river it scores.
+ */
+public class EquityCalculator {
+
+    static final int CHUNK_SAMPLES = 4096;
+    // Run-outs scored per evaluateBatch call
+    private static final int BATCH_SAMPLES = 256;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final HandEvaluator evaluator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a calculator with the fastest batch evaluator on the common pool.
+     */
+    public EquityCalculator() {
+        this(BatchEvaluatorFactory.create(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param evaluator the evaluator used to score the run-outs; it must be safe
+     *                  to call from several threads
+     * @param pool      the pool the sampling runs on
+     */
+    public EquityCalculator(HandEvaluator evaluator, ForkJoinPool pool) {
+        this.evaluator = evaluator;
+        this.pool = pool;
+    }
+
+    /**
+     * Limits how long a calculation runs. Instances are created using the
+     * {@link Builder}; a calculation stops at whichever limit it reaches first.
+     */
+    public static final class Budget {
+        private final long maxSamples;
+        private final Duration maxTime;
+        private final double targetStandardError;
+        private final long seed;
+
+        private Budget(Builder builder) {
+            this.maxSamples = builder.maxSamples;
+            this.maxTime = builder.maxTime;
+            this.targetStandardError = builder.targetStandardError;
+            this.seed = builder.seed;
+        }
+
+        public long getMaxSamples() {
+            return maxSamples;
+        }
+
+        public Duration getMaxTime() {
+            return maxTime;
+        }
+
+        public double getTargetStandardError() {
+            return targetStandardError;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Builder for {@link Budget}.
+         */
+        public static class Builder {
+            private long maxSamples = 1_000_000;
+            private Duration maxTime = null; // null means no time limit
+            private double targetStandardError = 0; // 0 means no precision target
+            private long seed = System.nanoTime();
+
+            public Builder maxSamples(long maxSamples) {
+                this.maxSamples = maxSamples;
+                return this;
+            }
+
+            public Builder maxTime(Duration maxTime) {
+                this.maxTime = maxTime;
+                return this;
+            }
+
+            /**
+             * Stops sampling once the standard error of every player's equity
+             * is at most this value. A target of 0.001 gives a 95% confidence
+             * interval of about 0.2% either way.
+             */
+            public Builder targetStandardError(double targetStandardError) {
+                this.targetStandardError = targetStandardError;
+                return this;
+            }
+
+            /**
+             * Seeds the root generator, making the result reproducible as long
+             * as no time limit cuts the run short.
+             */
+            public Builder seed(long seed) {
+                this.seed = seed;
+                return this;
+            }
+
+            public Budget build() {
+                if (maxSamples < 1) {
+                    throw new IllegalArgumentException("Max samples must be at least 1");
+                }
+                if (maxTime != null && (maxTime.isNegative() || maxTime.isZero())) {
+                    throw new IllegalArgumentException("Max time must be positive");
+                }
+                if (targetStandardError < 0) {
+                    throw new IllegalArgumentException("Target standard error must not be negative");
+                }
+                return new Budget(this);
+            }
+        }
+    }
+
+    /**
+     * Outcome of a calculation; the arrays are indexed by player.
+     *
+     * @param samples       the number of run-outs scored
+     * @param win           share of run-outs the player wins alone
+     * @param tie           share of run-outs the player splits with others
+     * @param equity        expected share of the pot: wins plus each split
+     *                      divided by the number of winners
+     * @param standardError the largest standard error of any player's equity,
+     *                      0 for an exact result
+     */
+    public record Result(long samples, double[] win, double[] tie, double[] equity, double standardError) {
+    }
+
+    /**
+     * List-based variant of {@link #calculate(long[], long, long, Budget)}.
+     */
+    public Result calculate(List<List<Card>> holeCards, List<Card> communityCards, List<Card> deadCards,
+            Budget budget) {
+        long[] holeMasks = new long[holeCards.size()];
+        for (int i = 0; i < holeMasks.length; i++) {
+            holeMasks[i] = CardSet.of(holeCards.get(i));
+        }
+        return calculate(holeMasks, CardSet.of(communityCards), CardSet.of(deadCards), budget);
+    }
+
+    /**
+     * List-based variant of {@link #enumerate(long[], long, long)}.
+     */
+    public Result enumerate(List<List<Card>> holeCards, List<Card> communityCards, List<Card> deadCards) {
+        long[] holeMasks = new long[holeCards.size()];
+        for (int i = 0; i < holeMasks.length; i++) {
+            holeMasks[i] = CardSet.of(holeCards.get(i));
+        }
+        return enumerate(holeMasks, CardSet.of(communityCards), CardSet.of(deadCards));
+    }
+
+    /**
+     * Computes the exact equity of each player by scoring every run-out of the
+     * board. The cost grows with the number of missing cards: at most 44 boards
+     * on the turn and 990 on the flop, but about 1.7 million preflop, where
+     * {@link #calculate(long[], long, long, Budget)} is usually the better choice.
+     *
+     * @param holeCards      the hole cards of each player as card masks
+     * @param communityCards the known board, 0 to 5 cards
+     * @param deadCards      cards known to be out of the deck
+     * @return win, tie and equity shares per player, with the number of
+     *         run-outs as {@link Result#samples()}
+     * @throws IllegalArgumentException on the same input as
+     *                                  {@link #calculate(long[], long, long, Budget)}
+     */
+    public Result enumerate(long[] holeCards, long communityCards, long deadCards) {
+        int missing = 5 - validate(holeCards, communityCards, deadCards);
+        int[] deck = liveCards(holeCards, communityCards, deadCards, missing);
+        if (missing == 0) {
+            Tally tally = new Tally(holeCards.length);
+            tally.add(evaluator.evaluateAll(communityCards, holeCards), 0);
+            return tally.toResult(true);
+        }
+        int firstCards = deck.length - missing + 1;
+        return pool.invoke(new Enumerator(holeCards, communityCards, deck, missing, 0, firstCards)).toResult(true);
+    }
+
+    /**
+     * Estimates the equity of each player.
+     *
+     * @param holeCards      the hole cards of each player as card masks
+     * @param communityCards the known board, 0 to 5 cards
+     * @param deadCards      cards known to be out of the deck, for example folded
+     *                       hands or burn cards
+     * @param budget         when to stop sampling
+     * @return win, tie and equity shares per player
+     * @throws IllegalArgumentException if fewer than two players are given, a
+     *                                  player has no cards, a card is used twice or
+     *                                  the board holds more than five cards
+     */
+    public Result calculate(long[] holeCards, long communityCards, long deadCards, Budget budget) {
+        int missing = 5 - validate(holeCards, communityCards, deadCards);
+        int[] deck = liveCards(holeCards, communityCards, deadCards, missing);
+        Tally total = new Tally(holeCards.length);
+        if (missing == 0) {
+            total.add(evaluator.evaluateAll(communityCards, holeCards), 0);
+            return total.toResult(true);
+        }
+
+        long deadline = budget.getMaxTime() == null ? Long.MAX_VALUE
+                : System.nanoTime() + budget.getMaxTime().toNanos();
+        SplittableRandom root = new SplittableRandom(budget.getSeed());
+        int chunksPerRound = pool.getParallelism() * CHUNKS_PER_WORKER;
+        while (total.samples < budget.getMaxSamples()) {
+            long remaining = budget.getMaxSamples() - total.samples;
+            int chunks = (int) Math.min(chunksPerRound, (remaining + CHUNK_SAMPLES - 1) / CHUNK_SAMPLES);
+            SplittableRandom[] randoms = new SplittableRandom[chunks];
+            for (int i = 0; i < chunks; i++) {
+                randoms[i] = root.split();
+            }
+            Sampler sampler = new Sampler(holeCards, communityCards, deck, missing, randoms, remaining, 0, chunks);
+            total.merge(pool.invoke(sampler));
+            if (System.nanoTime() >= deadline || total.standardError() <= budget.getTargetStandardError()) {
+                break;
+            }
+        }
+        return total.toResult(false);
+    }
+
+    // Indices of the cards left in the deck, in ascending order
+    private static int[] liveCards(long[] holeCards, long communityCards, long deadCards, int missing) {
+        long used = communityCards | deadCards;
+        for (long hole : holeCards) {
+            used |= hole;
+        }
+        int[] deck = new int[52 - Long.bitCount(used)];
+        if (deck.length < missing) {
+            throw new IllegalArgumentException("Not enough cards left to complete the board");
+        }
+        int size = 0;
+        for (long rest = CardSet.FULL_DECK & ~used; rest != 0; rest &= rest - 1) {
+            deck[size++] = Long.numberOfTrailingZeros(rest);
+        }
+        return deck;
+    }
+
+    // Returns the board size after checking that the cards are disjoint
+    private static int validate(long[] holeCards, long communityCards, long deadCards) {
+        if (holeCards.length < 2) {
+            throw new IllegalArgumentException("Equity needs at least 2 players, got " + holeCards.length);
+        }
+        int boardSize = Long.bitCount(communityCards);
+        if (boardSize > 5) {
+            throw new IllegalArgumentException("Board must not hold more than 5 cards, got " + boardSize);
+        }
+        if ((communityCards & deadCards) != 0) {
+            throw new IllegalArgumentException("Dead cards overlap the board");
+        }
+        long used = communityCards | deadCards;
+        for (long hole : holeCards) {
+            if (hole == 0) {
+                throw new IllegalArgumentException("Every player needs hole cards");
+            }
+            if ((used & hole) != 0) {
+                throw new IllegalArgumentException("Card used twice: " + CardSet.toString(used & hole));
+            }
+            used |= hole;
+        }
+        return boardSize;
+    }
+
+    // Wins, ties and equity sums of a set of run-outs
+    private static final class Tally {
+        final long[] wins;
+        final long[] ties;
+        final double[] equity;
+        final double[] equitySquares;
+        long samples;
+
+        Tally(int players) {
+            wins = new long[players];
+            ties = new long[players];
+            equity = new double[players];
+            equitySquares = new double[players];
+        }
+
+        // Scores one run-out from the strengths starting at offset
+        void add(int[] strengths, int offset) {
+            int players = wins.length;
+            int best = Integer.MIN_VALUE;
+            int winners = 0;
+            for (int p = 0; p < players; p++) {
+                int strength = strengths[offset + p];
+                if (strength > best) {
+                    best = strength;
+                    winners = 1;
+                } else if (strength == best) {
+                    winners++;
+                }
+            }
+            double share = 1.0 / winners;
+            for (int p = 0; p < players; p++) {
+                if (strengths[offset + p] == best) {
+                    if (winners == 1) {
+                        wins[p]++;
+                    } else {
+                        ties[p]++;
+                    }
+                    equity[p] += share;
+                    equitySquares[p] += share * share;
+                }
+            }
+            samples++;
+        }
+
+        // Scores a batch of run-outs laid out as consecutive groups of one
+        // entry per player
+        void addBatch(HandEvaluator evaluator, long[] holes, long[] boards, int[] strengths, int runOuts) {
+            int players = wins.length;
+            evaluator.evaluateBatch(holes, boards, strengths, runOuts * players);
+            for (int s = 0; s < runOuts; s++) {
+                add(strengths, s * players);
+            }
+        }
+
+        Tally merge(Tally other) {
+            for (int p = 0; p < wins.length; p++) {
+                wins[p] += other.wins[p];
+                ties[p] += other.ties[p];
+                equity[p] += other.equity[p];
+                equitySquares[p] += other.equitySquares[p];
+            }
+            samples += other.samples;
+            return this;
+        }
+
+        double standardError() {
+            if (samples < 2) {
+                return samples == 1 ? 0 : Double.POSITIVE_INFINITY;
+            }
+            double worst = 0;
+            for (int p = 0; p < wins.length; p++) {
+                double mean = equity[p] / samples;
+                double variance = Math.max(0, equitySquares[p] / samples - mean * mean);
+                worst = Math.max(worst, Math.sqrt(variance / (samples - 1)));
+            }
+            return worst;
+        }
+
+        Result toResult(boolean exact) {
+            int players = wins.length;
+            double[] win = new double[players];
+            double[] tie = new double[players];
+            double[] share = new double[players];
+            for (int p = 0; p < players; p++) {
+                win[p] = (double) wins[p] / samples;
+                tie[p] = (double) ties[p] / samples;
+                share[p] = equity[p] / samples;
+            }
+            return new Result(samples, win, tie, share, exact ? 0 : standardError());
+        }
+    }
+
+    private final class Sampler extends RecursiveTask<Tally> {
+
+        private final long[] holeCards;
+        private final long communityCards;
+        private final int[] deck;
+        private final int missing;
+        private final SplittableRandom[] randoms;
+        // Samples still allowed by the budget; the last chunk is cut to fit
+        private final long remaining;
+        private final int from;
+        private final int to;
+
+        Sampler(long[] holeCards, long communityCards, int[] deck, int missing, SplittableRandom[] randoms,
+                long remaining, int from, int to) {
+            this.holeCards = holeCards;
+            this.communityCards = communityCards;
+            this.deck = deck;
+            this.missing = missing;
+            this.randoms = randoms;
+            this.remaining = remaining;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                Sampler left = new Sampler(holeCards, communityCards, deck, missing, randoms, remaining, from, middle);
+                left.fork();
+                Tally right = new Sampler(holeCards, communityCards, deck, missing, randoms, remaining, middle, to)
+                        .compute();
+                return left.join().merge(right);
+            }
+
+            int players = holeCards.length;
+            int samples = (int) Math.min(CHUNK_SAMPLES, remaining - (long) from * CHUNK_SAMPLES);
+            SplittableRandom random = randoms[from];
+            int[] cards = deck.clone();
+            long[] holes = new long[BATCH_SAMPLES * players];
+            long[] boards = new long[BATCH_SAMPLES * players];
+            int[] strengths = new int[BATCH_SAMPLES * players];
+            for (int i = 0; i < holes.length; i++) {
+                holes[i] = holeCards[i % players];
+            }
+
+            Tally tally = new Tally(players);
+            for (int done = 0; done < samples; done += BATCH_SAMPLES) {
+                int batch = Math.min(BATCH_SAMPLES, samples - done);
+                for (int s = 0; s < batch; s++) {
+                    // Partial Fisher-Yates shuffle of the missing board cards. Each
+                    // 32-bit half of a random long picks one card by multiply-shift;
+                    // its bias of under 2^-26 is far below the sampling error
+                    long board = communityCards;
+                    long bits = 0;
+                    for (int j = 0; j < missing; j++) {
+                        if ((j & 1) == 0) {
+                            bits = random.nextLong();
+                        } else {
+                            bits >>>= 32;
+                        }
+                        int k = j + (int) (((bits & 0xFFFFFFFFL) * (cards.length - j)) >>> 32);
+                        int card = cards[k];
+                        cards[k] = cards[j];
+                        cards[j] = card;
+                        board |= 1L << card;
+                    }
+                    for (int p = 0; p < players; p++) {
+                        boards[s * players + p] = board;
+                    }
+                }
+                tally.addBatch(evaluator, holes, boards, strengths, batch);
+            }
+            return tally;
+        }
+    }
+
+    private final class Enumerator extends RecursiveTask<Tally> {
+
+        private final long[] holeCards;
+        private final long communityCards;
+        private final int[] deck;
+        private final int missing;
+        // Range of deck positions of the lowest run-out card
+        private final int from;
+        private final int to;
+
+        Enumerator(long[] holeCards, long communityCards, int[] deck, int missing, int from, int to) {
+            this.holeCards = holeCards;
+            this.communityCards = communityCards;
+            this.deck = deck;
+            this.missing = missing;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                Enumerator left = new Enumerator(holeCards, communityCards, deck, missing, from, middle);
+                left.fork();
+                Tally right = new Enumerator(holeCards, communityCards, deck, missing, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            int players = holeCards.length;
+            long[] holes = new long[BATCH_SAMPLES * players];
+            long[] boards = new long[BATCH_SAMPLES * players];
+            int[] strengths = new int[BATCH_SAMPLES * players];
+            for (int i = 0; i < holes.length; i++) {
+                holes[i] = holeCards[i % players];
+            }
+
+            Tally tally = new Tally(players);
+            long prefix = communityCards | 1L << deck[from];
+            // Deck positions of the other missing cards, in ascending order
+            int rest = missing - 1;
+            int[] picks = new int[rest];
+            for (int j = 0; j < rest; j++) {
+                picks[j] = from + 1 + j;
+            }
+            int batch = 0;
+            while (true) {
+                long board = prefix;
+                for (int j = 0; j < rest; j++) {
+                    board |= 1L << deck[picks[j]];
+                }
+                for (int p = 0; p < players; p++) {
+                    boards[batch * players + p] = board;
+                }
+                if (++batch == BATCH_SAMPLES) {
+                    tally.addBatch(evaluator, holes, boards, strengths, batch);
+                    batch = 0;
+                }
+                int j = rest - 1;
+                while (j >= 0 && picks[j] == deck.length - rest + j) {
+                    j--;
+                }
+                if (j < 0) {
+                    break;
+                }
+                picks[j]++;
+                for (int i = j + 1; i < rest; i++) {
+                    picks[i] = picks[i - 1] + 1;
+                }
+            }
+            tally.addBatch(evaluator, holes, boards, strengths, batch);
+            return tally;
+        }
+    }
+}
@@ -1,9 +1,80 @@
 package de.simonaltschaeffl.poker.service;
 
 import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
 import de.simonaltschaeffl.poker.model.HandResult;
 import java.util.List;
 
 public interface HandEvaluator {
     HandResult evaluate(List<Card> holeCards, List<Card> communityCards);
+
+    /**
+     * Evaluates a hand given as {@link CardSet} masks. The default converts the
+     * masks to lists; implementations that can work on the bits directly should
+     * override it.
+     *
+     * @param holeCards      the player's private cards as a card mask
+     * @param communityCards the shared community cards as a card mask
+     * @return the HandResult of the best five cards
+     */
+    default HandResult evaluate(long holeCards, long communityCards) {
+        return evaluate(CardSet.toList(holeCards), CardSet.toList(communityCards));
+    }
+
+    /**
+     * Returns only the {@link HandResult#strength()} of a hand given as card
+     * masks. Implementations that can skip building the best five cards should
+     * override it.
+     */
+    default int strength(long holeCards, long communityCards) {
+        return evaluate(holeCards, communityCards).strength();
+    }
+
+    /**
+     * Evaluates several hands against the same board, for example all seats at a
+     * showdown. Implementations can do the board-dependent work once and reuse it
+     * for every seat; the default simply evaluates each hand.
+     *
+     * @param communityCards the shared community cards as a card mask
+     * @param holeCards      the hole cards of each seat as card masks
+     * @return the {@link HandResult#strength()} of each seat, in the same order
+     */
+    default int[] evaluateAll(long communityCards, long[] holeCards) {
+        int[] strengths = new int[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            strengths[i] = strength(holeCards[i], communityCards);
+        }
+        return strengths;
+    }
+
+    /**
+     * Evaluates many independent hands given as parallel arrays of card masks
+     * (struct-of-arrays), for simulation workloads. Implementations may process
+     * several hands at once; the default evaluates them one by one.
+     *
+     * @param holeCards      the hole cards of each hand as card masks
+     * @param communityCards the board of each hand as card masks
+     * @param strengths      receives the {@link HandResult#strength()} of each hand
+     * @param count          the number of hands to evaluate, starting at index 0
+     */
+    default void evaluateBatch(long[] holeCards, long[] communityCards, int[] strengths, int count) {
+        for (int i = 0; i < count; i++) {
+            strengths[i] = strength(holeCards[i], communityCards[i]);
+        }
+    }
+
+    /**
+     * List-based variant of {@link #evaluateAll(long, long[])}.
+     *
+     * @param communityCards the shared community cards
+     * @param holeCards      the hole cards of each seat
+     * @return the {@link HandResult#strength()} of each seat, in the same order
+     */
+    default int[] evaluateAll(List<Card> communityCards, List<List<Card>> holeCards) {
+        int[] strengths = new int[holeCards.size()];
+        for (int i = 0; i < strengths.length; i++) {
+            strengths[i] = evaluate(holeCards.get(i), communityCards).strength();
+        }
+        return strengths;
+    }
 }
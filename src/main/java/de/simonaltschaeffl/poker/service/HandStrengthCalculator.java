@@ -0,0 +1,307 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hand strength and hand potential of a Texas Hold'em hand against one random
+ * opponent, the usual inputs of a betting decision.
+ * <p>
+ * Every opponent holding is enumerated on the current board, which gives the
+ * hand strength, and again with each possible next card, which gives the
+ * positive potential (the chance to get ahead when behind now) and the
+ * negative potential (the chance to fall behind when ahead now). The work is
+ * split by the next card across a {@link ForkJoinPool}; for each next card all
+ * opponent holdings are scored with one
+ * {@link HandEvaluator#evaluateAll(long, long[])} call. Only one card is
+ * looked ahead, so on the turn the potentials cover the river and on the
+ * river they are 0. Preflop, the hand strength is the equity against a random
+ * hand from {@link PreflopEquityTable} and both potentials are 0.
+ * <p>
+ * Situations that differ only by a renaming of suits share their metrics, so
+ * results are cached by the canonical index of {@link SuitCanonicalizer}. As
+ * in {@link CachingHandEvaluator}, the cache is a fixed-size, direct-mapped
+ * table of two {@code long} arrays shared between threads without locking;
+ * each entry packs the three metrics in 21-bit fixed point, so results are
+ * rounded to about six decimal places whether they come from the cache or
+ * not.
+ */
+public class HandStrengthCalculator {
+
+    // Fixed-point scale of a packed metric
+    private static final int SCALE = (1 << 21) - 1;
+    // Marks an occupied entry, so that no packed value is 0
+    private static final long PRESENT = 1L << 63;
+    // Next cards per task
+    private static final int GRAIN = 4;
+
+    private static final int AHEAD = 0;
+    private static final int TIED = 1;
+    private static final int BEHIND = 2;
+
+    private final HandEvaluator evaluator;
+    private final ForkJoinPool pool;
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The metrics of one hand.
+     *
+     * @param handStrength      the chance to be ahead of a random opponent hand
+     *                          now, ties counting half
+     * @param positivePotential the chance that the next card puts the hand
+     *                          ahead when it is behind now
+     * @param negativePotential the chance that the next card puts the hand
+     *                          behind when it is ahead now
+     */
+    public record Metrics(double handStrength, double positivePotential, double negativePotential) {
+
+        /**
+         * @return the effective hand strength, the chance to be ahead after the
+         *         next card: {@code HS * (1 - NPot) + (1 - HS) * PPot}
+         */
+        public double effectiveHandStrength() {
+            return handStrength * (1 - negativePotential) + (1 - handStrength) * positivePotential;
+        }
+    }
+
+    /**
+     * Creates a calculator with the Cactus Kev evaluator on the common pool,
+     * caching up to 65,536 results.
+     */
+    public HandStrengthCalculator() {
+        this(new CactusKevEvaluator(), ForkJoinPool.commonPool(), 1 << 16);
+    }
+
+    /**
+     * @param evaluator  the evaluator used for postflop boards; it must be safe
+     *                   to call from several threads
+     * @param pool       the pool the enumeration runs on
+     * @param maxEntries upper bound on the number of cached results; rounded
+     *                   down to a power of two
+     */
+    public HandStrengthCalculator(HandEvaluator evaluator, ForkJoinPool pool, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache needs at least one entry");
+        }
+        int capacity = Integer.highestOneBit(maxEntries);
+        this.evaluator = evaluator;
+        this.pool = pool;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * List-based variant of {@link #calculate(long, long)}.
+     */
+    public Metrics calculate(List<Card> holeCards, List<Card> communityCards) {
+        return calculate(CardSet.of(holeCards), CardSet.of(communityCards));
+    }
+
+    /**
+     * Computes the metrics of a hand.
+     *
+     * @param holeCards      the two hole cards as a card mask
+     * @param communityCards the board of 0 or 3 to 5 cards as a card mask
+     * @throws IllegalArgumentException if there are not two hole cards, the
+     *                                  board size is invalid or the cards
+     *                                  overlap
+     */
+    public Metrics calculate(long holeCards, long communityCards) {
+        int boardCards = Long.bitCount(communityCards);
+        if (Long.bitCount(holeCards) != 2) {
+            throw new IllegalArgumentException("Need exactly 2 hole cards, got " + Long.bitCount(holeCards));
+        }
+        if (boardCards != 0 && (boardCards < 3 || boardCards > 5)) {
+            throw new IllegalArgumentException("Board must have 0 or 3 to 5 cards, got " + boardCards);
+        }
+        if ((holeCards & communityCards) != 0) {
+            throw new IllegalArgumentException("Hole cards overlap with the board");
+        }
+
+        int order = SuitCanonicalizer.suitOrder(holeCards, communityCards);
+        long hole = SuitCanonicalizer.apply(holeCards, order);
+        long board = SuitCanonicalizer.apply(communityCards, order);
+        long key = SuitCanonicalizer.index(hole, board);
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+
+        long value = values[slot];
+        if (value != 0 && (keys[slot] ^ value) == key) {
+            hits.increment();
+            return unpack(value);
+        }
+        misses.increment();
+        value = pack(boardCards == 0 ? preflop(hole) : postflop(hole, board));
+        values[slot] = value;
+        keys[slot] = key ^ value;
+        return unpack(value);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of results the cache can hold
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    private static Metrics preflop(long hole) {
+        PreflopEquityTable table = PreflopEquityTable.getDefault();
+        double sum = 0;
+        int opponents = 0;
+        for (int handClass = 0; handClass < PreflopEquityTable.CLASSES; handClass++) {
+            for (long opponent : PreflopEquityTable.combos(handClass)) {
+                if ((opponent & hole) == 0) {
+                    sum += table.equity(hole, opponent);
+                    opponents++;
+                }
+            }
+        }
+        return new Metrics(sum / opponents, 0, 0);
+    }
+
+    private Metrics postflop(long hole, long board) {
+        long[] cards = toCards(CardSet.FULL_DECK & ~hole & ~board);
+        long[] opponents = new long[cards.length * (cards.length - 1) / 2];
+        int n = 0;
+        for (int i = 0; i < cards.length; i++) {
+            for (int j = i + 1; j < cards.length; j++) {
+                opponents[n++] = cards[i] | cards[j];
+            }
+        }
+
+        int heroNow = evaluator.strength(hole, board);
+        int[] opponentsNow = evaluator.evaluateAll(board, opponents);
+        long[] now = new long[3];
+        for (int strength : opponentsNow) {
+            now[compare(heroNow, strength)]++;
+        }
+        double handStrength = (now[AHEAD] + now[TIED] / 2.0) / opponents.length;
+        if (Long.bitCount(board) == 5) {
+            return new Metrics(handStrength, 0, 0);
+        }
+
+        // Counts by the outcome now and after the next card, AHEAD, TIED or
+        // BEHIND each
+        long[] potential = pool.invoke(new Lookahead(hole, board, cards, opponents, heroNow, opponentsNow, 0,
+                cards.length));
+        double behind = potential[BEHIND * 3 + AHEAD] + potential[BEHIND * 3 + TIED] / 2.0
+                + potential[TIED * 3 + AHEAD] / 2.0;
+        double behindTotal = rowSum(potential, BEHIND) + rowSum(potential, TIED) / 2.0;
+        double ahead = potential[AHEAD * 3 + BEHIND] + potential[TIED * 3 + BEHIND] / 2.0
+                + potential[AHEAD * 3 + TIED] / 2.0;
+        double aheadTotal = rowSum(potential, AHEAD) + rowSum(potential, TIED) / 2.0;
+        return new Metrics(handStrength, behindTotal == 0 ? 0 : behind / behindTotal,
+                aheadTotal == 0 ? 0 : ahead / aheadTotal);
+    }
+
+    private static int compare(int hero, int opponent) {
+        return hero > opponent ? AHEAD : hero == opponent ? TIED : BEHIND;
+    }
+
+    private static long rowSum(long[] counts, int row) {
+        return counts[row * 3] + counts[row * 3 + 1] + counts[row * 3 + 2];
+    }
+
+    private static long[] toCards(long mask) {
+        long[] cards = new long[Long.bitCount(mask)];
+        int n = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cards[n++] = rest & -rest;
+        }
+        return cards;
+    }
+
+    private static long pack(Metrics metrics) {
+        return PRESENT | fixed(metrics.handStrength()) << 42 | fixed(metrics.positivePotential()) << 21
+                | fixed(metrics.negativePotential());
+    }
+
+    private static long fixed(double metric) {
+        return Math.round(metric * SCALE);
+    }
+
+    private static Metrics unpack(long value) {
+        return new Metrics((double) (value >>> 42 & SCALE) / SCALE, (double) (value >>> 21 & SCALE) / SCALE,
+                (double) (value & SCALE) / SCALE);
+    }
+
+    // Counts the outcome now and after each next card in [from, to) over all
+    // opponent holdings without that card
+    private final class Lookahead extends RecursiveTask<long[]> {
+
+        private final long hole;
+        private final long board;
+        private final long[] cards;
+        private final long[] opponents;
+        private final int heroNow;
+        private final int[] opponentsNow;
+        private final int from;
+        private final int to;
+
+        Lookahead(long hole, long board, long[] cards, long[] opponents, int heroNow, int[] opponentsNow, int from,
+                int to) {
+            this.hole = hole;
+            this.board = board;
+            this.cards = cards;
+            this.opponents = opponents;
+            this.heroNow = heroNow;
+            this.opponentsNow = opponentsNow;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                Lookahead left = new Lookahead(hole, board, cards, opponents, heroNow, opponentsNow, from, middle);
+                left.fork();
+                long[] counts = new Lookahead(hole, board, cards, opponents, heroNow, opponentsNow, middle, to)
+                        .compute();
+                long[] other = left.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += other[i];
+                }
+                return counts;
+            }
+            long[] counts = new long[9];
+            long[] live = new long[opponents.length];
+            int[] liveNow = new int[opponents.length];
+            for (int c = from; c < to; c++) {
+                long card = cards[c];
+                int n = 0;
+                for (int i = 0; i < opponents.length; i++) {
+                    if ((opponents[i] & card) == 0) {
+                        live[n] = opponents[i];
+                        liveNow[n++] = opponentsNow[i];
+                    }
+                }
+                long next = board | card;
+                int heroNext = evaluator.strength(hole, next);
+                int[] opponentsNext = evaluator.evaluateAll(next, Arrays.copyOf(live, n));
+                for (int i = 0; i < n; i++) {
+                    counts[compare(heroNow, liveNow[i]) * 3 + compare(heroNext, opponentsNext[i])]++;
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package de.simonaltschaeffl.poker.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tournament equity of each stack under the Independent Chip Model, using the
+ * Malmuth-Harville finishing probabilities: a player takes the best place
+ * still open with a chance proportional to their share of the chips not yet
+ * placed.
+ * <p>
+ * Summing over every finishing order takes factorial time. For up to
+ * {@value #MAX_EXACT_PLAYERS} players the probabilities are computed exactly
+ * with a dynamic program over the set of players already placed, visiting each
+ * set once: the chance that exactly the players of a set took the first
+ * places depends only on the set, not on their order. Only sets of at most
+ * as many players as there are payouts are visited, so short payout
+ * structures are cheap even at the limit.
+ * <p>
+ * Larger fields are sampled. A Malmuth-Harville finishing order has the same
+ * distribution as sorting the players by independent exponential times with
+ * rates proportional to their stacks, so each sample draws one time per
+ * player and keeps the paid places in a bounded heap. The samples are split
+ * across a {@link ForkJoinPool} and stop at the limits of an
+ * {@link EquityCalculator.Budget}, whose standard error target is in the
+ * units of the payouts.
+ */
+public class IcmCalculator {
+
+    /** Largest field computed exactly. */
+    public static final int MAX_EXACT_PLAYERS = 20;
+
+    private static final int CHUNK_SAMPLES = 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a calculator that samples large fields on the common pool.
+     */
+    public IcmCalculator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool large fields are sampled on
+     */
+    public IcmCalculator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Outcome of a calculation.
+     *
+     * @param equity        the expected prize of each player, in the order of
+     *                      the stacks
+     * @param samples       the number of finishing orders sampled, 0 for an
+     *                      exact result
+     * @param standardError the largest standard error of any player's equity,
+     *                      0 for an exact result
+     */
+    public record Result(double[] equity, long samples, double standardError) {
+    }
+
+    /**
+     * Computes the equities, sampling fields above {@value #MAX_EXACT_PLAYERS}
+     * players with up to 100,000 finishing orders.
+     *
+     * @see #calculate(int[], double[], EquityCalculator.Budget)
+     */
+    public Result calculate(int[] stacks, double[] payouts) {
+        return calculate(stacks, payouts, new EquityCalculator.Budget.Builder().maxSamples(100_000).build());
+    }
+
+    /**
+     * Computes the equities.
+     *
+     * @param stacks  the chips of each player still in the tournament
+     * @param payouts the prize of each remaining place, first place first
+     * @param budget  when to stop sampling a field of more than
+     *                {@value #MAX_EXACT_PLAYERS} players; smaller fields are
+     *                always exact
+     * @throws IllegalArgumentException if there are no players, a stack is not
+     *                                  positive, a payout is negative or not a
+     *                                  number, or there are more payouts than
+     *                                  players
+     */
+    public Result calculate(int[] stacks, double[] payouts, EquityCalculator.Budget budget) {
+        if (stacks.length == 0) {
+            throw new IllegalArgumentException("ICM needs at least one player");
+        }
+        if (payouts.length > stacks.length) {
+            throw new IllegalArgumentException(
+                    "More payouts than players: " + payouts.length + " for " + stacks.length);
+        }
+        for (int stack : stacks) {
+            if (stack <= 0) {
+                throw new IllegalArgumentException("Stacks must be positive, got " + stack);
+            }
+        }
+        for (double payout : payouts) {
+            if (!(payout >= 0) || Double.isInfinite(payout)) {
+                throw new IllegalArgumentException("Payouts must be finite and not negative, got " + payout);
+            }
+        }
+        if (stacks.length <= MAX_EXACT_PLAYERS) {
+            return new Result(exact(stacks, payouts), 0, 0);
+        }
+        return sample(stacks, payouts, budget);
+    }
+
+    // Visits the sets of placed players by size. Dividing the chance that a
+    // set took the first places by the chips left gives the chance per chip
+    // that any other player takes the next place, which both the sets one
+    // player larger and the equities are built from.
+    private static double[] exact(int[] stacks, double[] payouts) {
+        int n = stacks.length;
+        double[] equity = new double[n];
+        long total = 0;
+        for (int stack : stacks) {
+            total += stack;
+        }
+        double[] perChip = new double[1 << n];
+        perChip[0] = 1.0 / total;
+        for (int size = 1; size <= payouts.length; size++) {
+            double payout = payouts[size - 1];
+            boolean last = size == payouts.length;
+            // Every mask of n bits with exactly size bits set, in increasing order
+            for (int mask = (1 << size) - 1; mask < 1 << n; mask = nextMask(mask)) {
+                double probability = 0;
+                long rest = total;
+                for (int bits = mask; bits != 0; bits &= bits - 1) {
+                    int player = Integer.numberOfTrailingZeros(bits);
+                    // The others took the places before and the player this one
+                    double finish = perChip[mask ^ (1 << player)] * stacks[player];
+                    probability += finish;
+                    equity[player] += finish * payout;
+                    rest -= stacks[player];
+                }
+                if (!last) {
+                    perChip[mask] = probability / rest;
+                }
+            }
+        }
+        return equity;
+    }
+
+    // The next larger int with the same number of bits set
+    private static int nextMask(int mask) {
+        int lowest = mask & -mask;
+        int ripple = mask + lowest;
+        return ripple == 0 ? Integer.MAX_VALUE : ripple | ((mask ^ ripple) >>> 2) / lowest;
+    }
+
+    private Result sample(int[] stacks, double[] payouts, EquityCalculator.Budget budget) {
+        double[] inverseStacks = new double[stacks.length];
+        for (int i = 0; i < stacks.length; i++) {
+            inverseStacks[i] = 1.0 / stacks[i];
+        }
+        Tally total = new Tally(stacks.length);
+        long deadline = budget.getMaxTime() == null ? Long.MAX_VALUE
+                : System.nanoTime() + budget.getMaxTime().toNanos();
+        SplittableRandom root = new SplittableRandom(budget.getSeed());
+        int chunksPerRound = pool.getParallelism() * CHUNKS_PER_WORKER;
+        while (total.samples < budget.getMaxSamples()) {
+            long remaining = budget.getMaxSamples() - total.samples;
+            int chunks = (int) Math.min(chunksPerRound, (remaining + CHUNK_SAMPLES - 1) / CHUNK_SAMPLES);
+            SplittableRandom[] randoms = new SplittableRandom[chunks];
+            for (int i = 0; i < chunks; i++) {
+                randoms[i] = root.split();
+            }
+            total.merge(pool.invoke(new Sampler(inverseStacks, payouts, randoms, remaining, 0, chunks)));
+            if (System.nanoTime() >= deadline || total.standardError() <= budget.getTargetStandardError()) {
+                break;
+            }
+        }
+        double[] equity = new double[stacks.length];
+        for (int i = 0; i < equity.length; i++) {
+            equity[i] = total.prizes[i] / total.samples;
+        }
+        return new Result(equity, total.samples, total.standardError());
+    }
+
+    // Prize sums of a set of sampled finishing orders
+    private static final class Tally {
+        final double[] prizes;
+        final double[] prizeSquares;
+        long samples;
+
+        Tally(int players) {
+            prizes = new double[players];
+            prizeSquares = new double[players];
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < prizes.length; i++) {
+                prizes[i] += other.prizes[i];
+                prizeSquares[i] += other.prizeSquares[i];
+            }
+            samples += other.samples;
+        }
+
+        double standardError() {
+            double worst = 0;
+            for (int i = 0; i < prizes.length; i++) {
+                double mean = prizes[i] / samples;
+                double variance = Math.max(0, prizeSquares[i] / samples - mean * mean);
+                worst = Math.max(worst, Math.sqrt(variance / samples));
+            }
+            return worst;
+        }
+    }
+
+    // Samples chunks [from, to) of one round, each with its own generator
+    private static final class Sampler extends RecursiveTask<Tally> {
+
+        private final double[] inverseStacks;
+        private final double[] payouts;
+        private final SplittableRandom[] randoms;
+        private final long remaining;
+        private final int from;
+        private final int to;
+
+        Sampler(double[] inverseStacks, double[] payouts, SplittableRandom[] randoms, long remaining, int from,
+                int to) {
+            this.inverseStacks = inverseStacks;
+            this.payouts = payouts;
+            this.randoms = randoms;
+            this.remaining = remaining;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                Sampler left = new Sampler(inverseStacks, payouts, randoms, remaining, from, middle);
+                left.fork();
+                Tally tally = new Sampler(inverseStacks, payouts, randoms, remaining, middle, to).compute();
+                tally.merge(left.join());
+                return tally;
+            }
+            int n = inverseStacks.length;
+            int places = payouts.length;
+            Tally tally = new Tally(n);
+            if (places == 0) {
+                tally.samples = Math.min(CHUNK_SAMPLES, remaining - (long) from * CHUNK_SAMPLES);
+                return tally;
+            }
+            SplittableRandom random = randoms[from];
+            long samples = Math.min(CHUNK_SAMPLES, remaining - (long) from * CHUNK_SAMPLES);
+            double[] times = new double[n];
+            int[] heap = new int[places];
+            for (long s = 0; s < samples; s++) {
+                // The first finishers are the players with the shortest times;
+                // the heap keeps the paid ones with the longest on top
+                int size = 0;
+                for (int player = 0; player < n; player++) {
+                    double time = -Math.log(1 - random.nextDouble()) * inverseStacks[player];
+                    times[player] = time;
+                    if (size < places) {
+                        siftUp(heap, size++, player, times);
+                    } else if (time < times[heap[0]]) {
+                        siftDown(heap, places, player, times);
+                    }
+                }
+                // Popping the longest time fills the places from the last paid one
+                for (int place = places - 1; place >= 0; place--) {
+                    int player = heap[0];
+                    double prize = payouts[place];
+                    tally.prizes[player] += prize;
+                    tally.prizeSquares[player] += prize * prize;
+                    if (place > 0) {
+                        siftDown(heap, place, heap[place], times);
+                    }
+                }
+            }
+            tally.samples = samples;
+            return tally;
+        }
+
+        // Max-heap by time: inserts the player at position index
+        private static void siftUp(int[] heap, int index, int player, double[] times) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (times[heap[parent]] >= times[player])
+                    break;
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = player;
+        }
+
+        // Max-heap by time: replaces the top with the player
+        private static void siftDown(int[] heap, int size, int player, double[] times) {
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && times[heap[child + 1]] > times[heap[child]]) {
+                    child++;
+                }
+                if (times[heap[child]] <= times[player])
+                    break;
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = player;
+        }
+    }
+}
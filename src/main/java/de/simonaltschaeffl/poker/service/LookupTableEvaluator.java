@@ -0,0 +1,133 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandResult;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static de.simonaltschaeffl.poker.service.CactusKevTables.classStrength;
+
+/**
+ * Hand evaluator backed by the precomputed state-transition table written by
+ * {@link LookupTableGenerator}.
+ * <p>
+ * The table file is memory-mapped read-only, so it is paged in by the OS on
+ * demand and shared between all instances and processes that map the same file.
+ * Evaluating a hand is one table lookup per card with no branching on hand
+ * structure; scores are identical to {@link CactusKevEvaluator}. The
+ * mask-based methods walk the table straight off the {@link CardSet} bits and
+ * only {@code evaluate} builds a {@link HandResult}.
+ */
+public class LookupTableEvaluator implements HandEvaluator {
+
+    private static final int START = LookupTableGenerator.ROW_SIZE;
+    // Table card index (rank * 4 + suit + 1) by CardSet bit
+    private static final int[] CARD_INDEX = new int[52];
+
+    static {
+        for (int bit = 0; bit < CARD_INDEX.length; bit++) {
+            CARD_INDEX[bit] = bit % 13 * 4 + bit / 13 + 1;
+        }
+    }
+
+    private final IntBuffer table;
+
+    /**
+     * Maps the given table file.
+     *
+     * @param tableFile the file written by {@link LookupTableGenerator}
+     */
+    public LookupTableEvaluator(Path tableFile) {
+        try (FileChannel channel = FileChannel.open(tableFile, StandardOpenOption.READ)) {
+            this.table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to map hand rank table " + tableFile, e);
+        }
+    }
+
+    @Override
+    public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+        long cards = CardSet.of(holeCards) | CardSet.of(communityCards);
+        int cardCount = holeCards.size() + communityCards.size();
+        checkCardCount(cardCount);
+        // A repeated card would send the walk back to the start row
+        if (Long.bitCount(cards) != cardCount) {
+            throw new IllegalArgumentException("Hand contains duplicate cards");
+        }
+        return CactusKevEvaluator.toHandResult(score(walk(START, cards), cardCount), holeCards, communityCards);
+    }
+
+    @Override
+    public HandResult evaluate(long holeCards, long communityCards) {
+        long cards = holeCards | communityCards;
+        int cardCount = cardCount(holeCards, communityCards);
+        return CactusKevEvaluator.toHandResult(score(walk(START, cards), cardCount), cards);
+    }
+
+    @Override
+    public int strength(long holeCards, long communityCards) {
+        int cardCount = cardCount(holeCards, communityCards);
+        return classStrength[score(walk(START, holeCards | communityCards), cardCount)];
+    }
+
+    /**
+     * Walks the board once and continues from its state for every seat.
+     */
+    @Override
+    public int[] evaluateAll(long communityCards, long[] holeCards) {
+        int boardState = walk(START, communityCards);
+        int[] strengths = new int[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            int cardCount = cardCount(holeCards[i], communityCards);
+            strengths[i] = classStrength[score(walk(boardState, holeCards[i]), cardCount)];
+        }
+        return strengths;
+    }
+
+    @Override
+    public void evaluateBatch(long[] holeCards, long[] communityCards, int[] strengths, int count) {
+        for (int i = 0; i < count; i++) {
+            int cardCount = cardCount(holeCards[i], communityCards[i]);
+            strengths[i] = classStrength[score(walk(START, holeCards[i] | communityCards[i]), cardCount)];
+        }
+    }
+
+    // Follows one transition per card, in bit order; the table accepts the
+    // cards of a hand in any order
+    private int walk(int p, long cards) {
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            p = table.get(p + CARD_INDEX[Long.numberOfTrailingZeros(rest)]);
+        }
+        return p;
+    }
+
+    // After the seventh card the entry is the score itself, otherwise the
+    // score sits in the first slot of the reached state's row
+    private int score(int p, int cardCount) {
+        return cardCount == 7 ? p : table.get(p);
+    }
+
+    private static int cardCount(long holeCards, long communityCards) {
+        if ((holeCards & communityCards) != 0) {
+            throw new IllegalArgumentException("Hand contains duplicate cards");
+        }
+        int cardCount = Long.bitCount(holeCards | communityCards);
+        checkCardCount(cardCount);
+        return cardCount;
+    }
+
+    private static void checkCardCount(int cardCount) {
+        if (cardCount < 5 || cardCount > 7) {
+            throw new IllegalArgumentException("Lookup table evaluates 5 to 7 cards, got " + cardCount);
+        }
+    }
+}
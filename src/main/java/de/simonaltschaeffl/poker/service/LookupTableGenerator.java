@@ -0,0 +1,207 @@
+package de.simonaltschaeffl.poker.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Generates the card-by-card state-transition table used by
+ * {@link LookupTableEvaluator}.
+ * <p>
+ * Every reachable partial hand of up to six cards is a state. Suits that can no
+ * longer make a flush are dropped from a state, which keeps the table at about
+ * 32 million ints. Each state owns a row of 53 entries: entry {@code card}
+ * (1..52) holds the offset of the row reached by adding that card, and entry 0
+ * holds the Cactus Kev score of the state itself once it has five or six cards.
+ * For the seventh card the entry holds the final score directly.
+ * <p>
+ * The table is written as little-endian ints. Run it once per host:
+ *
+ * <pre>
+ * java -cp poker-engine.jar de.simonaltschaeffl.poker.service.LookupTableGenerator handranks.dat
+ * </pre>
+ */
+public final class LookupTableGenerator {
+
+    /** Number of entries per state row: the score slot plus one slot per card. */
+    static final int ROW_SIZE = 53;
+
+    private LookupTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path target = Paths.get(args.length > 0 ? args[0] : "handranks.dat");
+        long start = System.nanoTime();
+        int entries = generate(target);
+        System.out.printf("Wrote %,d entries to %s in %d ms%n", entries, target.toAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Builds the state-transition table and writes it to the given file.
+     *
+     * @param target the file to write, replaced if it exists
+     * @return the number of int entries written
+     * @throws IOException if the file cannot be written
+     */
+    public static int generate(Path target) throws IOException {
+        int[] table = buildTable();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            for (int value : table) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                    buffer.clear();
+                }
+                buffer.putInt(value);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        return table.length;
+    }
+
+    static int[] buildTable() {
+        long[] ids = enumerateStates();
+        int[] table = new int[(ids.length + 1) * ROW_SIZE];
+
+        for (int idNum = 0; idNum < ids.length; idNum++) {
+            int cardsInState = cardCount(ids[idNum]);
+            int row = idNum * ROW_SIZE + ROW_SIZE;
+            for (int card = 1; card <= 52; card++) {
+                long next = addCard(ids[idNum], card);
+                if (cardsInState < 6) {
+                    // A duplicate card leads back to the empty state's row
+                    table[row + card] = next == 0 ? ROW_SIZE : Arrays.binarySearch(ids, next) * ROW_SIZE + ROW_SIZE;
+                } else {
+                    table[row + card] = next == 0 ? 0 : score(next);
+                }
+            }
+            if (cardsInState >= 5) {
+                table[row] = score(ids[idNum]);
+            }
+        }
+        return table;
+    }
+
+    // All states with 0..6 cards, sorted ascending. A state with more cards always
+    // has a larger id, so the states of each size form a contiguous block.
+    private static long[] enumerateStates() {
+        long[] all = { 0L };
+        long[] level = { 0L };
+        for (int size = 1; size <= 6; size++) {
+            long[] next = new long[level.length * 52];
+            int count = 0;
+            for (long id : level) {
+                for (int card = 1; card <= 52; card++) {
+                    long newId = addCard(id, card);
+                    if (newId != 0)
+                        next[count++] = newId;
+                }
+            }
+            Arrays.sort(next, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || next[i] != next[unique - 1])
+                    next[unique++] = next[i];
+            }
+            level = Arrays.copyOf(next, unique);
+            long[] merged = Arrays.copyOf(all, all.length + unique);
+            System.arraycopy(level, 0, merged, all.length, unique);
+            all = merged;
+        }
+        return all;
+    }
+
+    /**
+     * Adds a card (1..52, rank * 4 + suit + 1) to a state id. Each card of the id
+     * occupies one byte: the rank (1..13) in the high nibble and the suit (1..4,
+     * or 0 once it can no longer make a flush) in the low nibble, sorted
+     * descending. Returns 0 if the card is already part of the state or the hand
+     * would hold more than four cards of a rank.
+     */
+    private static long addCard(long id, int card) {
+        int[] cards = new int[8];
+        int[] suitCounts = new int[5];
+        int[] rankCounts = new int[14];
+
+        card--;
+        cards[0] = (((card >> 2) + 1) << 4) + (card & 3) + 1;
+        for (int i = 0; i < 6; i++)
+            cards[i + 1] = (int) ((id >>> (8 * i)) & 0xFF);
+
+        int numCards = 0;
+        while (numCards < 7 && cards[numCards] != 0) {
+            suitCounts[cards[numCards] & 0xF]++;
+            rankCounts[(cards[numCards] >> 4) & 0xF]++;
+            if (numCards > 0 && cards[0] == cards[numCards])
+                return 0;
+            numCards++;
+        }
+        for (int rank = 1; rank <= 13; rank++) {
+            if (rankCounts[rank] > 4)
+                return 0;
+        }
+
+        // A suit needs at least this many cards to still reach five by the seventh
+        int needSuited = numCards - 2;
+        if (needSuited > 1) {
+            for (int i = 0; i < numCards; i++) {
+                if (suitCounts[cards[i] & 0xF] < needSuited)
+                    cards[i] &= 0xF0;
+            }
+        }
+
+        Arrays.sort(cards, 0, numCards);
+        long newId = 0;
+        for (int i = 0; i < numCards; i++)
+            newId |= (long) cards[numCards - 1 - i] << (8 * i);
+        return newId;
+    }
+
+    private static int cardCount(long id) {
+        int count = 0;
+        while (count < 8 && ((id >>> (8 * count)) & 0xFF) != 0)
+            count++;
+        return count;
+    }
+
+    // Scores a state of five to seven cards. Cards whose suit was dropped are
+    // spread over the suits outside the flush suit so that they cannot form a flush.
+    private static int score(long id) {
+        int[] suitMasks = new int[4];
+        int numCards = cardCount(id);
+        int flushSuit = -1;
+        for (int i = 0; i < numCards; i++) {
+            int c = (int) ((id >>> (8 * i)) & 0xFF);
+            if ((c & 0xF) != 0) {
+                flushSuit = (c & 0xF) - 1;
+                suitMasks[flushSuit] |= 1 << ((c >> 4) - 1);
+            }
+        }
+        for (int i = 0; i < numCards; i++) {
+            int c = (int) ((id >>> (8 * i)) & 0xFF);
+            if ((c & 0xF) != 0)
+                continue;
+            int rankBit = 1 << ((c >> 4) - 1);
+            int target = -1;
+            for (int s = 0; s < 4; s++) {
+                if (s == flushSuit || (suitMasks[s] & rankBit) != 0)
+                    continue;
+                if (target < 0 || Integer.bitCount(suitMasks[s]) < Integer.bitCount(suitMasks[target]))
+                    target = s;
+            }
+            suitMasks[target] |= rankBit;
+        }
+        return CactusKevEvaluator.evalSuitMasks(suitMasks[0], suitMasks[1], suitMasks[2], suitMasks[3]);
+    }
+}
@@ -0,0 +1,35 @@
+package de.simonaltschaeffl.poker.service;
+
+/**
+ * Evaluates the low half of hi-lo split-pot games: ace-to-five lowball with
+ * an eight-or-better qualifier. Straights and flushes do not count against a
+ * low and the ace plays low.
+ * <p>
+ * Low strengths follow the convention of
+ * {@link de.simonaltschaeffl.poker.model.HandResult#strength()}: the higher
+ * value is the better low and equal values split. {@code 0} means that the
+ * hand has no qualifying low.
+ */
+public interface LowHandEvaluator {
+
+    /**
+     * @param holeCards      the player's private cards as a card mask
+     * @param communityCards the shared community cards as a card mask
+     * @return the low strength, or 0 if the hand does not qualify
+     */
+    int lowStrength(long holeCards, long communityCards);
+
+    /**
+     * Evaluates the low of several seats against the same board. The default
+     * simply evaluates each hand.
+     *
+     * @return the low strength of each seat, in the same order
+     */
+    default int[] evaluateAllLow(long communityCards, long[] holeCards) {
+        int[] strengths = new int[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            strengths[i] = lowStrength(holeCards[i], communityCards);
+        }
+        return strengths;
+    }
+}
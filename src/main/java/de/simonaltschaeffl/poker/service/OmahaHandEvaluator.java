@@ -0,0 +1,190 @@
+package de.simonaltschaeffl.poker.service;
+
+import static de.simonaltschaeffl.poker.service.CactusKevTables.classStrength;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandResult;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hand evaluator for Omaha, where a hand is made of exactly two hole cards
+ * and exactly three community cards.
+ * <p>
+ * Any number of hole cards from two upward is accepted, so the same evaluator
+ * serves PLO4 (6 hole pairs) and PLO5 (10 hole pairs), together with boards
+ * of three to five cards. The three-card subsets of the board, 10 on the
+ * river, are built once per board; {@link #evaluateAll(long, long[])} shares
+ * them across every seat, so a PLO4 seat costs 60 five-card lookups and a
+ * PLO5 seat 100. A combination can only be a flush if the hole pair is suited
+ * and the board triple is of the same suit, so all other combinations skip
+ * the flush tables.
+ * <p>
+ * Combinations are scored with the {@link CactusKevEvaluator} tables, so
+ * strengths are comparable with that evaluator's.
+ * <p>
+ * For Omaha hi-lo the evaluator also scores the eight-or-better low under the
+ * same two-plus-three rule. Only hole pairs and board triples of distinct
+ * ranks ace to eight can make a low, so both sides are reduced to their low
+ * rank masks first and each combination is one lookup in the
+ * {@link AceToFiveLowEvaluator} table.
+ */
+public class OmahaHandEvaluator implements HandEvaluator, LowHandEvaluator {
+
+    @Override
+    public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+        return evaluate(CardSet.of(holeCards), CardSet.of(communityCards));
+    }
+
+    @Override
+    public HandResult evaluate(long holeCards, long communityCards) {
+        long[] triples = boardTriples(communityCards);
+        int best = best(holeCards, triples);
+        long cards = 1L << ((best >>> 10) & 0x3F) | 1L << ((best >>> 4) & 0x3F) | triples[best & 0xF];
+        return CactusKevEvaluator.toHandResult(best >>> 16, cards);
+    }
+
+    @Override
+    public int strength(long holeCards, long communityCards) {
+        return classStrength[best(holeCards, boardTriples(communityCards)) >>> 16];
+    }
+
+    @Override
+    public int[] evaluateAll(long communityCards, long[] holeCards) {
+        long[] triples = boardTriples(communityCards);
+        int[] strengths = new int[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            strengths[i] = classStrength[best(holeCards[i], triples) >>> 16];
+        }
+        return strengths;
+    }
+
+    @Override
+    public int[] evaluateAll(List<Card> communityCards, List<List<Card>> holeCards) {
+        long[] holeMasks = new long[holeCards.size()];
+        for (int i = 0; i < holeMasks.length; i++) {
+            holeMasks[i] = CardSet.of(holeCards.get(i));
+        }
+        return evaluateAll(CardSet.of(communityCards), holeMasks);
+    }
+
+    @Override
+    public int lowStrength(long holeCards, long communityCards) {
+        return bestLow(holeCards, lowTriples(boardTriples(communityCards)));
+    }
+
+    @Override
+    public int[] evaluateAllLow(long communityCards, long[] holeCards) {
+        int[] lowTriples = lowTriples(boardTriples(communityCards));
+        int[] strengths = new int[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            strengths[i] = bestLow(holeCards[i], lowTriples);
+        }
+        return strengths;
+    }
+
+    /**
+     * Returns every three-card subset of the board as a card mask.
+     *
+     * @throws IllegalArgumentException if the board does not hold 3 to 5 cards
+     */
+    static long[] boardTriples(long communityCards) {
+        int size = Long.bitCount(communityCards);
+        if (size < 3 || size > 5) {
+            throw new IllegalArgumentException("Omaha needs 3 to 5 community cards, got " + size);
+        }
+        long[] cards = new long[size];
+        long rest = communityCards;
+        for (int i = 0; i < size; i++) {
+            cards[i] = Long.lowestOneBit(rest);
+            rest &= rest - 1;
+        }
+        long[] triples = new long[size * (size - 1) * (size - 2) / 6];
+        int n = 0;
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                for (int c = b + 1; c < size; c++) {
+                    triples[n++] = cards[a] | cards[b] | cards[c];
+                }
+            }
+        }
+        return triples;
+    }
+
+    // Best combination over all hole pairs and board triples, packed as
+    // score << 16 | first hole card << 10 | second hole card << 4 | triple index,
+    // so the smallest value is the best hand
+    private static int best(long holeCards, long[] triples) {
+        int size = Long.bitCount(holeCards);
+        if (size < 2) {
+            throw new IllegalArgumentException("Omaha needs at least 2 hole cards, got " + size);
+        }
+        int best = Integer.MAX_VALUE;
+        for (long first = holeCards; first != 0; first &= first - 1) {
+            int a = Long.numberOfTrailingZeros(first);
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                int b = Long.numberOfTrailingZeros(second);
+                long pair = 1L << a | 1L << b;
+                // A flush needs a suited pair and a triple of the same suit
+                long flushSuit = a / 13 == b / 13 ? 0x1FFFL << (13 * (a / 13)) : CardSet.EMPTY;
+                for (int t = 0; t < triples.length; t++) {
+                    long triple = triples[t];
+                    long cards = pair | triple;
+                    int score = (triple & ~flushSuit) == 0
+                            ? CactusKevEvaluator.evalCardSet(cards)
+                            : CactusKevEvaluator.evalNoFlush((int) cards & 0x1FFF, (int) (cards >>> 13) & 0x1FFF,
+                                    (int) (cards >>> 26) & 0x1FFF, (int) (cards >>> 39) & 0x1FFF);
+                    int packed = score << 16 | a << 10 | b << 4 | t;
+                    if (packed < best) {
+                        best = packed;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Distinct low rank masks of the board triples that hold three different
+    // ranks ace to eight
+    private static int[] lowTriples(long[] triples) {
+        int[] lows = new int[triples.length];
+        int n = 0;
+        for (long triple : triples) {
+            int low = AceToFiveLowEvaluator.lowRanks(triple);
+            if (Integer.bitCount(low) == 3 && !contains(lows, n, low)) {
+                lows[n++] = low;
+            }
+        }
+        return Arrays.copyOf(lows, n);
+    }
+
+    private static int bestLow(long holeCards, int[] lowTriples) {
+        if (Long.bitCount(holeCards) < 2) {
+            throw new IllegalArgumentException("Omaha needs at least 2 hole cards, got " + Long.bitCount(holeCards));
+        }
+        int best = 0;
+        for (long first = holeCards; first != 0; first &= first - 1) {
+            int a = AceToFiveLowEvaluator.lowRanks(Long.lowestOneBit(first));
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                int pair = a | AceToFiveLowEvaluator.lowRanks(Long.lowestOneBit(second));
+                if (Integer.bitCount(pair) != 2)
+                    continue;
+                for (int triple : lowTriples) {
+                    if ((pair & triple) == 0) {
+                        best = Math.max(best, AceToFiveLowEvaluator.lowStrength(pair | triple));
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,283 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+
+/**
+ * Lists the outs of every seat: the cards that, dealt next, put a seat that
+ * is behind into the lead.
+ * <p>
+ * A {@link Street} keeps the strength of every seat on the board plus each
+ * card that can come next, which is what its outs are derived from.
+ * {@link #analyze(long[], long)} evaluates these from scratch.
+ * {@link #advance(Street, long)} starts from the previous street instead: the
+ * seats' strengths on the new board are already among the kept ones, so only
+ * the following card is evaluated, one
+ * {@link HandEvaluator#evaluateAll(long, long[])} call per card, and moving to
+ * the river evaluates nothing at all. Everything works on {@link CardSet}
+ * masks.
+ * <p>
+ * The analyzer holds no state of its own and {@link Street} is immutable, so
+ * both can be shared between threads as long as the evaluator can.
+ */
+public class OutsAnalyzer {
+
+    private static final int BOARD_SIZE = 5;
+
+    private final HandEvaluator evaluator;
+    private final long deckMask;
+
+    /**
+     * Creates an analyzer for Texas Hold'em with the Cactus Kev evaluator and
+     * the standard 52-card deck.
+     */
+    public OutsAnalyzer() {
+        this(new CactusKevEvaluator(), CardSet.FULL_DECK);
+    }
+
+    /**
+     * @param evaluator the evaluator of the game, for example an
+     *                  {@link OmahaHandEvaluator}
+     * @param deckMask  the cards of the game's full deck, see
+     *                  {@link de.simonaltschaeffl.poker.model.Deck#getCardMask()}
+     */
+    public OutsAnalyzer(HandEvaluator evaluator, long deckMask) {
+        this.evaluator = evaluator;
+        this.deckMask = deckMask;
+    }
+
+    /**
+     * Finds the outs of each seat on a board of 3 to 5 cards. Only the seats'
+     * hole cards and the board are treated as known; every other card of the
+     * deck can come next.
+     *
+     * @param holes the hole cards of each live seat as card masks
+     * @param board the community cards as a card mask
+     * @throws IllegalArgumentException if there are fewer than two seats, the
+     *                                  board does not have 3 to 5 cards or two
+     *                                  hands share a card
+     */
+    public Street analyze(long[] holes, long board) {
+        int boardCards = Long.bitCount(board);
+        if (holes.length < 2) {
+            throw new IllegalArgumentException("Outs need at least 2 seats, got " + holes.length);
+        }
+        if (boardCards < 3 || boardCards > BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 3 to 5 cards, got " + boardCards);
+        }
+        long used = board;
+        for (long hole : holes) {
+            if ((used & hole) != 0) {
+                throw new IllegalArgumentException("Hole cards overlap with the board or another seat");
+            }
+            used |= hole;
+        }
+        if ((used & ~deckMask) != 0) {
+            throw new IllegalArgumentException("Cards are not part of the deck");
+        }
+
+        long[] cards = boardCards == BOARD_SIZE ? new long[0] : toCards(deckMask & ~used);
+        int[] current = evaluator.evaluateAll(board, holes);
+        return new Street(holes.clone(), board, cards, current, nextStrengths(holes, board, cards));
+    }
+
+    /**
+     * Moves a street on by the one card dealt since, reusing its strengths.
+     *
+     * @param previous the analysis of the previous street
+     * @param board    the previous board plus exactly one card
+     * @throws IllegalArgumentException if the board does not add exactly one of
+     *                                  the cards that could come next
+     */
+    public Street advance(Street previous, long board) {
+        return advance(previous, previous.holes, board);
+    }
+
+    /**
+     * Moves a street on by the one card dealt since, reusing its strengths, and
+     * drops the seats that are no longer in the hand. The hole cards of dropped
+     * seats stay out of the outs, as on the previous street.
+     *
+     * @param previous the analysis of the previous street
+     * @param holes    the hole cards of the seats still live, each one of the
+     *                 previous street's seats
+     * @param board    the previous board plus exactly one card
+     * @throws IllegalArgumentException if fewer than two seats are left, a seat
+     *                                  was not on the previous street or the
+     *                                  board does not add exactly one of the
+     *                                  cards that could come next
+     */
+    public Street advance(Street previous, long[] holes, long board) {
+        long dealt = board & ~previous.board;
+        if ((board & previous.board) != previous.board || Long.bitCount(dealt) != 1) {
+            throw new IllegalArgumentException("The board must add exactly one card to the previous street");
+        }
+        int dealtIndex = indexOf(previous.cards, dealt);
+        if (dealtIndex < 0) {
+            throw new IllegalArgumentException("The dealt card was not live on the previous street");
+        }
+        if (holes.length < 2) {
+            throw new IllegalArgumentException("Outs need at least 2 seats, got " + holes.length);
+        }
+
+        boolean river = Long.bitCount(board) == BOARD_SIZE;
+        long[] cards = new long[river ? 0 : previous.cards.length - 1];
+        for (int i = 0, k = 0; k < cards.length; i++) {
+            if (i != dealtIndex) {
+                cards[k++] = previous.cards[i];
+            }
+        }
+        int[] current = new int[holes.length];
+        for (int seat = 0; seat < holes.length; seat++) {
+            int from = indexOf(previous.holes, holes[seat]);
+            if (from < 0) {
+                throw new IllegalArgumentException("Seat " + seat + " was not on the previous street");
+            }
+            current[seat] = previous.next[from][dealtIndex];
+        }
+        return new Street(holes.clone(), board, cards, current, nextStrengths(holes, board, cards));
+    }
+
+    // Strength of each seat on the board plus each of the cards
+    private int[][] nextStrengths(long[] holes, long board, long[] cards) {
+        int[][] next = new int[holes.length][cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            int[] strengths = evaluator.evaluateAll(board | cards[i], holes);
+            for (int seat = 0; seat < holes.length; seat++) {
+                next[seat][i] = strengths[seat];
+            }
+        }
+        return next;
+    }
+
+    private static int indexOf(long[] values, long value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] toCards(long mask) {
+        long[] cards = new long[Long.bitCount(mask)];
+        int n = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cards[n++] = rest & -rest;
+        }
+        return cards;
+    }
+
+    /**
+     * The outs of every seat on one street, in the seat order the street was
+     * analyzed with.
+     */
+    public static final class Street {
+
+        private final long[] holes;
+        private final long board;
+        // The cards that can come next, one bit each
+        private final long[] cards;
+        // Strength of each seat on the board plus each of the cards
+        private final int[][] next;
+        private final int leader;
+        private final long[] outs;
+        private final long[] splitOuts;
+
+        private Street(long[] holes, long board, long[] cards, int[] current, int[][] next) {
+            this.holes = holes;
+            this.board = board;
+            this.cards = cards;
+            this.next = next;
+            this.leader = soleBest(current);
+            this.outs = new long[holes.length];
+            this.splitOuts = new long[holes.length];
+
+            int[] strengths = new int[holes.length];
+            for (int i = 0; i < cards.length; i++) {
+                for (int seat = 0; seat < holes.length; seat++) {
+                    strengths[seat] = next[seat][i];
+                }
+                int best = Integer.MIN_VALUE;
+                int count = 0;
+                for (int strength : strengths) {
+                    if (strength > best) {
+                        best = strength;
+                        count = 1;
+                    } else if (strength == best) {
+                        count++;
+                    }
+                }
+                for (int seat = 0; seat < holes.length; seat++) {
+                    if (seat == leader || strengths[seat] != best)
+                        continue;
+                    if (count == 1) {
+                        outs[seat] |= cards[i];
+                    } else {
+                        splitOuts[seat] |= cards[i];
+                    }
+                }
+            }
+        }
+
+        // The only seat with the highest strength, or -1 on a tie
+        private static int soleBest(int[] strengths) {
+            int best = 0;
+            boolean tied = false;
+            for (int seat = 1; seat < strengths.length; seat++) {
+                if (strengths[seat] > strengths[best]) {
+                    best = seat;
+                    tied = false;
+                } else if (strengths[seat] == strengths[best]) {
+                    tied = true;
+                }
+            }
+            return tied ? -1 : best;
+        }
+
+        public long board() {
+            return board;
+        }
+
+        public int seats() {
+            return holes.length;
+        }
+
+        public long hole(int seat) {
+            return holes[seat];
+        }
+
+        /**
+         * @return the cards that can come next, empty on the river
+         */
+        public long unseen() {
+            long unseen = CardSet.EMPTY;
+            for (long card : cards) {
+                unseen |= card;
+            }
+            return unseen;
+        }
+
+        /**
+         * @return whether the seat alone has the best hand on this board
+         */
+        public boolean isLeading(int seat) {
+            return seat == leader;
+        }
+
+        /**
+         * @return the cards after which the seat, not alone ahead now, has the
+         *         best hand alone; empty for the leader and on the river
+         */
+        public long outs(int seat) {
+            return outs[seat];
+        }
+
+        /**
+         * @return the cards after which the seat, not alone ahead now, shares
+         *         the best hand with other seats
+         */
+        public long splitOuts(int seat) {
+            return splitOuts[seat];
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package de.simonaltschaeffl.poker.service;
 
 import de.simonaltschaeffl.poker.model.Card;
-import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.model.CardSet;
 import de.simonaltschaeffl.poker.model.Player;
 import de.simonaltschaeffl.poker.model.PlayerStatus;
 import de.simonaltschaeffl.poker.model.Pot;
@@ -12,16 +12,23 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
  * Calculates the payouts for each player at the end of a round (showdown).
  * It evaluates hand strengths and distributes the pot correctly,
  * including logic for side pots when players go all-in with different amounts.
+ * In hi-lo games each pot slice is split between the best high and the best
+ * qualifying low hand, which can leave a player with a quarter of the slice.
+ * When the board was run more than once, every slice is also divided between
+ * the runs.
  */
 public class PayoutCalculator {
 
     private final HandEvaluator handEvaluator;
+    private final LowHandEvaluator lowEvaluator;
     private final RakeStrategy rakeStrategy;
     private final List<GameEventListener> listeners;
 
@@ -34,7 +41,22 @@ public class PayoutCalculator {
      * @param listeners     list of game event listeners
      */
     public PayoutCalculator(HandEvaluator handEvaluator, RakeStrategy rakeStrategy, List<GameEventListener> listeners) {
+        this(handEvaluator, null, rakeStrategy, listeners);
+    }
+
+    /**
+     * Constructs a PayoutCalculator for a hi-lo split-pot game.
+     *
+     * @param handEvaluator the evaluator for the high half
+     * @param lowEvaluator  the evaluator for the low half, or {@code null} to
+     *                      award every pot to the high hand alone
+     * @param rakeStrategy  the strategy for deducting house commission
+     * @param listeners     list of game event listeners
+     */
+    public PayoutCalculator(HandEvaluator handEvaluator, LowHandEvaluator lowEvaluator, RakeStrategy rakeStrategy,
+            List<GameEventListener> listeners) {
         this.handEvaluator = handEvaluator;
+        this.lowEvaluator = lowEvaluator;
         this.rakeStrategy = rakeStrategy;
         this.listeners = listeners;
     }
@@ -44,7 +66,23 @@ public class PayoutCalculator {
         this(handEvaluator, new NoRakeStrategy(), new ArrayList<>());
     }
 
-    public record ShowdownResult(List<Player> winners, Map<String, Integer> payouts) {
+    /**
+     * @param winners    the players who won chips, best hand of the first run
+     *                   first
+     * @param payouts    the chips won by each player ID over all runs
+     * @param runPayouts the chips won by each player ID on each board, in the
+     *                   order the boards were dealt
+     */
+    public record ShowdownResult(List<Player> winners, Map<String, Integer> payouts,
+            List<Map<String, Integer>> runPayouts) {
+
+        public ShowdownResult(List<Player> winners, Map<String, Integer> payouts) {
+            this(winners, payouts, List.of(payouts));
+        }
+    }
+
+    // A showdown player's strengths on one board
+    private record PlayerHand(Player player, int strength, int lowStrength) {
     }
 
     /**
@@ -59,6 +97,29 @@ public class PayoutCalculator {
      *         amounts
      */
     public ShowdownResult calculate(List<Player> allPlayers, List<Card> board, Pot pot) {
+        return calculateRuns(allPlayers, List.of(board), pot);
+    }
+
+    /**
+     * Calculates the payouts of a hand whose board was run several times.
+     * Every pot slice is divided evenly between the runs, the first runs
+     * receiving the odd chips, and each run's part goes to that run's winners
+     * exactly as in {@link #calculate(List, List, Pot)}. The runs are evaluated
+     * in parallel: the first on the calling thread, the others in the common
+     * {@link ForkJoinPool}.
+     *
+     * @param allPlayers the list of all players in the game (including active and
+     *                   folded)
+     * @param boards     the complete board of each run
+     * @param pot        the current pot with the contributions by each player
+     * @return a ShowdownResult with the payouts of each run and their sum
+     * @throws IllegalArgumentException if no board is given
+     */
+    public ShowdownResult calculateRuns(List<Player> allPlayers, List<List<Card>> boards, Pot pot) {
+        if (boards.isEmpty()) {
+            throw new IllegalArgumentException("At least one board is required");
+        }
+
         // --- 0. Collect Rake ---
         int totalPotSize = pot.getTotal();
         int rakeAmount = rakeStrategy.calculateRake(totalPotSize);
@@ -75,39 +136,22 @@ public class PayoutCalculator {
                         && p.getStatus() != PlayerStatus.SITTING_OUT)
                 .collect(Collectors.toList());
 
-        // 2. Evaluate all hands
-        record PlayerHand(Player player, HandResult hand) {
+        // 2. Rank the hands on every board, the extra runs in parallel
+        List<ForkJoinTask<List<PlayerHand>>> forks = new ArrayList<>(boards.size() - 1);
+        for (List<Card> board : boards.subList(1, boards.size())) {
+            forks.add(ForkJoinPool.commonPool().submit(() -> rank(showdownPlayers, board)));
         }
-        // Use parallel streams to speed up CPU-intensive hand evaluation.
-        List<PlayerHand> results = showdownPlayers.parallelStream()
-                .map(p -> new PlayerHand(p, handEvaluator.evaluate(p.getHoleCards(), board)))
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        // 3. Group by Strength (Highest first) -> Tiers
-        results.sort((a, b) -> b.hand.compareTo(a.hand)); // Winner first
-
-        // Group tied players
-        List<List<PlayerHand>> tiers = new ArrayList<>();
-        if (!results.isEmpty()) {
-            List<PlayerHand> currentTier = new ArrayList<>();
-            currentTier.add(results.get(0));
-            tiers.add(currentTier);
-
-            for (int i = 1; i < results.size(); i++) {
-                PlayerHand current = results.get(i);
-                PlayerHand prev = results.get(i - 1);
-                if (current.hand.compareTo(prev.hand) == 0) {
-                    currentTier.add(current);
-                } else {
-                    currentTier = new ArrayList<>();
-                    currentTier.add(current);
-                    tiers.add(currentTier);
-                }
-            }
+        List<List<PlayerHand>> runs = new ArrayList<>(boards.size());
+        runs.add(rank(showdownPlayers, boards.get(0)));
+        for (ForkJoinTask<List<PlayerHand>> fork : forks) {
+            runs.add(fork.join());
         }
 
-        // 4. Distribute Chips
-        Map<String, Integer> payouts = new HashMap<>();
+        // 3. Distribute Chips
+        List<Map<String, Integer>> runPayouts = new ArrayList<>(runs.size());
+        for (int run = 0; run < runs.size(); run++) {
+            runPayouts.add(new HashMap<>());
+        }
         Map<String, Integer> contributions = pot.getContributions();
 
         // Extract and sort unique bet sizes to calculate pot distribution in O(N) time.
@@ -124,52 +168,114 @@ public class PayoutCalculator {
                 continue;
 
             int potSlice = 0;
-            List<String> involvedIds = new ArrayList<>();
-
-            for (Map.Entry<String, Integer> entry : contributions.entrySet()) {
-                if (entry.getValue() >= amount) {
+            for (int contribution : contributions.values()) {
+                if (contribution >= amount) {
                     potSlice += sliceAmount;
-                    involvedIds.add(entry.getKey());
                 }
             }
 
             previouslyDeducted = amount;
 
-            // Determine winners for this slice
-            List<Player> sliceWinners = new ArrayList<>();
-            for (List<PlayerHand> tier : tiers) {
-                List<Player> winnersInTier = new ArrayList<>();
-                for (PlayerHand ph : tier) {
-                    if (involvedIds.contains(ph.player.getId())) {
-                        winnersInTier.add(ph.player);
-                    }
-                }
-                if (!winnersInTier.isEmpty()) {
-                    sliceWinners.addAll(winnersInTier);
-                    break;
-                }
+            // Each run plays for its part of the slice, the first runs get the
+            // odd chips
+            int runShare = potSlice / runs.size();
+            int remainder = potSlice % runs.size();
+            for (int run = 0; run < runs.size(); run++) {
+                awardSlice(runShare + (run < remainder ? 1 : 0), amount, runs.get(run), contributions,
+                        runPayouts.get(run));
             }
+        }
 
-            if (!sliceWinners.isEmpty()) {
-                int share = potSlice / sliceWinners.size();
-                int remainder = potSlice % sliceWinners.size();
-
-                for (Player winner : sliceWinners) {
-                    int winAmount = share + (remainder > 0 ? 1 : 0);
-                    if (remainder > 0)
-                        remainder--;
-                    payouts.merge(winner.getId(), winAmount, Integer::sum);
-                }
-            }
+        Map<String, Integer> payouts = new HashMap<>();
+        for (Map<String, Integer> runPayout : runPayouts) {
+            runPayout.forEach((id, won) -> payouts.merge(id, won, Integer::sum));
         }
 
-        // 5. Build Result
-        List<Player> winners = results.stream()
+        // 4. Build Result
+        List<Player> winners = runs.get(0).stream()
                 .filter(ph -> payouts.containsKey(ph.player.getId()))
                 .map(ph -> ph.player)
                 .distinct()
                 .toList();
 
-        return new ShowdownResult(winners, payouts);
+        return new ShowdownResult(winners, payouts, List.copyOf(runPayouts));
+    }
+
+    // Evaluates all hands in one batch so the board is only processed once and
+    // sorts them by strength, highest first; ties keep their seat order
+    private List<PlayerHand> rank(List<Player> showdownPlayers, List<Card> board) {
+        List<List<Card>> holeCards = new ArrayList<>(showdownPlayers.size());
+        for (Player p : showdownPlayers) {
+            holeCards.add(p.getHoleCards());
+        }
+        int[] strengths = handEvaluator.evaluateAll(board, holeCards);
+        int[] lowStrengths = new int[strengths.length];
+        if (lowEvaluator != null) {
+            long[] holeMasks = new long[showdownPlayers.size()];
+            for (int i = 0; i < holeMasks.length; i++) {
+                holeMasks[i] = showdownPlayers.get(i).getHoleCardMask();
+            }
+            lowStrengths = lowEvaluator.evaluateAllLow(CardSet.of(board), holeMasks);
+        }
+        List<PlayerHand> results = new ArrayList<>(showdownPlayers.size());
+        for (int i = 0; i < strengths.length; i++) {
+            results.add(new PlayerHand(showdownPlayers.get(i), strengths[i], lowStrengths[i]));
+        }
+        results.sort((a, b) -> Integer.compare(b.strength, a.strength)); // Winner first
+        return results;
+    }
+
+    // Awards a slice to the best high and low hands among the seats that
+    // contributed at least the given amount
+    private static void awardSlice(int potSlice, int amount, List<PlayerHand> results,
+            Map<String, Integer> contributions, Map<String, Integer> payouts) {
+        if (potSlice == 0)
+            return;
+        // Determine the high and low winners for this slice in one pass over
+        // the seats that contributed to it
+        List<Player> highWinners = new ArrayList<>();
+        List<Player> lowWinners = new ArrayList<>();
+        int bestHigh = Integer.MIN_VALUE;
+        int bestLow = 0;
+        for (PlayerHand ph : results) {
+            if (contributions.getOrDefault(ph.player.getId(), 0) < amount)
+                continue;
+            if (ph.strength > bestHigh) {
+                bestHigh = ph.strength;
+                highWinners.clear();
+            }
+            if (ph.strength == bestHigh)
+                highWinners.add(ph.player);
+            if (ph.lowStrength > bestLow) {
+                bestLow = ph.lowStrength;
+                lowWinners.clear();
+            }
+            if (ph.lowStrength > 0 && ph.lowStrength == bestLow)
+                lowWinners.add(ph.player);
+        }
+
+        if (lowWinners.isEmpty()) {
+            distribute(potSlice, highWinners, payouts);
+        } else {
+            // Split between high and low; the odd chip goes to the high half
+            int lowHalf = potSlice / 2;
+            distribute(potSlice - lowHalf, highWinners, payouts);
+            distribute(lowHalf, lowWinners, payouts);
+        }
+    }
+
+    // Splits an amount evenly, the first winners receive the remaining chips
+    private static void distribute(int amount, List<Player> winners, Map<String, Integer> payouts) {
+        if (winners.isEmpty())
+            return;
+        int share = amount / winners.size();
+        int remainder = amount % winners.size();
+
+        for (Player winner : winners) {
+            int winAmount = share + (remainder > 0 ? 1 : 0);
+            if (remainder > 0)
+                remainder--;
+            payouts.merge(winner.getId(), winAmount, Integer::sum);
+        }
     }
 }
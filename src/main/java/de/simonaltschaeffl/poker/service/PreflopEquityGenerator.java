@@ -0,0 +1,206 @@
+package de.simonaltschaeffl.poker.service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates the {@value PreflopEquityTable#RESOURCE} resource read by
+ * {@link PreflopEquityTable}.
+ * <p>
+ * Every suit-distinct heads-up matchup is enumerated exactly over all
+ * {@value PreflopEquityTable#BOARDS} boards. The boards are walked card by
+ * card through the state-transition table of {@link LookupTableGenerator},
+ * so each hand's state after the first four board cards is shared by all
+ * river cards and the innermost loop is one lookup per hand. The matchups are
+ * split across a {@link ForkJoinPool}; every task writes only its own slots
+ * and all counts are exact integers, so the output is byte-for-byte the same
+ * on any number of threads. The resource is regenerated with:
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass="de.simonaltschaeffl.poker.service.PreflopEquityGenerator" -Dexec.args="src/main/resources/de/simonaltschaeffl/poker/service/preflop-equity.bin"
+ * </pre>
+ *
+ * It needs about 150 MB of heap for the state table.
+ */
+public final class PreflopEquityGenerator {
+
+    private static final int START = LookupTableGenerator.ROW_SIZE;
+    // Matchups per task
+    private static final int GRAIN = 64;
+
+    private PreflopEquityGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path target = Paths.get(args.length > 0 ? args[0] : PreflopEquityTable.RESOURCE);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        long start = System.nanoTime();
+        PreflopEquityTable table = generate(ForkJoinPool.commonPool());
+        try (OutputStream out = Files.newOutputStream(target)) {
+            write(table, out);
+        }
+        System.out.printf("Wrote %,d bytes to %s in %d s%n", Files.size(target), target.toAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Computes the combo table and the class matrix.
+     *
+     * @param pool the pool the enumeration runs on
+     */
+    public static PreflopEquityTable generate(ForkJoinPool pool) {
+        int[] keys = matchupKeys();
+        int[] doubledWins = new int[keys.length];
+        int[] transitions = LookupTableGenerator.buildTable();
+        pool.invoke(new Enumeration(transitions, keys, doubledWins, 0, keys.length));
+
+        PreflopEquityTable combos = new PreflopEquityTable(keys, doubledWins, new char[0]);
+        char[] classEquity = new char[PreflopEquityTable.CLASSES * PreflopEquityTable.CLASSES];
+        for (int hero = 0; hero < PreflopEquityTable.CLASSES; hero++) {
+            for (int villain = 0; villain < PreflopEquityTable.CLASSES; villain++) {
+                double equity = combos.classEquity(hero, villain, 0L);
+                classEquity[hero * PreflopEquityTable.CLASSES + villain] =
+                        (char) Math.round(equity * PreflopEquityTable.CLASS_SCALE);
+            }
+        }
+        return new PreflopEquityTable(keys, doubledWins, classEquity);
+    }
+
+    static void write(PreflopEquityTable table, OutputStream target) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(target, 1 << 16);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(PreflopEquityTable.MAGIC);
+        out.writeInt(PreflopEquityTable.BOARDS);
+        int[] keys = table.keys();
+        out.writeInt(keys.length);
+        for (int key : keys) {
+            out.writeInt(key);
+        }
+        for (int value : table.doubledWins()) {
+            out.writeInt(value);
+        }
+        for (char value : table.classMatrix()) {
+            out.writeChar(value);
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    // Keys of all suit-distinct matchups, one orientation each, ascending
+    private static int[] matchupKeys() {
+        int[] keys = new int[1326 * 1325];
+        int n = 0;
+        for (int h1 = 0; h1 < 52; h1++) {
+            for (int h2 = h1 + 1; h2 < 52; h2++) {
+                long hero = 1L << h1 | 1L << h2;
+                for (int v1 = 0; v1 < 52; v1++) {
+                    for (int v2 = v1 + 1; v2 < 52; v2++) {
+                        long villain = 1L << v1 | 1L << v2;
+                        if ((hero & villain) == 0 && hero < villain) {
+                            keys[n++] = Math.min(PreflopEquityTable.matchupKey(hero, villain),
+                                    PreflopEquityTable.matchupKey(villain, hero));
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.stream(keys, 0, n).sorted().distinct().toArray();
+    }
+
+    // Index of a card in the state-transition table
+    private static int transitionIndex(int card) {
+        return (card % 13) * 4 + card / 13 + 1;
+    }
+
+    private static final class Enumeration extends RecursiveAction {
+
+        private final int[] transitions;
+        private final int[] keys;
+        private final int[] doubledWins;
+        private final int from;
+        private final int to;
+
+        Enumeration(int[] transitions, int[] keys, int[] doubledWins, int from, int to) {
+            this.transitions = transitions;
+            this.keys = keys;
+            this.doubledWins = doubledWins;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Enumeration(transitions, keys, doubledWins, from, middle),
+                        new Enumeration(transitions, keys, doubledWins, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                long[] hands = PreflopEquityTable.matchupOf(keys[i]);
+                doubledWins[i] = doubledWins(hands[0], hands[1]);
+            }
+        }
+
+        // Won boards plus half the tied boards of the hero, doubled
+        private int doubledWins(long hero, long villain) {
+            int[] t = transitions;
+            int[] deck = new int[48];
+            int n = 0;
+            for (int card = 0; card < 52; card++) {
+                if (((hero | villain) & (1L << card)) == 0) {
+                    deck[n++] = transitionIndex(card);
+                }
+            }
+            int h = START;
+            for (long rest = hero; rest != 0; rest &= rest - 1) {
+                h = t[h + transitionIndex(Long.numberOfTrailingZeros(rest))];
+            }
+            int v = START;
+            for (long rest = villain; rest != 0; rest &= rest - 1) {
+                v = t[v + transitionIndex(Long.numberOfTrailingZeros(rest))];
+            }
+
+            int wins = 0;
+            int ties = 0;
+            for (int a = 0; a < 44; a++) {
+                int h3 = t[h + deck[a]];
+                int v3 = t[v + deck[a]];
+                for (int b = a + 1; b < 45; b++) {
+                    int h4 = t[h3 + deck[b]];
+                    int v4 = t[v3 + deck[b]];
+                    for (int c = b + 1; c < 46; c++) {
+                        int h5 = t[h4 + deck[c]];
+                        int v5 = t[v4 + deck[c]];
+                        for (int d = c + 1; d < 47; d++) {
+                            int h6 = t[h5 + deck[d]];
+                            int v6 = t[v5 + deck[d]];
+                            for (int e = d + 1; e < 48; e++) {
+                                // After the seventh card the entry is the Cactus Kev
+                                // score, lower is better
+                                int heroScore = t[h6 + deck[e]];
+                                int villainScore = t[v6 + deck[e]];
+                                if (heroScore < villainScore) {
+                                    wins++;
+                                } else if (heroScore == villainScore) {
+                                    ties++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            return 2 * wins + ties;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Precomputed heads-up preflop equities, read from the {@value #RESOURCE}
+ * classpath resource that {@link PreflopEquityGenerator} writes.
+ * <p>
+ * The 169 starting hand classes are numbered like the usual 13x13 chart:
+ * {@code row * 13 + column} with aces in row and column 0, pairs on the
+ * diagonal, suited hands above it ({@code AKs} is 1) and offsuit hands below
+ * it ({@code AKo} is 13).
+ * <p>
+ * Two tables are kept. The combo table holds the exact equity of every
+ * matchup of two specific hands. Matchups that differ only by a renaming of
+ * suits have the same equity, which leaves about 47,000 distinct ones, each
+ * stored as the number of won boards plus half the tied boards out of all
+ * {@value #BOARDS} run-outs. {@link #equity(long, long)} looks a matchup up by
+ * its suit-canonical key, so suit interactions such as shared flush suits are
+ * exact. The class matrix holds the 169x169 class-versus-class averages over
+ * all non-conflicting combo pairs, in 16-bit fixed point. When cards are
+ * known to be out of the deck, the methods that take dead cards average the
+ * exact combo equities over the combos that are still possible instead.
+ */
+public final class PreflopEquityTable {
+
+    static final String RESOURCE = "preflop-equity.bin";
+
+    /** Number of hand classes: 13 pairs, 78 suited and 78 offsuit hands. */
+    public static final int CLASSES = 169;
+    /** Number of five-card boards from the 48 cards left after two hands. */
+    public static final int BOARDS = 1_712_304;
+
+    // "PFE" followed by the format version
+    static final int MAGIC = 0x50464501;
+    // Fixed-point scale of the class matrix
+    static final int CLASS_SCALE = 65535;
+
+    // The 24 permutations of the four suits
+    private static final int[][] SUIT_PERMUTATIONS = suitPermutations();
+    // Card masks of the combos in each class
+    private static final long[][] CLASS_COMBOS = classCombos();
+
+    // Suit-canonical matchup keys, ascending, with the won boards plus half the
+    // tied boards, doubled to stay integral
+    private final int[] keys;
+    private final int[] doubledWins;
+    private final char[] classEquity;
+
+    PreflopEquityTable(int[] keys, int[] doubledWins, char[] classEquity) {
+        this.keys = keys;
+        this.doubledWins = doubledWins;
+        this.classEquity = classEquity;
+    }
+
+    int[] keys() {
+        return keys;
+    }
+
+    int[] doubledWins() {
+        return doubledWins;
+    }
+
+    char[] classMatrix() {
+        return classEquity;
+    }
+
+    private static final class Holder {
+        static final PreflopEquityTable INSTANCE = loadResource();
+    }
+
+    /**
+     * Returns the table shipped with the engine, loading it on first use.
+     *
+     * @throws IllegalStateException if the resource is missing
+     */
+    public static PreflopEquityTable getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the exact equity of one hand against another.
+     *
+     * @param heroHole    the hero's two hole cards as a card mask
+     * @param villainHole the villain's two hole cards as a card mask
+     * @return the hero's share of the pot over all boards, ties counting half
+     * @throws IllegalArgumentException if a hand does not hold two cards or the
+     *                                  hands share a card
+     */
+    public double equity(long heroHole, long villainHole) {
+        checkHand(heroHole);
+        checkHand(villainHole);
+        if ((heroHole & villainHole) != 0) {
+            throw new IllegalArgumentException("Hands share a card: " + CardSet.toString(heroHole & villainHole));
+        }
+        return doubledWins(heroHole, villainHole) / (2.0 * BOARDS);
+    }
+
+    /**
+     * List-based variant of {@link #equity(long, long)}.
+     */
+    public double equity(List<Card> heroHole, List<Card> villainHole) {
+        return equity(CardSet.of(heroHole), CardSet.of(villainHole));
+    }
+
+    /**
+     * Returns the average equity of one hand class against another over all
+     * pairs of combos that do not share a card.
+     */
+    public double classEquity(int heroClass, int villainClass) {
+        checkClass(heroClass);
+        checkClass(villainClass);
+        return (double) classEquity[heroClass * CLASSES + villainClass] / CLASS_SCALE;
+    }
+
+    /**
+     * Class-name variant of {@link #classEquity(int, int)}, for example
+     * {@code classEquity("AKs", "QQ")}.
+     */
+    public double classEquity(String heroClass, String villainClass) {
+        return classEquity(classOf(heroClass), classOf(villainClass));
+    }
+
+    /**
+     * Returns the equity of a hand against a hand class, averaged over the
+     * villain combos that neither share a card with the hero nor contain a
+     * dead card.
+     *
+     * @throws IllegalArgumentException if no villain combo is left
+     */
+    public double equity(long heroHole, int villainClass, long deadCards) {
+        checkHand(heroHole);
+        checkClass(villainClass);
+        long blocked = heroHole | deadCards;
+        long total = 0;
+        int combos = 0;
+        for (long villain : CLASS_COMBOS[villainClass]) {
+            if ((villain & blocked) == 0) {
+                total += doubledWins(heroHole, villain);
+                combos++;
+            }
+        }
+        if (combos == 0) {
+            throw new IllegalArgumentException("No combo of " + className(villainClass) + " is left");
+        }
+        return total / (2.0 * BOARDS * combos);
+    }
+
+    /**
+     * Returns the equity of one hand class against another, averaged over the
+     * pairs of combos that do not share a card and contain no dead card. With
+     * no dead cards this is the exact value behind {@link #classEquity(int, int)}.
+     *
+     * @throws IllegalArgumentException if no pair of combos is left
+     */
+    public double classEquity(int heroClass, int villainClass, long deadCards) {
+        checkClass(heroClass);
+        checkClass(villainClass);
+        long total = 0;
+        long pairs = 0;
+        for (long hero : CLASS_COMBOS[heroClass]) {
+            if ((hero & deadCards) != 0)
+                continue;
+            for (long villain : CLASS_COMBOS[villainClass]) {
+                if ((villain & (hero | deadCards)) == 0) {
+                    total += doubledWins(hero, villain);
+                    pairs++;
+                }
+            }
+        }
+        if (pairs == 0) {
+            throw new IllegalArgumentException(
+                    "No combos of " + className(heroClass) + " and " + className(villainClass) + " are left");
+        }
+        return total / (2.0 * BOARDS * pairs);
+    }
+
+    /**
+     * Returns the class of two hole cards given as a card mask.
+     */
+    public static int handClass(long hole) {
+        checkHand(hole);
+        int first = Long.numberOfTrailingZeros(hole);
+        int second = 63 - Long.numberOfLeadingZeros(hole);
+        int high = Math.max(first % 13, second % 13);
+        int low = Math.min(first % 13, second % 13);
+        boolean suited = first / 13 == second / 13;
+        int highRow = 12 - high;
+        int lowRow = 12 - low;
+        return suited ? highRow * 13 + lowRow : lowRow * 13 + highRow;
+    }
+
+    /**
+     * Returns the name of a class, such as {@code AA}, {@code AKs} or {@code AKo}.
+     */
+    public static String className(int handClass) {
+        checkClass(handClass);
+        int row = handClass / 13;
+        int column = handClass % 13;
+        Card.Rank[] ranks = Card.Rank.values();
+        String high = ranks[12 - Math.min(row, column)].getSymbol();
+        String low = ranks[12 - Math.max(row, column)].getSymbol();
+        if (row == column) {
+            return high + low;
+        }
+        return high + low + (row < column ? "s" : "o");
+    }
+
+    /**
+     * Parses a class name such as {@code AA}, {@code AKs} or {@code T9o}.
+     *
+     * @throws IllegalArgumentException if the name is not a hand class
+     */
+    public static int classOf(String name) {
+        for (int handClass = 0; handClass < CLASSES; handClass++) {
+            if (className(handClass).equals(name)) {
+                return handClass;
+            }
+        }
+        throw new IllegalArgumentException("Unknown hand class: " + name);
+    }
+
+    /**
+     * Returns the card masks of the combos in a class: 6 for a pair, 4 for a
+     * suited and 12 for an offsuit hand.
+     */
+    public static long[] combos(int handClass) {
+        checkClass(handClass);
+        return CLASS_COMBOS[handClass].clone();
+    }
+
+    /**
+     * Returns the key shared by all matchups that differ only by a renaming of
+     * suits: the smallest packing of the four card indices over all 24 suit
+     * permutations.
+     */
+    static int matchupKey(long heroHole, long villainHole) {
+        int best = Integer.MAX_VALUE;
+        for (int[] permutation : SUIT_PERMUTATIONS) {
+            long hero = permute(heroHole, permutation);
+            long villain = permute(villainHole, permutation);
+            int key = (63 - Long.numberOfLeadingZeros(hero)) << 18 | Long.numberOfTrailingZeros(hero) << 12
+                    | (63 - Long.numberOfLeadingZeros(villain)) << 6 | Long.numberOfTrailingZeros(villain);
+            best = Math.min(best, key);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the hero's and the villain's hole cards encoded in a matchup key.
+     */
+    static long[] matchupOf(int key) {
+        return new long[] { 1L << (key >>> 18) | 1L << ((key >>> 12) & 0x3F),
+                1L << ((key >>> 6) & 0x3F) | 1L << (key & 0x3F) };
+    }
+
+    static PreflopEquityTable read(InputStream source) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(new GZIPInputStream(source, 1 << 16).readAllBytes());
+        if (in.getInt() != MAGIC || in.getInt() != BOARDS) {
+            throw new IOException("Unexpected preflop equity format");
+        }
+        int[] keys = new int[in.getInt()];
+        in.asIntBuffer().get(keys);
+        in.position(in.position() + keys.length * 4);
+        int[] doubledWins = new int[keys.length];
+        in.asIntBuffer().get(doubledWins);
+        in.position(in.position() + doubledWins.length * 4);
+        char[] classEquity = new char[CLASSES * CLASSES];
+        in.asCharBuffer().get(classEquity);
+        return new PreflopEquityTable(keys, doubledWins, classEquity);
+    }
+
+    private static PreflopEquityTable loadResource() {
+        try (InputStream resource = PreflopEquityTable.class.getResourceAsStream(RESOURCE)) {
+            if (resource == null) {
+                throw new IllegalStateException("Missing resource " + RESOURCE);
+            }
+            return read(resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + RESOURCE, e);
+        }
+    }
+
+    // Won boards plus half the tied boards, doubled, of the hero against the villain
+    private int doubledWins(long heroHole, long villainHole) {
+        int key = matchupKey(heroHole, villainHole);
+        int reversed = matchupKey(villainHole, heroHole);
+        // Only the orientation with the smaller key is stored; heads-up
+        // equities add up to one
+        if (key <= reversed) {
+            return doubledWins[Arrays.binarySearch(keys, key)];
+        }
+        return 2 * BOARDS - doubledWins[Arrays.binarySearch(keys, reversed)];
+    }
+
+    private static long permute(long cards, int[] permutation) {
+        long permuted = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            permuted |= ((cards >>> (13 * suit)) & 0x1FFF) << (13 * permutation[suit]);
+        }
+        return permuted;
+    }
+
+    private static void checkHand(long hole) {
+        if (Long.bitCount(hole) != 2 || (hole & ~CardSet.FULL_DECK) != 0) {
+            throw new IllegalArgumentException("Preflop equity needs exactly 2 hole cards, got " + Long.bitCount(hole));
+        }
+    }
+
+    private static void checkClass(int handClass) {
+        if (handClass < 0 || handClass >= CLASSES) {
+            throw new IllegalArgumentException("Hand class must be between 0 and 168, got " + handClass);
+        }
+    }
+
+    private static int[][] suitPermutations() {
+        int[][] permutations = new int[24][];
+        int n = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) {
+                        permutations[n++] = new int[] { a, b, c, d };
+                    }
+                }
+            }
+        }
+        return permutations;
+    }
+
+    private static long[][] classCombos() {
+        long[][] combos = new long[CLASSES][];
+        int[] counts = new int[CLASSES];
+        for (int i = 0; i < CLASSES; i++) {
+            combos[i] = new long[i / 13 == i % 13 ? 6 : i / 13 < i % 13 ? 4 : 12];
+        }
+        for (int first = 0; first < 52; first++) {
+            for (int second = first + 1; second < 52; second++) {
+                long hole = 1L << first | 1L << second;
+                int handClass = handClass(hole);
+                combos[handClass][counts[handClass]++] = hole;
+            }
+        }
+        return combos;
+    }
+}
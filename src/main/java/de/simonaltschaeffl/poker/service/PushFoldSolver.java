@@ -0,0 +1,234 @@
+package de.simonaltschaeffl.poker.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Solves the heads-up push/fold game for short stacks and stores the
+ * equilibrium in a {@link PushFoldTable}.
+ * <p>
+ * In the game the small blind either moves all-in or folds, and the big blind
+ * either calls or folds; results are in chips, without antes or ICM. Hands are
+ * grouped into the 169 {@linkplain PreflopEquityTable hand classes}, weighted
+ * by the number of combo pairs that do not share a card and valued with the
+ * precomputed class-versus-class equities. Each stack depth is solved by
+ * fictitious play: both players repeatedly play a best response to the
+ * other's average strategy so far, and the averages converge to the
+ * equilibrium. A best response only depends on one dot product per hand
+ * class with the opponent's strategy, and the average of these moves with
+ * the averages, so each iteration updates them for the few hands whose best
+ * response changed instead of summing 169x169 terms. The stack depths are
+ * independent and are split across a {@link ForkJoinPool}; every task writes
+ * only the words of its own depths.
+ * <p>
+ * Hands that the average strategy plays at least half of the time are stored
+ * as played, which rounds the few mixed hands of an equilibrium to a pure
+ * decision.
+ */
+public class PushFoldSolver {
+
+    /** Largest effective stack of {@link #solve()}, in big blinds. */
+    public static final int DEFAULT_MAX_STACK = 25;
+    /** Fictitious play iterations per stack depth of {@link #solve()}. */
+    public static final int DEFAULT_ITERATIONS = 10_000;
+
+    private static final int CLASSES = PreflopEquityTable.CLASSES;
+
+    private final PreflopEquityTable equities;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a solver with the shipped preflop equities on the common pool.
+     */
+    public PushFoldSolver() {
+        this(PreflopEquityTable.getDefault(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param equities the heads-up preflop equities
+     * @param pool     the pool the stack depths are solved on
+     */
+    public PushFoldSolver(PreflopEquityTable equities, ForkJoinPool pool) {
+        this.equities = equities;
+        this.pool = pool;
+    }
+
+    /**
+     * Solves stacks of 1 to {@value #DEFAULT_MAX_STACK} big blinds with
+     * {@value #DEFAULT_ITERATIONS} iterations each.
+     */
+    public PushFoldTable solve() {
+        return solve(DEFAULT_MAX_STACK, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Solves every whole-big-blind stack from 1 to {@code maxStack}.
+     *
+     * @param maxStack   the largest effective stack, in big blinds
+     * @param iterations the fictitious play iterations per stack
+     * @throws IllegalArgumentException if either is less than 1
+     */
+    public PushFoldTable solve(int maxStack, int iterations) {
+        if (maxStack < 1) {
+            throw new IllegalArgumentException("Max stack must be at least 1 big blind, got " + maxStack);
+        }
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Need at least 1 iteration, got " + iterations);
+        }
+        // For hero class i against villain class j: the non-conflicting combo
+        // pairs, and the same weighted by the hero's net equity 2e - 1
+        double[] pairs = new double[CLASSES * CLASSES];
+        double[] advantage = new double[CLASSES * CLASSES];
+        for (int i = 0; i < CLASSES; i++) {
+            long[] heroCombos = PreflopEquityTable.combos(i);
+            for (int j = 0; j < CLASSES; j++) {
+                int count = 0;
+                for (long hero : heroCombos) {
+                    for (long villain : PreflopEquityTable.combos(j)) {
+                        if ((hero & villain) == 0) {
+                            count++;
+                        }
+                    }
+                }
+                pairs[i * CLASSES + j] = count;
+                advantage[i * CLASSES + j] = count * (2 * equities.classEquity(i, j) - 1);
+            }
+        }
+
+        long[] push = new long[maxStack * PushFoldTable.WORDS];
+        long[] call = new long[maxStack * PushFoldTable.WORDS];
+        pool.invoke(new Solve(pairs, advantage, iterations, push, call, 1, maxStack + 1));
+        return new PushFoldTable(maxStack, push, call);
+    }
+
+    // Solves the stacks in [from, to) big blinds
+    private static final class Solve extends RecursiveAction {
+
+        private final double[] pairs;
+        private final double[] advantage;
+        private final int iterations;
+        private final long[] push;
+        private final long[] call;
+        private final int from;
+        private final int to;
+
+        Solve(double[] pairs, double[] advantage, int iterations, long[] push, long[] call, int from, int to) {
+            this.pairs = pairs;
+            this.advantage = advantage;
+            this.iterations = iterations;
+            this.push = push;
+            this.call = call;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                Solve left = new Solve(pairs, advantage, iterations, push, call, from, middle);
+                left.fork();
+                new Solve(pairs, advantage, iterations, push, call, middle, to).compute();
+                left.join();
+                return;
+            }
+            solveStack(from);
+        }
+
+        private void solveStack(int stack) {
+            // Each player's best response and average strategy, and the dot
+            // products of every hand class of the other player with them
+            Player pusher = new Player();
+            Player caller = new Player();
+            double[] weight = new double[CLASSES];
+            for (int i = 0; i < CLASSES; i++) {
+                for (int j = 0; j < CLASSES; j++) {
+                    weight[i] += pairs[i * CLASSES + j];
+                }
+            }
+            // Start from pushing everything and the caller's response to it
+            for (int i = 0; i < CLASSES; i++) {
+                pusher.flip(i, pairs, advantage);
+            }
+            pusher.resetAverage();
+            respond(caller, pusher, stack, weight, false);
+            caller.resetAverage();
+
+            for (int t = 1; t <= iterations; t++) {
+                double step = 1.0 / (t + 1);
+                respond(pusher, caller, stack, weight, true);
+                respond(caller, pusher, stack, weight, false);
+                pusher.average(step);
+                caller.average(step);
+            }
+
+            int offset = (stack - 1) * PushFoldTable.WORDS;
+            for (int i = 0; i < CLASSES; i++) {
+                if (pusher.strategy[i] >= 0.5) {
+                    push[offset + i / 64] |= 1L << i;
+                }
+                if (caller.strategy[i] >= 0.5) {
+                    call[offset + i / 64] |= 1L << i;
+                }
+            }
+        }
+
+        // Plays the best response of one player to the other's average
+        // strategy, per combo pair against the one in the other's range:
+        // pushing wins 1 when the caller folds and S(2e - 1) when called,
+        // against -1/2 for folding; calling wins S(2e - 1) against -1 for
+        // folding
+        private void respond(Player player, Player opponent, int stack, double[] weight, boolean pushing) {
+            for (int i = 0; i < CLASSES; i++) {
+                double gain = pushing
+                        ? 1.5 * weight[i] + stack * opponent.averageAdvantage[i] - opponent.averagePairs[i]
+                        : stack * opponent.averageAdvantage[i] + opponent.averagePairs[i];
+                if (gain > 0 != player.response[i]) {
+                    player.flip(i, pairs, advantage);
+                }
+            }
+        }
+    }
+
+    // Strategies of one player and their dot products with the other
+    // player's hand classes
+    private static final class Player {
+        final boolean[] response = new boolean[CLASSES];
+        final double[] strategy = new double[CLASSES];
+        // Per opponent hand class, summed over this player's best response
+        final double[] responsePairs = new double[CLASSES];
+        final double[] responseAdvantage = new double[CLASSES];
+        // The same over the average strategy
+        final double[] averagePairs = new double[CLASSES];
+        final double[] averageAdvantage = new double[CLASSES];
+
+        // Toggles hand class i in the best response. The opponent's hand j
+        // sees this player's hand i from its own row.
+        void flip(int i, double[] pairs, double[] advantage) {
+            response[i] = !response[i];
+            double sign = response[i] ? 1 : -1;
+            for (int j = 0; j < CLASSES; j++) {
+                responsePairs[j] += sign * pairs[j * CLASSES + i];
+                responseAdvantage[j] += sign * advantage[j * CLASSES + i];
+            }
+        }
+
+        // Makes the average strategy the current best response
+        void resetAverage() {
+            for (int i = 0; i < CLASSES; i++) {
+                strategy[i] = response[i] ? 1 : 0;
+                averagePairs[i] = responsePairs[i];
+                averageAdvantage[i] = responseAdvantage[i];
+            }
+        }
+
+        // Moves the average strategy a step towards the best response
+        void average(double step) {
+            for (int i = 0; i < CLASSES; i++) {
+                strategy[i] += step * ((response[i] ? 1 : 0) - strategy[i]);
+                averagePairs[i] += step * (responsePairs[i] - averagePairs[i]);
+                averageAdvantage[i] += step * (responseAdvantage[i] - averageAdvantage[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+
+import java.util.List;
+
+/**
+ * Heads-up push/fold decisions by effective stack and hand class, as computed
+ * by {@link PushFoldSolver}.
+ * <p>
+ * The small blind either moves all-in or folds, and the big blind either
+ * calls the all-in or folds. For every whole number of big blinds from 1 to
+ * {@link #getMaxStack()} the table keeps one bit per
+ * {@linkplain PreflopEquityTable hand class} for each of the two decisions,
+ * three {@code long}s each, so the default 25-big-blind table takes 1,200
+ * bytes. Instances are immutable.
+ */
+public final class PushFoldTable {
+
+    // Longs per stack depth and decision, one bit per hand class
+    static final int WORDS = (PreflopEquityTable.CLASSES + 63) / 64;
+
+    private final int maxStack;
+    private final long[] push;
+    private final long[] call;
+
+    PushFoldTable(int maxStack, long[] push, long[] call) {
+        this.maxStack = maxStack;
+        this.push = push;
+        this.call = call;
+    }
+
+    /**
+     * @return the largest effective stack in the table, in big blinds
+     */
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    /**
+     * Returns whether the small blind moves all-in with a hand class.
+     *
+     * @param stackBigBlinds the effective stack in big blinds, rounded to the
+     *                       nearest whole big blind and clamped to the stacks
+     *                       in the table
+     */
+    public boolean shouldPush(double stackBigBlinds, int handClass) {
+        return isSet(push, stackBigBlinds, handClass);
+    }
+
+    /**
+     * Card-mask variant of {@link #shouldPush(double, int)}.
+     */
+    public boolean shouldPush(double stackBigBlinds, long holeCards) {
+        return shouldPush(stackBigBlinds, PreflopEquityTable.handClass(holeCards));
+    }
+
+    /**
+     * List-based variant of {@link #shouldPush(double, int)}.
+     */
+    public boolean shouldPush(double stackBigBlinds, List<Card> holeCards) {
+        return shouldPush(stackBigBlinds, CardSet.of(holeCards));
+    }
+
+    /**
+     * Returns whether the big blind calls the small blind's all-in with a hand
+     * class.
+     *
+     * @param stackBigBlinds the effective stack in big blinds, rounded to the
+     *                       nearest whole big blind and clamped to the stacks
+     *                       in the table
+     */
+    public boolean shouldCall(double stackBigBlinds, int handClass) {
+        return isSet(call, stackBigBlinds, handClass);
+    }
+
+    /**
+     * Card-mask variant of {@link #shouldCall(double, int)}.
+     */
+    public boolean shouldCall(double stackBigBlinds, long holeCards) {
+        return shouldCall(stackBigBlinds, PreflopEquityTable.handClass(holeCards));
+    }
+
+    /**
+     * List-based variant of {@link #shouldCall(double, int)}.
+     */
+    public boolean shouldCall(double stackBigBlinds, List<Card> holeCards) {
+        return shouldCall(stackBigBlinds, CardSet.of(holeCards));
+    }
+
+    /**
+     * @return the share of the 1,326 starting hands the small blind moves
+     *         all-in with at the given stack
+     */
+    public double pushFrequency(double stackBigBlinds) {
+        return frequency(push, stackBigBlinds);
+    }
+
+    /**
+     * @return the share of the 1,326 starting hands the big blind calls an
+     *         all-in with at the given stack
+     */
+    public double callFrequency(double stackBigBlinds) {
+        return frequency(call, stackBigBlinds);
+    }
+
+    private boolean isSet(long[] bits, double stackBigBlinds, int handClass) {
+        if (handClass < 0 || handClass >= PreflopEquityTable.CLASSES) {
+            throw new IllegalArgumentException("Hand class must be between 0 and 168, got " + handClass);
+        }
+        int offset = offset(stackBigBlinds);
+        return (bits[offset + handClass / 64] & 1L << handClass) != 0;
+    }
+
+    private double frequency(long[] bits, double stackBigBlinds) {
+        int offset = offset(stackBigBlinds);
+        int combos = 0;
+        for (int handClass = 0; handClass < PreflopEquityTable.CLASSES; handClass++) {
+            if ((bits[offset + handClass / 64] & 1L << handClass) != 0) {
+                int row = handClass / 13;
+                int column = handClass % 13;
+                combos += row == column ? 6 : row < column ? 4 : 12;
+            }
+        }
+        return combos / 1326.0;
+    }
+
+    private int offset(double stackBigBlinds) {
+        if (Double.isNaN(stackBigBlinds)) {
+            throw new IllegalArgumentException("Stack must be a number");
+        }
+        long stack = Math.max(1, Math.min(maxStack, Math.round(stackBigBlinds)));
+        return (int) (stack - 1) * WORDS;
+    }
+}
@@ -0,0 +1,353 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRange;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact heads-up equity of a {@link HandRange} against another range or a
+ * single hand, on a board of 0 or 3 to 5 cards.
+ * <p>
+ * Every run-out of the board is enumerated, 1,176 on the flop, and on each
+ * complete board every live combo of either range is scored once with
+ * {@link HandEvaluator#evaluateAll(long, long[])}. Both sides are then sorted
+ * by strength and swept together: the villain weight below and level with
+ * each hero combo is kept as a running total plus one running total per card,
+ * so the combos that share a card with the hero are subtracted in constant
+ * time instead of checking all pairs. The run-outs are split across a
+ * {@link ForkJoinPool}, each task summing its own boards.
+ * <p>
+ * Preflop, the 1.7 million run-outs are not enumerated; the combo pairs are
+ * looked up in {@link PreflopEquityTable} instead, which assumes standard
+ * Hold'em hand rankings.
+ * <p>
+ * Results are kept in a bounded cache keyed by the two ranges and the board,
+ * dropping the least recently used entry when full.
+ */
+public class RangeEquityCalculator {
+
+    // Run-outs per task
+    private static final int GRAIN = 16;
+
+    private final HandEvaluator evaluator;
+    private final ForkJoinPool pool;
+    private final int cacheSize;
+    private final Map<Key, Double> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a calculator with the Cactus Kev evaluator on the common pool,
+     * caching up to 1,024 results.
+     */
+    public RangeEquityCalculator() {
+        this(new CactusKevEvaluator(), ForkJoinPool.commonPool(), 1024);
+    }
+
+    /**
+     * @param evaluator the evaluator used for postflop boards; it must be safe to
+     *                  call from several threads
+     * @param pool      the pool the enumeration runs on
+     * @param cacheSize the maximum number of cached results, 0 to disable caching
+     */
+    public RangeEquityCalculator(HandEvaluator evaluator, ForkJoinPool pool, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        this.evaluator = evaluator;
+        this.pool = pool;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                return size() > RangeEquityCalculator.this.cacheSize;
+            }
+        };
+    }
+
+    private record Key(HandRange hero, HandRange villain, long communityCards) {
+    }
+
+    /**
+     * Returns the hero range's equity against the villain range: the
+     * weighted average over all pairs of combos that share no card with each
+     * other or the board, ties counting half.
+     *
+     * @param communityCards the board, 0 or 3 to 5 cards
+     * @throws IllegalArgumentException if the board has 1, 2 or more than 5
+     *                                  cards, or no pair of combos is possible
+     */
+    public double equity(HandRange hero, HandRange villain, long communityCards) {
+        int boardSize = Long.bitCount(communityCards);
+        if (boardSize > 5 || boardSize == 1 || boardSize == 2) {
+            throw new IllegalArgumentException("Board must hold 0 or 3 to 5 cards, got " + boardSize);
+        }
+        Key key = new Key(hero, villain, communityCards);
+        if (cacheSize > 0) {
+            Double cached;
+            synchronized (cache) {
+                cached = cache.get(key);
+            }
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        double[] sums = boardSize == 0 ? preflop(hero, villain) : postflop(hero, villain, communityCards);
+        if (sums[1] == 0) {
+            throw new IllegalArgumentException("The ranges have no compatible combos on this board");
+        }
+        double equity = sums[0] / sums[1];
+        if (cacheSize > 0) {
+            synchronized (cache) {
+                cache.put(key, equity);
+            }
+        }
+        return equity;
+    }
+
+    /**
+     * Returns the equity of a single hand against a range.
+     *
+     * @param heroHole the hero's two hole cards as a card mask
+     */
+    public double equity(long heroHole, HandRange villain, long communityCards) {
+        return equity(HandRange.of(heroHole), villain, communityCards);
+    }
+
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    // Weighted wins plus half ties, and the total weight, from the preflop table
+    private double[] preflop(HandRange hero, HandRange villain) {
+        return pool.invoke(new PreflopSum(PreflopEquityTable.getDefault(), hero, villain, 0, HandRange.COMBOS));
+    }
+
+    private double[] postflop(HandRange hero, HandRange villain, long communityCards) {
+        // Combos of either range that the board does not block
+        int[] combos = new int[HandRange.COMBOS];
+        int count = 0;
+        for (int c = 0; c < HandRange.COMBOS; c++) {
+            if ((hero.weight(c) > 0 || villain.weight(c) > 0) && (HandRange.comboCards(c) & communityCards) == 0) {
+                combos[count++] = c;
+            }
+        }
+        combos = Arrays.copyOf(combos, count);
+
+        int missing = 5 - Long.bitCount(communityCards);
+        int liveCards = 52 - Long.bitCount(communityCards);
+        long[] runOuts = new long[missing == 0 ? 1 : missing == 1 ? liveCards : liveCards * (liveCards - 1) / 2];
+        int n = 0;
+        long live = CardSet.FULL_DECK & ~communityCards;
+        for (long first = live; first != 0; first &= first - 1) {
+            long turn = Long.lowestOneBit(first);
+            if (missing == 0) {
+                break;
+            } else if (missing == 1) {
+                runOuts[n++] = turn;
+            } else {
+                for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                    runOuts[n++] = turn | Long.lowestOneBit(second);
+                }
+            }
+        }
+        return pool.invoke(new Sweep(hero, villain, communityCards, combos, runOuts, 0, runOuts.length));
+    }
+
+    private static final class PreflopSum extends RecursiveTask<double[]> {
+
+        private final PreflopEquityTable table;
+        private final HandRange hero;
+        private final HandRange villain;
+        // Range of hero combos
+        private final int from;
+        private final int to;
+
+        PreflopSum(PreflopEquityTable table, HandRange hero, HandRange villain, int from, int to) {
+            this.table = table;
+            this.hero = hero;
+            this.villain = villain;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > 64) {
+                int middle = (from + to) >>> 1;
+                PreflopSum left = new PreflopSum(table, hero, villain, from, middle);
+                left.fork();
+                double[] right = new PreflopSum(table, hero, villain, middle, to).compute();
+                double[] sums = left.join();
+                return new double[] { sums[0] + right[0], sums[1] + right[1] };
+            }
+            double won = 0;
+            double total = 0;
+            for (int h = from; h < to; h++) {
+                float heroWeight = hero.weight(h);
+                if (heroWeight == 0)
+                    continue;
+                long heroHole = HandRange.comboCards(h);
+                for (int v = 0; v < HandRange.COMBOS; v++) {
+                    float villainWeight = villain.weight(v);
+                    long villainHole = HandRange.comboCards(v);
+                    if (villainWeight == 0 || (villainHole & heroHole) != 0)
+                        continue;
+                    double weight = (double) heroWeight * villainWeight;
+                    won += weight * table.equity(heroHole, villainHole);
+                    total += weight;
+                }
+            }
+            return new double[] { won, total };
+        }
+    }
+
+    private final class Sweep extends RecursiveTask<double[]> {
+
+        private final HandRange hero;
+        private final HandRange villain;
+        private final long communityCards;
+        private final int[] combos;
+        private final long[] runOuts;
+        private final int from;
+        private final int to;
+
+        Sweep(HandRange hero, HandRange villain, long communityCards, int[] combos, long[] runOuts, int from,
+                int to) {
+            this.hero = hero;
+            this.villain = villain;
+            this.communityCards = communityCards;
+            this.combos = combos;
+            this.runOuts = runOuts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                Sweep left = new Sweep(hero, villain, communityCards, combos, runOuts, from, middle);
+                left.fork();
+                double[] right = new Sweep(hero, villain, communityCards, combos, runOuts, middle, to).compute();
+                double[] sums = left.join();
+                return new double[] { sums[0] + right[0], sums[1] + right[1] };
+            }
+
+            double[] sums = new double[2];
+            long[] holes = new long[combos.length];
+            // Strength in the high bits, position in combos in the low 11 bits
+            long[] heroOrder = new long[combos.length];
+            long[] villainOrder = new long[combos.length];
+            int[] live = new int[combos.length];
+            double[] below = new double[52];
+            double[] level = new double[52];
+            double[] all = new double[52];
+            for (int r = from; r < to; r++) {
+                long board = communityCards | runOuts[r];
+                int count = 0;
+                for (int combo : combos) {
+                    if ((HandRange.comboCards(combo) & board) == 0) {
+                        live[count] = combo;
+                        holes[count++] = HandRange.comboCards(combo);
+                    }
+                }
+                int[] strengths = evaluator.evaluateAll(board, count == holes.length ? holes
+                        : Arrays.copyOf(holes, count));
+                int heroCount = 0;
+                int villainCount = 0;
+                for (int i = 0; i < count; i++) {
+                    long entry = (long) strengths[i] << 11 | i;
+                    if (hero.weight(live[i]) > 0)
+                        heroOrder[heroCount++] = entry;
+                    if (villain.weight(live[i]) > 0)
+                        villainOrder[villainCount++] = entry;
+                }
+                Arrays.sort(heroOrder, 0, heroCount);
+                Arrays.sort(villainOrder, 0, villainCount);
+                sweep(heroOrder, heroCount, villainOrder, villainCount, live, holes, below, level, all, sums);
+            }
+            return sums;
+        }
+
+        private void sweep(long[] heroOrder, int heroCount, long[] villainOrder, int villainCount, int[] live,
+                long[] holes, double[] below, double[] level, double[] all, double[] sums) {
+            Arrays.fill(below, 0);
+            Arrays.fill(level, 0);
+            Arrays.fill(all, 0);
+            double belowTotal = 0;
+            double levelTotal = 0;
+            double allTotal = 0;
+            for (int j = 0; j < villainCount; j++) {
+                int i = (int) villainOrder[j] & 0x7FF;
+                double weight = villain.weight(live[i]);
+                allTotal += weight;
+                addPerCard(all, holes[i], weight);
+            }
+
+            int next = 0; // first villain entry not below the current hero strength
+            int levelEnd = 0; // first villain entry above the current level
+            long levelStrength = -1;
+            for (int k = 0; k < heroCount; k++) {
+                long strength = heroOrder[k] >>> 11;
+                int i = (int) heroOrder[k] & 0x7FF;
+                if (strength != levelStrength) {
+                    // Move the previous level below and collect the new one
+                    for (; next < levelEnd; next++) {
+                        int v = (int) villainOrder[next] & 0x7FF;
+                        double weight = villain.weight(live[v]);
+                        belowTotal += weight;
+                        addPerCard(below, holes[v], weight);
+                        addPerCard(level, holes[v], -weight);
+                    }
+                    levelTotal = 0;
+                    for (; next < villainCount && villainOrder[next] >>> 11 < strength; next++) {
+                        int v = (int) villainOrder[next] & 0x7FF;
+                        double weight = villain.weight(live[v]);
+                        belowTotal += weight;
+                        addPerCard(below, holes[v], weight);
+                    }
+                    for (levelEnd = next; levelEnd < villainCount && villainOrder[levelEnd] >>> 11 == strength;
+                            levelEnd++) {
+                        int v = (int) villainOrder[levelEnd] & 0x7FF;
+                        double weight = villain.weight(live[v]);
+                        levelTotal += weight;
+                        addPerCard(level, holes[v], weight);
+                    }
+                    levelStrength = strength;
+                }
+
+                long hole = holes[i];
+                int a = Long.numberOfTrailingZeros(hole);
+                int b = 63 - Long.numberOfLeadingZeros(hole);
+                // The villain's copy of the hero combo sits at the same level and
+                // is subtracted once per card, so add it back once
+                double same = villain.weight(live[i]);
+                double won = belowTotal - below[a] - below[b];
+                double tied = levelTotal - level[a] - level[b] + same;
+                double total = allTotal - all[a] - all[b] + same;
+                double heroWeight = hero.weight(live[i]);
+                sums[0] += heroWeight * (won + tied / 2);
+                sums[1] += heroWeight * total;
+            }
+        }
+
+        private static void addPerCard(double[] perCard, long hole, double weight) {
+            perCard[Long.numberOfTrailingZeros(hole)] += weight;
+            perCard[63 - Long.numberOfLeadingZeros(hole)] += weight;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table-driven evaluator for Short Deck (6+) Hold'em, played with the 36 cards
+ * from six to ace of a {@link de.simonaltschaeffl.poker.model.ShortDeck}.
+ * <p>
+ * Short Deck changes two rules: a flush beats a full house, and A-6-7-8-9 is
+ * the lowest straight (and straight flush), with the ace playing below the
+ * six. All other categories keep their Hold'em order.
+ * <p>
+ * Each suit of the short deck is a 9-bit rank mask. A 512-entry table gives
+ * the best flush or straight flush of any suit holding five or more cards;
+ * seven cards cannot hold a flush together with quads or a full house, so
+ * that result is final. All other hands are looked up by their rank counts,
+ * which a perfect hash maps to a dense index. The ranks form three groups of
+ * three; a per-suit table turns each suit mask into the base-5 count digits
+ * of every group, so adding the four suits' values yields all rank counts at
+ * once, and one lookup per group then gives its share of the hash. The
+ * tables for five, six and seven cards hold 10,230 entries together, about
+ * 56 KB with the flush and hash tables, small enough to stay cache-resident.
+ * <p>
+ * Strengths have the layout of {@link HandResult#strength()} with the
+ * category values of flush and full house swapped, so they order short-deck
+ * hands correctly but should not be decoded as a {@link HandRank}; use
+ * {@link HandResult#rank()} for the category.
+ */
+public class ShortDeckHandEvaluator implements HandEvaluator {
+
+    private static final int RANKS = 9;
+    private static final int MAX_CARDS = 7;
+    // Twos to fives, which a short deck does not have
+    private static final long LOW_CARDS = 0xFL | 0xFL << 13 | 0xFL << 26 | 0xFL << 39;
+
+    // Category by the value in the strength's top bits
+    private static final HandRank[] CATEGORIES = new HandRank[HandRank.values().length + 1];
+
+    // WAYS[r][k]: rank-count vectors over ranks r..8, each count 0..4, summing to k
+    private static final int[][] WAYS = new int[RANKS + 1][MAX_CARDS + 1];
+    // Per suit mask: the base-5 digits (rank 3g + i in digit i) of group g in bits 8g..8g+7
+    private static final int[] SUIT_KEY = new int[1 << RANKS];
+    // Number of cards in a group by its base-5 digits
+    private static final int[] GROUP_CARDS = new int[125];
+    // Hash contribution of group g with base-5 digits f and k cards left to
+    // place, at (g * 125 + f) * 8 + k
+    private static final int[] GROUP_OFFSET = new int[3 * 125 * (MAX_CARDS + 1)];
+    // Strength by suit mask, for masks of five or more cards
+    private static final int[] FLUSH = new int[1 << RANKS];
+    // Strength by rank-count hash, for five, six and seven cards
+    private static final int[][] NO_FLUSH = new int[MAX_CARDS - 4][];
+
+    static {
+        for (HandRank rank : HandRank.values()) {
+            CATEGORIES[categoryValue(rank)] = rank;
+        }
+
+        WAYS[RANKS][0] = 1;
+        for (int r = RANKS - 1; r >= 0; r--) {
+            for (int k = 0; k <= MAX_CARDS; k++) {
+                for (int c = 0; c <= Math.min(4, k); c++) {
+                    WAYS[r][k] += WAYS[r + 1][k - c];
+                }
+            }
+        }
+        for (int mask = 0; mask < SUIT_KEY.length; mask++) {
+            for (int r = 0; r < RANKS; r++) {
+                if ((mask & (1 << r)) != 0)
+                    SUIT_KEY[mask] += new int[] { 1, 5, 25 }[r % 3] << (8 * (r / 3));
+            }
+        }
+        for (int f = 0; f < 125; f++) {
+            GROUP_CARDS[f] = f % 5 + f / 5 % 5 + f / 25;
+            for (int g = 0; g < 3; g++) {
+                for (int k = 0; k <= MAX_CARDS; k++) {
+                    int offset = 0;
+                    int left = k;
+                    for (int i = 0, digits = f; i < 3 && left >= 0; i++, digits /= 5) {
+                        offset += offset(3 * g + i, digits % 5, left);
+                        left -= digits % 5;
+                    }
+                    GROUP_OFFSET[(g * 125 + f) * 8 + k] = left >= 0 ? offset : 0;
+                }
+            }
+        }
+
+        for (int mask = 0; mask < FLUSH.length; mask++) {
+            if (Integer.bitCount(mask) >= 5) {
+                FLUSH[mask] = flushStrength(mask);
+            }
+        }
+        for (int n = 5; n <= MAX_CARDS; n++) {
+            NO_FLUSH[n - 5] = new int[WAYS[0][n]];
+            fillNoFlush(new int[RANKS], 0, n, n);
+        }
+    }
+
+    @Override
+    public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+        return evaluate(CardSet.of(holeCards), CardSet.of(communityCards));
+    }
+
+    @Override
+    public HandResult evaluate(long holeCards, long communityCards) {
+        long cards = holeCards | communityCards;
+        int strength = strength(holeCards, communityCards);
+        HandRank rank = CATEGORIES[strength >>> 20];
+        int flushSuit = -1;
+        if (rank == HandRank.FLUSH || rank == HandRank.STRAIGHT_FLUSH || rank == HandRank.ROYAL_FLUSH) {
+            for (int s = 0; s < 4; s++) {
+                if (Long.bitCount((cards >>> (13 * s)) & 0x1FFF) >= 5)
+                    flushSuit = s;
+            }
+        }
+
+        // Pick the best five following the strength code; each 4-bit group names
+        // the rank of the next card, with 1 standing for a low ace
+        List<Card> bestFive = new ArrayList<>(5);
+        long remaining = cards;
+        for (int shift = 16; shift >= 0; shift -= 4) {
+            int value = (strength >>> shift) & 0xF;
+            int rankIndex = value == 1 ? 12 : value - 2;
+            for (int s = 3; s >= 0; s--) {
+                if (flushSuit >= 0 && s != flushSuit)
+                    continue;
+                long bit = 1L << (s * 13 + rankIndex);
+                if ((remaining & bit) != 0) {
+                    remaining &= ~bit;
+                    bestFive.add(CardSet.card(s * 13 + rankIndex));
+                    break;
+                }
+            }
+        }
+        return new HandResult(rank, bestFive, strength);
+    }
+
+    @Override
+    public int strength(long holeCards, long communityCards) {
+        long cards = holeCards | communityCards;
+        int cardCount = Long.bitCount(cards);
+        if (cardCount < 5 || cardCount > MAX_CARDS) {
+            throw new IllegalArgumentException("Need 5 to 7 cards to evaluate, got " + cardCount);
+        }
+        if ((cards & LOW_CARDS) != 0) {
+            throw new IllegalArgumentException("Short deck has no cards below six: " + CardSet.toString(cards));
+        }
+
+        int clubs = (int) (cards >>> 4) & 0x1FF;
+        int diamonds = (int) (cards >>> 17) & 0x1FF;
+        int hearts = (int) (cards >>> 30) & 0x1FF;
+        int spades = (int) (cards >>> 43) & 0x1FF;
+        if (Integer.bitCount(clubs) >= 5)
+            return FLUSH[clubs];
+        if (Integer.bitCount(diamonds) >= 5)
+            return FLUSH[diamonds];
+        if (Integer.bitCount(hearts) >= 5)
+            return FLUSH[hearts];
+        if (Integer.bitCount(spades) >= 5)
+            return FLUSH[spades];
+
+        // Counts never exceed 4, so the digits of the four suits add without carries
+        int key = SUIT_KEY[clubs] + SUIT_KEY[diamonds] + SUIT_KEY[hearts] + SUIT_KEY[spades];
+        int low = key & 0xFF;
+        int middle = (key >>> 8) & 0xFF;
+        int high = key >>> 16;
+        int afterLow = cardCount - GROUP_CARDS[low];
+        int hash = GROUP_OFFSET[low * 8 + cardCount] + GROUP_OFFSET[(125 + middle) * 8 + afterLow]
+                + GROUP_OFFSET[(250 + high) * 8 + afterLow - GROUP_CARDS[middle]];
+        return NO_FLUSH[cardCount - 5][hash];
+    }
+
+    // --- Table generation ---
+
+    // Enumerates all rank-count vectors with n cards and stores their strength
+    private static void fillNoFlush(int[] counts, int r, int remaining, int n) {
+        if (r == RANKS) {
+            if (remaining == 0) {
+                int hash = 0;
+                int left = n;
+                for (int i = 0; i < RANKS; i++) {
+                    hash += offset(i, counts[i], left);
+                    left -= counts[i];
+                }
+                NO_FLUSH[n - 5][hash] = noFlushStrength(counts);
+            }
+            return;
+        }
+        for (int c = 0; c <= Math.min(4, remaining); c++) {
+            counts[r] = c;
+            fillNoFlush(counts, r + 1, remaining - c, n);
+        }
+        counts[r] = 0;
+    }
+
+    // Hash contribution of rank r holding count cards with k cards left to
+    // place: the number of valid vectors with a smaller count at r
+    private static int offset(int r, int count, int k) {
+        int offset = 0;
+        for (int c = 0; c < count && c <= k; c++) {
+            offset += WAYS[r + 1][k - c];
+        }
+        return offset;
+    }
+
+    private static int flushStrength(int suitMask) {
+        int top = straightTop(suitMask);
+        if (top == RANKS - 1) {
+            return packStraight(HandRank.ROYAL_FLUSH, top);
+        }
+        if (top >= 0) {
+            return packStraight(HandRank.STRAIGHT_FLUSH, top);
+        }
+        int r0 = highest(suitMask);
+        int r1 = highest(suitMask &= ~(1 << r0));
+        int r2 = highest(suitMask &= ~(1 << r1));
+        int r3 = highest(suitMask &= ~(1 << r2));
+        int r4 = highest(suitMask & ~(1 << r3));
+        return pack(HandRank.FLUSH, r0, r1, r2, r3, r4);
+    }
+
+    private static int noFlushStrength(int[] counts) {
+        int any = 0;
+        int twice = 0;
+        int thrice = 0;
+        int quads = 0;
+        for (int r = 0; r < RANKS; r++) {
+            if (counts[r] >= 1)
+                any |= 1 << r;
+            if (counts[r] >= 2)
+                twice |= 1 << r;
+            if (counts[r] >= 3)
+                thrice |= 1 << r;
+            if (counts[r] == 4)
+                quads |= 1 << r;
+        }
+
+        if (quads != 0) {
+            int q = highest(quads);
+            return pack(HandRank.FOUR_OF_A_KIND, q, q, q, q, highest(any & ~(1 << q)));
+        }
+        int trips = thrice != 0 ? highest(thrice) : -1;
+        if (trips >= 0) {
+            int pairs = twice & ~(1 << trips);
+            if (pairs != 0) {
+                int p = highest(pairs);
+                return pack(HandRank.FULL_HOUSE, trips, trips, trips, p, p);
+            }
+        }
+        int straight = straightTop(any);
+        if (straight >= 0) {
+            return packStraight(HandRank.STRAIGHT, straight);
+        }
+        if (trips >= 0) {
+            int rest = any & ~(1 << trips);
+            int k1 = highest(rest);
+            return pack(HandRank.THREE_OF_A_KIND, trips, trips, trips, k1, highest(rest & ~(1 << k1)));
+        }
+        if (twice != 0) {
+            int p1 = highest(twice);
+            int otherPairs = twice & ~(1 << p1);
+            if (otherPairs != 0) {
+                int p2 = highest(otherPairs);
+                return pack(HandRank.TWO_PAIR, p1, p1, p2, p2, highest(any & ~(1 << p1) & ~(1 << p2)));
+            }
+            int rest = any & ~(1 << p1);
+            int k1 = highest(rest);
+            int k2 = highest(rest &= ~(1 << k1));
+            return pack(HandRank.ONE_PAIR, p1, p1, k1, k2, highest(rest & ~(1 << k2)));
+        }
+        int r0 = highest(any);
+        int r1 = highest(any &= ~(1 << r0));
+        int r2 = highest(any &= ~(1 << r1));
+        int r3 = highest(any &= ~(1 << r2));
+        return pack(HandRank.HIGH_CARD, r0, r1, r2, r3, highest(any & ~(1 << r3)));
+    }
+
+    // Rank index (0 = six) of the top card of the best straight, or -1. The ace
+    // is copied below the six so that A-6-7-8-9 (top = 3) is found.
+    private static int straightTop(int rankMask) {
+        int withLowAce = (rankMask << 1) | ((rankMask >>> (RANKS - 1)) & 1);
+        int runs = withLowAce & (withLowAce >>> 1) & (withLowAce >>> 2) & (withLowAce >>> 3) & (withLowAce >>> 4);
+        if (runs == 0)
+            return -1;
+        return highest(runs) + 3;
+    }
+
+    private static int highest(int mask) {
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static int packStraight(HandRank rank, int top) {
+        if (top == 3) {
+            // A-6-7-8-9: the ace plays low
+            return categoryValue(rank) << 20 | 9 << 16 | 8 << 12 | 7 << 8 | 6 << 4 | 1;
+        }
+        return pack(rank, top, top - 1, top - 2, top - 3, top - 4);
+    }
+
+    // Packs rank indices (0 = six) as card values (6..14)
+    private static int pack(HandRank rank, int r0, int r1, int r2, int r3, int r4) {
+        return categoryValue(rank) << 20 | (r0 + 6) << 16 | (r1 + 6) << 12 | (r2 + 6) << 8 | (r3 + 6) << 4
+                | (r4 + 6);
+    }
+
+    // Flush beats full house
+    private static int categoryValue(HandRank rank) {
+        return switch (rank) {
+            case FLUSH -> HandRank.FULL_HOUSE.getValue();
+            case FULL_HOUSE -> HandRank.FLUSH.getValue();
+            default -> rank.getValue();
+        };
+    }
+}
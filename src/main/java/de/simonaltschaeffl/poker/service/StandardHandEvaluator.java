@@ -1,239 +1,199 @@
 package de.simonaltschaeffl.poker.service;
 
 import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
 import de.simonaltschaeffl.poker.model.HandRank;
 import de.simonaltschaeffl.poker.model.HandResult;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Straightforward hand evaluator working on a histogram of the cards.
+ * <p>
+ * The cards are folded into four 13-bit suit masks. Rank multiplicities
+ * (quads, trips, pairs) follow from intersecting those masks, and straights
+ * are found with a shift-and-mask over the combined rank mask. The hand's
+ * {@link HandResult#strength()} is derived from these masks alone; the best
+ * five cards are then picked from the input following the strength code. No
+ * objects are allocated besides the returned result.
+ * <p>
+ * When several cards of a rank qualify, the one that appears first in the
+ * hole cards followed by the community cards is used.
+ */
 public class StandardHandEvaluator implements HandEvaluator {
 
-    public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
-        List<Card> allCards = new ArrayList<>();
-        allCards.addAll(holeCards);
-        allCards.addAll(communityCards);
+    private static final HandRank[] RANKS = HandRank.values();
 
-        if (allCards.size() < 5) {
+    public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+        int cardCount = holeCards.size() + communityCards.size();
+        if (cardCount < 5) {
             throw new IllegalArgumentException("Need at least 5 cards to evaluate");
         }
 
-        // Sort descending (Ace to 2) - Critical for logic
-        Collections.sort(allCards, Collections.reverseOrder());
-
-        // Check Flush
-        List<Card> flushCards = getFlushCards(allCards);
-
-        // Check Straight
-        List<Card> straightCards = getStraightCards(allCards);
-
-        // Check Straight Flush (including Royal)
-        if (flushCards != null) {
-            // Re-check straight only on flush cards
-            List<Card> straightFlushCards = getStraightCards(flushCards);
-            if (straightFlushCards != null) {
-                // Check Royal
-                if (straightFlushCards.get(0).rank() == Card.Rank.ACE
-                        && straightFlushCards.get(4).rank() == Card.Rank.TEN) {
-                    return new HandResult(HandRank.ROYAL_FLUSH, straightFlushCards);
+        long cards = CardSet.EMPTY;
+        for (int i = 0; i < holeCards.size(); i++)
+            cards |= CardSet.bit(holeCards.get(i));
+        for (int i = 0; i < communityCards.size(); i++)
+            cards |= CardSet.bit(communityCards.get(i));
+
+        int strength = strengthOf(cards);
+        HandRank rank = RANKS[(strength >>> 20) - 1];
+        int suit = isSuited(rank) ? flushSuit(cards) : -1;
+
+        // Pick the best five following the strength code; each 4-bit group names
+        // the rank of the next card, with 1 standing for a low ace
+        List<Card> bestFive = new ArrayList<>(5);
+        int used = 0;
+        for (int shift = 16; shift >= 0; shift -= 4) {
+            int value = (strength >>> shift) & 0xF;
+            int rankIndex = value == 1 ? 12 : value - 2;
+            for (int i = 0; i < cardCount; i++) {
+                Card c = i < holeCards.size() ? holeCards.get(i) : communityCards.get(i - holeCards.size());
+                if ((used & (1 << i)) == 0 && c.rank().ordinal() == rankIndex
+                        && (suit < 0 || c.suit().ordinal() == suit)) {
+                    used |= 1 << i;
+                    bestFive.add(c);
+                    break;
                 }
-                return new HandResult(HandRank.STRAIGHT_FLUSH, straightFlushCards);
             }
         }
+        return new HandResult(rank, bestFive, strength);
+    }
 
-        // Four of a Kind
-        var groups = groupByRank(allCards);
-        var quads = findGroup(groups, 4);
-        if (quads != null) {
-            List<Card> bestFive = new ArrayList<>(quads);
-            fillKickers(bestFive, allCards, 1);
-            return new HandResult(HandRank.FOUR_OF_A_KIND, bestFive);
+    @Override
+    public int strength(long holeCards, long communityCards) {
+        long cards = holeCards | communityCards;
+        if (Long.bitCount(cards) < 5) {
+            throw new IllegalArgumentException("Need at least 5 cards to evaluate");
         }
+        return strengthOf(cards);
+    }
 
-        // Full House
-        var trips = findGroup(groups, 3);
-        if (trips != null) {
-            // Find pair (or another trips turned pair)
-            // Remove used trips from consideration for pair
-            List<Card> remaining = new ArrayList<>(allCards);
-            remaining.removeAll(trips);
-            var remainingGroups = groupByRank(remaining);
-            var pair = findGroup(remainingGroups, 2); // Priority to pair (>=2 actually, could be another trips)
-
-            // If we have two 3-of-a-kinds, the lower one becomes the pair part of full
-            // house.
-            // The removeAll logic handles this implicitly due to descending sort order.
-
-            // Special case: 2 sets of trips.
-            if (pair == null) {
-                pair = findGroup(remainingGroups, 3); // Another trips treated as pair
-                if (pair != null) {
-                    pair = pair.subList(0, 2);
-                }
-            }
+    // --- Helpers ---
 
-            if (pair != null) {
-                List<Card> bestFive = new ArrayList<>(trips);
-                bestFive.addAll(pair);
-                return new HandResult(HandRank.FULL_HOUSE, bestFive);
+    private static int strengthOf(long cards) {
+        int clubs = (int) cards & 0x1FFF;
+        int diamonds = (int) (cards >>> 13) & 0x1FFF;
+        int hearts = (int) (cards >>> 26) & 0x1FFF;
+        int spades = (int) (cards >>> 39) & 0x1FFF;
+
+        // Straight Flush (including Royal), checked on the first suit with five cards
+        int suit = flushSuit(cards);
+        int flush = suit < 0 ? 0 : (int) (cards >>> (13 * suit)) & 0x1FFF;
+        if (flush != 0) {
+            int top = straightTop(flush);
+            if (top == 12) {
+                return packStraight(HandRank.ROYAL_FLUSH, top);
+            }
+            if (top >= 0) {
+                return packStraight(HandRank.STRAIGHT_FLUSH, top);
             }
         }
 
-        if (flushCards != null) {
-            return new HandResult(HandRank.FLUSH, flushCards.subList(0, 5));
-        }
+        // Ranks held at least once, twice, three and four times
+        int any = clubs | diamonds | hearts | spades;
+        int twice = (clubs & diamonds) | (clubs & hearts) | (clubs & spades) | (diamonds & hearts)
+                | (diamonds & spades) | (hearts & spades);
+        int thrice = (clubs & diamonds & hearts) | (clubs & diamonds & spades) | (clubs & hearts & spades)
+                | (diamonds & hearts & spades);
+        int quads = clubs & diamonds & hearts & spades;
 
-        if (straightCards != null) {
-            return new HandResult(HandRank.STRAIGHT, straightCards);
+        if (quads != 0) {
+            int q = highest(quads);
+            return pack(HandRank.FOUR_OF_A_KIND, q, q, q, q, highest(any & ~(1 << q)));
         }
 
-        if (trips != null) {
-            List<Card> bestFive = new ArrayList<>(trips);
-            fillKickers(bestFive, allCards, 2);
-            return new HandResult(HandRank.THREE_OF_A_KIND, bestFive);
-        }
-
-        // Two Pair
-        var pair1 = findGroup(groups, 2);
-        if (pair1 != null) {
-            List<Card> remaining = new ArrayList<>(allCards);
-            remaining.removeAll(pair1);
-            var groups2 = groupByRank(remaining);
-            var pair2 = findGroup(groups2, 2);
-
-            if (pair2 != null) {
-                List<Card> bestFive = new ArrayList<>(pair1);
-                bestFive.addAll(pair2);
-                fillKickers(bestFive, allCards, 1);
-                return new HandResult(HandRank.TWO_PAIR, bestFive);
+        int trips = thrice != 0 ? highest(thrice) : -1;
+        if (trips >= 0) {
+            // A second set of trips counts as the pair
+            int pairs = twice & ~(1 << trips);
+            if (pairs != 0) {
+                int p = highest(pairs);
+                return pack(HandRank.FULL_HOUSE, trips, trips, trips, p, p);
             }
-
-            // One Pair
-            List<Card> bestFive = new ArrayList<>(pair1);
-            fillKickers(bestFive, allCards, 3);
-            return new HandResult(HandRank.ONE_PAIR, bestFive);
         }
 
-        // High Card
-        return new HandResult(HandRank.HIGH_CARD, allCards.subList(0, 5));
-    }
-
-    // --- Helpers ---
-
-    private Map<Card.Rank, List<Card>> groupByRank(List<Card> cards) {
-        Map<Card.Rank, List<Card>> map = new java.util.TreeMap<>(Collections.reverseOrder()); // Highest rank first
-        for (Card c : cards) {
-            map.computeIfAbsent(c.rank(), k -> new ArrayList<>()).add(c);
+        if (flush != 0) {
+            int r0 = highest(flush);
+            int r1 = highest(flush &= ~(1 << r0));
+            int r2 = highest(flush &= ~(1 << r1));
+            int r3 = highest(flush &= ~(1 << r2));
+            int r4 = highest(flush & ~(1 << r3));
+            return pack(HandRank.FLUSH, r0, r1, r2, r3, r4);
         }
-        return map;
-    }
 
-    // Find FIRST group of size >= N (Since map is sorted desc, this is the highest
-    // rank group)
-    private List<Card> findGroup(Map<Card.Rank, List<Card>> groups, int size) {
-        for (List<Card> group : groups.values()) {
-            if (group.size() >= size) {
-                return group;
-            }
+        int straight = straightTop(any);
+        if (straight >= 0) {
+            return packStraight(HandRank.STRAIGHT, straight);
         }
-        return null;
-    }
 
-    private void fillKickers(List<Card> currentHand, List<Card> allCards, int count) {
-        int added = 0;
-        for (Card c : allCards) {
-            if (added >= count)
-                break;
-            if (!currentHand.contains(c)) {
-                currentHand.add(c);
-                added++;
-            }
+        if (trips >= 0) {
+            int rest = any & ~(1 << trips);
+            int k1 = highest(rest);
+            int k2 = highest(rest & ~(1 << k1));
+            return pack(HandRank.THREE_OF_A_KIND, trips, trips, trips, k1, k2);
         }
-    }
 
-    private List<Card> getFlushCards(List<Card> cards) {
-        Map<Card.Suit, List<Card>> suits = new java.util.EnumMap<>(Card.Suit.class);
-        for (Card c : cards) {
-            suits.computeIfAbsent(c.suit(), k -> new ArrayList<>()).add(c);
-        }
-        for (List<Card> suitCards : suits.values()) {
-            if (suitCards.size() >= 5) {
-                // Already sorted desc
-                return suitCards;
+        if (twice != 0) {
+            int p1 = highest(twice);
+            int otherPairs = twice & ~(1 << p1);
+            if (otherPairs != 0) {
+                int p2 = highest(otherPairs);
+                int kicker = highest(any & ~(1 << p1) & ~(1 << p2));
+                return pack(HandRank.TWO_PAIR, p1, p1, p2, p2, kicker);
             }
-        }
-        return null;
+            int rest = any & ~(1 << p1);
+            int k1 = highest(rest);
+            int k2 = highest(rest &= ~(1 << k1));
+            int k3 = highest(rest & ~(1 << k2));
+            return pack(HandRank.ONE_PAIR, p1, p1, k1, k2, k3);
+        }
+
+        int r0 = highest(any);
+        int r1 = highest(any &= ~(1 << r0));
+        int r2 = highest(any &= ~(1 << r1));
+        int r3 = highest(any &= ~(1 << r2));
+        int r4 = highest(any & ~(1 << r3));
+        return pack(HandRank.HIGH_CARD, r0, r1, r2, r3, r4);
     }
 
-    private List<Card> getStraightCards(List<Card> sortedCards) {
-        // Remove duplicates for straight logic
-        List<Card> uniqueRank = new ArrayList<>();
-        if (sortedCards.isEmpty())
-            return null;
-        uniqueRank.add(sortedCards.get(0));
-        for (int i = 1; i < sortedCards.size(); i++) {
-            if (sortedCards.get(i).rank() != uniqueRank.get(uniqueRank.size() - 1).rank()) {
-                uniqueRank.add(sortedCards.get(i));
-            }
+    // First suit (in enum order) holding at least five cards, or -1
+    private static int flushSuit(long cards) {
+        for (int suit = 0; suit < 4; suit++) {
+            if (Long.bitCount((cards >>> (13 * suit)) & 0x1FFF) >= 5)
+                return suit;
         }
+        return -1;
+    }
 
-        if (uniqueRank.size() < 5)
-            return null;
+    // Rank index of the highest card of the best straight in the rank mask, or
+    // -1. The ace is copied below the deuce so that the wheel (top = 3) is found.
+    private static int straightTop(int rankMask) {
+        int withLowAce = (rankMask << 1) | ((rankMask >>> 12) & 1);
+        int runs = withLowAce & (withLowAce >>> 1) & (withLowAce >>> 2) & (withLowAce >>> 3) & (withLowAce >>> 4);
+        if (runs == 0)
+            return -1;
+        return highest(runs) + 3;
+    }
 
-        // Normal Straight
-        for (int i = 0; i <= uniqueRank.size() - 5; i++) {
-            if (isSequential(uniqueRank.subList(i, i + 5))) {
-                return uniqueRank.subList(i, i + 5);
-            }
-        }
+    private static int highest(int mask) {
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
 
-        // Wheel (Ace-5-4-3-2)
-        // Since sorted Desc, Ace is at 0. We need to check if we have A, 5, 4, 3, 2.
-        if (uniqueRank.get(0).rank() == Card.Rank.ACE) {
-            // Look for 5,4,3,2
-            List<Card> wheel = new ArrayList<>();
-            wheel.add(uniqueRank.get(0)); // Ace
-
-            // Check for 5-4-3-2
-            boolean has5 = false, has4 = false, has3 = false, has2 = false;
-            Card c5 = null, c4 = null, c3 = null, c2 = null;
-
-            for (Card c : uniqueRank) {
-                if (c.rank() == Card.Rank.FIVE) {
-                    has5 = true;
-                    c5 = c;
-                }
-                if (c.rank() == Card.Rank.FOUR) {
-                    has4 = true;
-                    c4 = c;
-                }
-                if (c.rank() == Card.Rank.THREE) {
-                    has3 = true;
-                    c3 = c;
-                }
-                if (c.rank() == Card.Rank.TWO) {
-                    has2 = true;
-                    c2 = c;
-                }
-            }
+    private static boolean isSuited(HandRank rank) {
+        return rank == HandRank.FLUSH || rank == HandRank.STRAIGHT_FLUSH || rank == HandRank.ROYAL_FLUSH;
+    }
 
-            if (has5 && has4 && has3 && has2) {
-                // Assemble the wheel straight in the order 5-4-3-2-A.
-                // This ensures correct index 0 evaluation for tie-breaking.
-                return List.of(c5, c4, c3, c2, uniqueRank.get(0));
-            }
+    private static int packStraight(HandRank rank, int top) {
+        if (top == 3) {
+            // Wheel: the ace plays low
+            return HandResult.packStrength(rank, 5, 4, 3, 2, 1);
         }
-
-        return null;
+        return pack(rank, top, top - 1, top - 2, top - 3, top - 4);
     }
 
-    private boolean isSequential(List<Card> fiveCards) {
-        int first = fiveCards.get(0).rank().getValue();
-        for (int i = 1; i < 5; i++) {
-            if (fiveCards.get(i).rank().getValue() != first - i)
-                return false;
-        }
-        return true;
+    // Packs rank indices (0 = deuce) as card values (2..14)
+    private static int pack(HandRank rank, int r0, int r1, int r2, int r3, int r4) {
+        return HandResult.packStrength(rank, r0 + 2, r1 + 2, r2 + 2, r3 + 2, r4 + 2);
     }
 }
@@ -0,0 +1,145 @@
+package de.simonaltschaeffl.poker.service;
+
+/**
+ * Maps (hole cards, board) situations to a suit-isomorphic canonical form.
+ * <p>
+ * Two situations that differ only by a renaming of the suits have the same
+ * hand strength and equity. Each suit is described by the pair of its hole
+ * and board rank masks; sorting the suits by that signature and relabelling
+ * them in order yields the same canonical masks for every member of an
+ * isomorphism class. For example the 25,989,600 hole-card and flop situations
+ * collapse to 1,286,792 canonical ones, and the 1,326 starting hands to 169.
+ * <p>
+ * All methods work on {@link de.simonaltschaeffl.poker.model.CardSet} masks and do not allocate.
+ */
+public final class SuitCanonicalizer {
+
+    /** Maximum number of cards on either side of a situation that {@link #index} supports. */
+    public static final int MAX_CARDS = 5;
+
+    // CHOOSE[n][k] = n over k
+    private static final long[][] CHOOSE = new long[53][MAX_CARDS + 1];
+
+    // Number of subsets of the deck with fewer than k cards
+    private static final long[] SIZE_OFFSET = new long[MAX_CARDS + 2];
+
+    /** Number of distinct card sets with at most {@link #MAX_CARDS} cards. */
+    public static final long SET_COUNT;
+
+    static {
+        for (int n = 0; n <= 52; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MAX_CARDS); k++) {
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + (k <= n - 1 ? CHOOSE[n - 1][k] : 0);
+            }
+        }
+        for (int k = 1; k <= MAX_CARDS + 1; k++) {
+            SIZE_OFFSET[k] = SIZE_OFFSET[k - 1] + CHOOSE[52][k - 1];
+        }
+        SET_COUNT = SIZE_OFFSET[MAX_CARDS + 1];
+    }
+
+    private SuitCanonicalizer() {
+    }
+
+    /**
+     * Returns the suit permutation that canonicalizes the situation, packed as
+     * four 2-bit fields: field {@code j} holds the original suit that becomes
+     * canonical suit {@code j}.
+     */
+    public static int suitOrder(long holeCards, long communityCards) {
+        // Sort key: hole mask, then board mask, then the suit itself in the low bits
+        long s0 = signature(holeCards, communityCards, 0);
+        long s1 = signature(holeCards, communityCards, 1);
+        long s2 = signature(holeCards, communityCards, 2);
+        long s3 = signature(holeCards, communityCards, 3);
+        long t;
+        // Sorting network for four elements, descending
+        if (s0 < s1) {
+            t = s0;
+            s0 = s1;
+            s1 = t;
+        }
+        if (s2 < s3) {
+            t = s2;
+            s2 = s3;
+            s3 = t;
+        }
+        if (s0 < s2) {
+            t = s0;
+            s0 = s2;
+            s2 = t;
+        }
+        if (s1 < s3) {
+            t = s1;
+            s1 = s3;
+            s3 = t;
+        }
+        if (s1 < s2) {
+            t = s1;
+            s1 = s2;
+            s2 = t;
+        }
+        return (int) (s0 & 3) | (int) (s1 & 3) << 2 | (int) (s2 & 3) << 4 | (int) (s3 & 3) << 6;
+    }
+
+    /**
+     * Relabels the suits of a card mask with a permutation from {@link #suitOrder}.
+     */
+    public static long apply(long cards, int suitOrder) {
+        long result = 0;
+        for (int j = 0; j < 4; j++) {
+            int suit = (suitOrder >>> (2 * j)) & 3;
+            result |= ((cards >>> (13 * suit)) & 0x1FFF) << (13 * j);
+        }
+        return result;
+    }
+
+    /**
+     * Reverses {@link #apply} for a single card index.
+     */
+    public static int originalIndex(int canonicalIndex, int suitOrder) {
+        int suit = (suitOrder >>> (2 * (canonicalIndex / 13))) & 3;
+        return suit * 13 + canonicalIndex % 13;
+    }
+
+    /**
+     * Returns a unique index of the canonical form of the situation, below
+     * {@code SET_COUNT * SET_COUNT}. Isomorphic situations share the same index.
+     *
+     * @throws IllegalArgumentException if either side holds more than {@link #MAX_CARDS} cards
+     */
+    public static long canonicalIndex(long holeCards, long communityCards) {
+        int order = suitOrder(holeCards, communityCards);
+        return index(apply(holeCards, order), apply(communityCards, order));
+    }
+
+    /**
+     * Combines two card sets of at most {@link #MAX_CARDS} cards each into a
+     * unique index below {@code SET_COUNT * SET_COUNT}.
+     */
+    public static long index(long holeCards, long communityCards) {
+        return setIndex(holeCards) * SET_COUNT + setIndex(communityCards);
+    }
+
+    // Colexicographic rank of the set among all sets of its size, offset by the
+    // number of smaller sets
+    private static long setIndex(long cards) {
+        int size = Long.bitCount(cards);
+        if (size > MAX_CARDS) {
+            throw new IllegalArgumentException("Cannot index more than " + MAX_CARDS + " cards, got " + size);
+        }
+        long rank = SIZE_OFFSET[size];
+        for (int i = 1; cards != 0; i++) {
+            rank += CHOOSE[Long.numberOfTrailingZeros(cards)][i];
+            cards &= cards - 1;
+        }
+        return rank;
+    }
+
+    private static long signature(long holeCards, long communityCards, int suit) {
+        long hole = (holeCards >>> (13 * suit)) & 0x1FFF;
+        long board = (communityCards >>> (13 * suit)) & 0x1FFF;
+        return (hole << 13 | board) << 2 | suit;
+    }
+}
@@ -0,0 +1,133 @@
+package de.simonaltschaeffl.poker.service;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD variant of {@link CactusKevEvaluator} for batch workloads, built only
+ * with the {@code vector} Maven profile. Obtain it through
+ * {@link BatchEvaluatorFactory#create()}, which falls back to the scalar
+ * evaluator when the incubator module is not available.
+ * <p>
+ * {@link #evaluateBatch} scores one 7-card hand per vector lane using the same
+ * tables as the scalar evaluator: the flush check runs on per-suit bit counts
+ * and the non-flush score comes from the rank-count hash, with every table
+ * lookup done as a gather. Hands with fewer than seven cards, and the tail of
+ * a batch that does not fill a vector, take the scalar path. All other
+ * methods are inherited unchanged.
+ */
+public class VectorHandEvaluator extends CactusKevEvaluator {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    // Any valid 7-card suit pattern; stands in for lanes that are scored scalar
+    private static final int PLACEHOLDER_CLUBS = 0x7F;
+
+    // Strength by suit mask for flushes, and by rank-count hash for 7-card non-flushes
+    private static final int[] FLUSH_STRENGTH = new int[8192];
+    private static final int[] NO_FLUSH_STRENGTH;
+
+    static {
+        for (int mask = 0; mask < 8192; mask++) {
+            FLUSH_STRENGTH[mask] = CactusKevTables.classStrength[CactusKevTables.flushBestLookup[mask]];
+        }
+        short[] sevenCards = CactusKevTables.noFlushLookup[2];
+        NO_FLUSH_STRENGTH = new int[sevenCards.length];
+        for (int hash = 0; hash < sevenCards.length; hash++) {
+            NO_FLUSH_STRENGTH[hash] = CactusKevTables.classStrength[sevenCards[hash]];
+        }
+    }
+
+    public VectorHandEvaluator() {
+        super(Mode.SEVEN_CARD);
+    }
+
+    @Override
+    public int[] evaluateAll(long communityCards, long[] holeCards) {
+        long[] boards = new long[holeCards.length];
+        Arrays.fill(boards, communityCards);
+        int[] strengths = new int[holeCards.length];
+        evaluateBatch(holeCards, boards, strengths, holeCards.length);
+        return strengths;
+    }
+
+    @Override
+    public void evaluateBatch(long[] holeCards, long[] communityCards, int[] strengths, int count) {
+        int lanes = SPECIES.length();
+        int[] clubs = new int[lanes];
+        int[] diamonds = new int[lanes];
+        int[] hearts = new int[lanes];
+        int[] spades = new int[lanes];
+        int[] index = new int[lanes];
+
+        int i = 0;
+        for (; i + lanes <= count; i += lanes) {
+            int scalarLanes = 0;
+            for (int lane = 0; lane < lanes; lane++) {
+                long cards = holeCards[i + lane] | communityCards[i + lane];
+                if (Long.bitCount(cards) != 7) {
+                    scalarLanes |= 1 << lane;
+                    cards = PLACEHOLDER_CLUBS;
+                }
+                clubs[lane] = (int) cards & 0x1FFF;
+                diamonds[lane] = (int) (cards >>> 13) & 0x1FFF;
+                hearts[lane] = (int) (cards >>> 26) & 0x1FFF;
+                spades[lane] = (int) (cards >>> 39) & 0x1FFF;
+            }
+
+            IntVector c = IntVector.fromArray(SPECIES, clubs, 0);
+            IntVector d = IntVector.fromArray(SPECIES, diamonds, 0);
+            IntVector h = IntVector.fromArray(SPECIES, hearts, 0);
+            IntVector s = IntVector.fromArray(SPECIES, spades, 0);
+
+            // With seven cards at most one suit can hold five or more
+            VectorMask<Integer> flushC = bitCount(c).compare(VectorOperators.GE, 5);
+            VectorMask<Integer> flushD = bitCount(d).compare(VectorOperators.GE, 5);
+            VectorMask<Integer> flushH = bitCount(h).compare(VectorOperators.GE, 5);
+            VectorMask<Integer> flushS = bitCount(s).compare(VectorOperators.GE, 5);
+            IntVector flushMask = IntVector.zero(SPECIES).blend(c, flushC).blend(d, flushD).blend(h, flushH)
+                    .blend(s, flushS);
+            VectorMask<Integer> isFlush = flushC.or(flushD).or(flushH).or(flushS);
+
+            // Rank-count hash over all 13 ranks, highest first; absent ranks add zero
+            IntVector hash = IntVector.zero(SPECIES);
+            IntVector remaining = IntVector.broadcast(SPECIES, 7);
+            for (int r = 12; r >= 0; r--) {
+                IntVector count4 = c.lanewise(VectorOperators.LSHR, r).and(1)
+                        .add(d.lanewise(VectorOperators.LSHR, r).and(1))
+                        .add(h.lanewise(VectorOperators.LSHR, r).and(1))
+                        .add(s.lanewise(VectorOperators.LSHR, r).and(1));
+                count4.mul(13 * 8).add(r * 8).add(remaining).intoArray(index, 0);
+                hash = hash.add(IntVector.fromArray(SPECIES, CactusKevTables.QUINARY_DP, 0, index, 0));
+                remaining = remaining.sub(count4);
+            }
+
+            hash.intoArray(index, 0);
+            IntVector strength = IntVector.fromArray(SPECIES, NO_FLUSH_STRENGTH, 0, index, 0);
+            flushMask.intoArray(index, 0);
+            strength = strength.blend(IntVector.fromArray(SPECIES, FLUSH_STRENGTH, 0, index, 0), isFlush);
+            strength.intoArray(strengths, i);
+
+            while (scalarLanes != 0) {
+                int lane = Integer.numberOfTrailingZeros(scalarLanes);
+                strengths[i + lane] = strength(holeCards[i + lane], communityCards[i + lane]);
+                scalarLanes &= scalarLanes - 1;
+            }
+        }
+        for (; i < count; i++) {
+            strengths[i] = strength(holeCards[i], communityCards[i]);
+        }
+    }
+
+    // Population count of the low 13 bits of each lane
+    private static IntVector bitCount(IntVector x) {
+        x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(0x5555));
+        x = x.and(0x3333).add(x.lanewise(VectorOperators.LSHR, 2).and(0x3333));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 4)).and(0x0F0F);
+        return x.add(x.lanewise(VectorOperators.LSHR, 8)).and(0x1F);
+    }
+}
@@ -1,11 +1,15 @@
 package de.simonaltschaeffl.poker;
 
+import de.simonaltschaeffl.poker.dto.CardDTO;
+import de.simonaltschaeffl.poker.dto.GameStateDTO;
 import de.simonaltschaeffl.poker.engine.PokerGame;
 import de.simonaltschaeffl.poker.engine.PokerGameConfiguration;
 import de.simonaltschaeffl.poker.model.*;
 import de.simonaltschaeffl.poker.service.CactusKevEvaluator;
+import de.simonaltschaeffl.poker.service.OmahaHandEvaluator;
 import de.simonaltschaeffl.poker.service.StandardHandEvaluator;
 import de.simonaltschaeffl.poker.exception.InvalidActionException;
+import de.simonaltschaeffl.poker.exception.TooManyHoleCardsException;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -233,70 +237,72 @@ public class PokerEngineTest {
         // Helper to quick create cards
         // Royal Flush
         System.out.println("Testing Royal Flush...");
-        List<Card> royal = parseCards("As Ks Qs Js Ts 2h 3d");
+        List<Card> royal = TestCards.parse("As Ks Qs Js Ts 2h 3d");
         HandResult res = ck.evaluate(royal.subList(0, 2), royal.subList(2, 7));
-        assertEquals(HandRank.STRAIGHT_FLUSH, res.rank());
+        assertEquals(HandRank.ROYAL_FLUSH, res.rank());
+        assertEquals(new StandardHandEvaluator().evaluate(royal.subList(0, 2), royal.subList(2, 7)).strength(),
+                res.strength());
         // Verify Top Card is Ace to confirm correct sorting
         assertEquals(Card.Rank.ACE, res.bestFive().get(0).rank());
 
         // Straight Flush (lower than Royal)
         System.out.println("Testing Straight Flush (King High)...");
-        List<Card> strFlush = parseCards("Ks Qs Js Ts 9s 2h 3d");
+        List<Card> strFlush = TestCards.parse("Ks Qs Js Ts 9s 2h 3d");
         HandResult resStrFlush = ck.evaluate(strFlush.subList(0, 2), strFlush.subList(2, 7));
         assertEquals(HandRank.STRAIGHT_FLUSH, resStrFlush.rank());
 
         // Four of a Kind
         System.out.println("Testing Four of a Kind...");
-        List<Card> quads = parseCards("As Ah Ad Ac Ks 2h 3d");
+        List<Card> quads = TestCards.parse("As Ah Ad Ac Ks 2h 3d");
         HandResult res2 = ck.evaluate(quads.subList(0, 2), quads.subList(2, 7));
         assertEquals(HandRank.FOUR_OF_A_KIND, res2.rank());
 
         // Full House
         System.out.println("Testing Full House...");
-        List<Card> fullHouse = parseCards("Ks Kh Kd Qs Qh 2d 3c"); // KKK QQ
+        List<Card> fullHouse = TestCards.parse("Ks Kh Kd Qs Qh 2d 3c"); // KKK QQ
         HandResult resFH = ck.evaluate(fullHouse.subList(0, 2), fullHouse.subList(2, 7));
         assertEquals(HandRank.FULL_HOUSE, resFH.rank());
 
         // Flush
         System.out.println("Testing Flush...");
-        List<Card> flush = parseCards("As 2s 4s 6s 8s Kd Qd"); // Spades
+        List<Card> flush = TestCards.parse("As 2s 4s 6s 8s Kd Qd"); // Spades
         HandResult resFlush = ck.evaluate(flush.subList(0, 2), flush.subList(2, 7));
         assertEquals(HandRank.FLUSH, resFlush.rank());
 
         // Straight
         System.out.println("Testing Straight...");
-        List<Card> straight = parseCards("9s 8c 7d 6h 5s 2d 3c"); // 9-8-7-6-5
+        List<Card> straight = TestCards.parse("9s 8c 7d 6h 5s 2d 3c"); // 9-8-7-6-5
         HandResult resStraight = ck.evaluate(straight.subList(0, 2), straight.subList(2, 7));
         assertEquals(HandRank.STRAIGHT, resStraight.rank());
 
         // Wheel Straight (A-2-3-4-5)
         System.out.println("Testing Wheel Straight (5-High)...");
-        List<Card> wheel = parseCards("As 2d 3c 4h 5s 9d Tc");
+        List<Card> wheel = TestCards.parse("As 2d 3c 4h 5s 9d Tc");
         HandResult resWheel = ck.evaluate(wheel.subList(0, 2), wheel.subList(2, 7));
         assertEquals(HandRank.STRAIGHT, resWheel.rank());
         // Verify wheel straight evaluation (A-2-3-4-5) where Ace acts as low card.
 
         // Three of a Kind
         System.out.println("Testing Three of a Kind...");
-        List<Card> trips = parseCards("Ks Kh Kd Qs Js 2d 3c");
+        List<Card> trips = TestCards.parse("Ks Kh Kd Qs Js 2d 3c");
         HandResult resTrips = ck.evaluate(trips.subList(0, 2), trips.subList(2, 7));
         assertEquals(HandRank.THREE_OF_A_KIND, resTrips.rank());
 
         // Two Pair
         System.out.println("Testing Two Pair...");
-        List<Card> twoPair = parseCards("Ks Kh Qs Qh Js 2d 3c");
+        List<Card> twoPair = TestCards.parse("Ks Kh Qs Qh Js 2d 3c");
         HandResult resTwoPair = ck.evaluate(twoPair.subList(0, 2), twoPair.subList(2, 7));
         assertEquals(HandRank.TWO_PAIR, resTwoPair.rank());
 
         // One Pair
         System.out.println("Testing One Pair...");
-        List<Card> onePair = parseCards("Ks Kh Qs Js Ts 2d 3c");
+        List<Card> onePair = TestCards.parse("Ks Kh Qs Js Ts 2d 3c");
         HandResult resOnePair = ck.evaluate(onePair.subList(0, 2), onePair.subList(2, 7));
         assertEquals(HandRank.ONE_PAIR, resOnePair.rank());
 
         // High Card
         System.out.println("Testing High Card...");
-        List<Card> highCard = parseCards("As Ks Qs Js 9c 2d 3h"); // Broken Royal (9c instead of Ts) -> A K Q J 9
+        List<Card> highCard = TestCards.parse("As Ks Qs Js 9c 2d 3h"); // Broken Royal (9c instead of Ts) -> A K Q J 9
                                                                   // Unsuited? No suits mixed.
         // A(s) K(s) Q(s) J(s) 9(c). Not flush.
         HandResult resHigh = ck.evaluate(highCard.subList(0, 2), highCard.subList(2, 7));
@@ -306,43 +312,6 @@ public class PokerEngineTest {
         System.out.println("TEST PASSED: testCactusKevEvaluator\n--------------------------------------------------");
     }
 
-    // Helper to parse "As Kh" etc.
-    private List<Card> parseCards(String input) {
-        String[] parts = input.split(" ");
-        List<Card> cards = new ArrayList<>();
-        for (String p : parts) {
-            String rStr = p.substring(0, 1);
-            String sStr = p.substring(1, 2);
-
-            Card.Rank r = switch (rStr) {
-                case "A" -> Card.Rank.ACE;
-                case "K" -> Card.Rank.KING;
-                case "Q" -> Card.Rank.QUEEN;
-                case "J" -> Card.Rank.JACK;
-                case "T" -> Card.Rank.TEN;
-                case "9" -> Card.Rank.NINE;
-                case "8" -> Card.Rank.EIGHT;
-                case "7" -> Card.Rank.SEVEN;
-                case "6" -> Card.Rank.SIX;
-                case "5" -> Card.Rank.FIVE;
-                case "4" -> Card.Rank.FOUR;
-                case "3" -> Card.Rank.THREE;
-                case "2" -> Card.Rank.TWO;
-                default -> throw new IllegalArgumentException("Bad rank: " + rStr);
-            };
-
-            Card.Suit s = switch (sStr.toLowerCase()) {
-                case "s" -> Card.Suit.SPADES;
-                case "h" -> Card.Suit.HEARTS;
-                case "d" -> Card.Suit.DIAMONDS;
-                case "c" -> Card.Suit.CLUBS;
-                default -> throw new IllegalArgumentException("Bad suit: " + sStr);
-            };
-            cards.add(new Card(r, s));
-        }
-        return cards;
-    }
-
     @Test
     public void testMinRaiseAndReRaise() {
         System.out.println("TEST START: testMinRaiseAndReRaise");
@@ -373,6 +342,260 @@ public class PokerEngineTest {
         System.out.println("TEST PASSED: testMinRaiseAndReRaise\n--------------------------------------------------");
     }
 
+    @Test
+    public void testOmahaGameFlow() {
+        System.out.println("TEST START: testOmahaGameFlow");
+        StackedDeck deck = new StackedDeck();
+        PokerGameConfiguration config = new PokerGameConfiguration.Builder().smallBlind(10).bigBlind(20)
+                .holeCardCount(4).build();
+        PokerGame game = new PokerGame(config, new OmahaHandEvaluator(), deck);
+        TestPlayer p1 = new TestPlayer("p1", "Alice", 1000);
+        TestPlayer p2 = new TestPlayer("p2", "Bob", 1000);
+        game.join(p1);
+        game.join(p2);
+
+        // Pushed in reverse: board Kd 3d | 9h 8h 2c, then Bob's and Alice's hole cards
+        deck.push(Card.Rank.KING, Card.Suit.DIAMONDS);
+        deck.push(Card.Rank.THREE, Card.Suit.DIAMONDS);
+        deck.push(Card.Rank.TWO, Card.Suit.CLUBS);
+        deck.push(Card.Rank.EIGHT, Card.Suit.HEARTS);
+        deck.push(Card.Rank.NINE, Card.Suit.HEARTS);
+        deck.push(Card.Rank.TWO, Card.Suit.SPADES);
+        deck.push(Card.Rank.FOUR, Card.Suit.CLUBS);
+        deck.push(Card.Rank.FOUR, Card.Suit.SPADES);
+        deck.push(Card.Rank.KING, Card.Suit.CLUBS);
+        deck.push(Card.Rank.FIVE, Card.Suit.CLUBS);
+        deck.push(Card.Rank.SIX, Card.Suit.HEARTS);
+        deck.push(Card.Rank.SEVEN, Card.Suit.HEARTS);
+        deck.push(Card.Rank.ACE, Card.Suit.HEARTS);
+
+        game.startHand();
+        assertEquals(4, p1.getHoleCards().size());
+        assertEquals(4, p2.getHoleCards().size());
+
+        game.performAction("p1", ActionType.CALL, 0);
+        game.performAction("p2", ActionType.CHECK, 0);
+        for (int street = 0; street < 3; street++) {
+            game.performAction("p2", ActionType.CHECK, 0);
+            game.performAction("p1", ActionType.CHECK, 0);
+        }
+
+        // Alice's 5-6-7 only makes a straight with three hole cards, so Bob's
+        // kings and deuces win
+        assertEquals(GameState.GamePhase.HAND_ENDED, getPhase(game));
+        assertEquals(980, p1.getChips());
+        assertEquals(1020, p2.getChips());
+        System.out.println("TEST PASSED: testOmahaGameFlow\n--------------------------------------------------");
+    }
+
+    @Test
+    public void testDefaultOmahaEvaluator() {
+        // Omaha tables built from the configuration alone must play exactly two
+        // hole cards, for the high and in hi-lo also for the low hand
+        OmahaHandEvaluator omaha = new OmahaHandEvaluator();
+        StandardHandEvaluator holdem = new StandardHandEvaluator();
+        int holdemDisagrees = 0;
+        for (boolean hiLo : new boolean[] { false, true }) {
+            PokerGameConfiguration config = new PokerGameConfiguration.Builder()
+                    .smallBlind(10).bigBlind(20).holeCardCount(4).hiLo(hiLo).build();
+            PokerGame game = new PokerGame(config);
+            TestPlayer p1 = new TestPlayer("p1", "Alice", 100_000);
+            TestPlayer p2 = new TestPlayer("p2", "Bob", 100_000);
+            game.join(p1);
+            game.join(p2);
+
+            for (int hand = 0; hand < 200; hand++) {
+                int before = p1.getChips();
+                game.startHand();
+                // Limp and check down; the small blind acts first preflop, the
+                // big blind first afterwards
+                GameState state = game.getGameState();
+                game.performAction(state.getPlayers().get(state.getCurrentActionPosition()).getId(),
+                        ActionType.CALL, 0);
+                while (getPhase(game) != GameState.GamePhase.HAND_ENDED) {
+                    game.performAction(state.getPlayers().get(state.getCurrentActionPosition()).getId(),
+                            ActionType.CHECK, 0);
+                }
+
+                long board = state.getBoardMask();
+                long hole1 = CardSet.of(p1.getHoleCards());
+                long hole2 = CardSet.of(p2.getHoleCards());
+                int high1 = omaha.strength(hole1, board);
+                int high2 = omaha.strength(hole2, board);
+                int low1 = omaha.lowStrength(hole1, board);
+                int low2 = omaha.lowStrength(hole2, board);
+                int expected = hiLo && (low1 > 0 || low2 > 0)
+                        ? share(high1, high2, 20) + share(low1, low2, 20)
+                        : share(high1, high2, 40);
+                assertEquals(before - 20 + expected, p1.getChips(), "Hand " + hand + ", hi-lo " + hiLo);
+                if (Integer.compare(high1, high2) != Integer.compare(holdem.strength(hole1, board),
+                        holdem.strength(hole2, board))) {
+                    holdemDisagrees++;
+                }
+            }
+        }
+        // Otherwise the hands above would not tell the two evaluators apart
+        assertTrue(holdemDisagrees > 0);
+
+        assertThrows(IllegalArgumentException.class, () -> new PokerGame(
+                new PokerGameConfiguration.Builder().shortDeck(true).holeCardCount(4).build()));
+    }
+
+    // The chips of a pot of the given size won by the first of two hands
+    private int share(int mine, int theirs, int pot) {
+        return mine > theirs ? pot : mine == theirs ? pot / 2 : 0;
+    }
+
+    @Test
+    public void testHoleCardCountValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PokerGameConfiguration.Builder().holeCardCount(1).build());
+        // 10 players with 5 cards each plus the board need 55 cards
+        assertThrows(IllegalArgumentException.class,
+                () -> new PokerGameConfiguration.Builder().maxPlayers(10).holeCardCount(5).build());
+        assertEquals(5, new PokerGameConfiguration.Builder().maxPlayers(9).holeCardCount(5).build()
+                .getHoleCardCount());
+
+        TestPlayer player = new TestPlayer("p1", "Alice", 1000);
+        player.addHoleCard(new Card(Card.Rank.ACE, Card.Suit.SPADES));
+        player.addHoleCard(new Card(Card.Rank.KING, Card.Suit.SPADES));
+        assertThrows(TooManyHoleCardsException.class,
+                () -> player.addHoleCard(new Card(Card.Rank.QUEEN, Card.Suit.SPADES)));
+        player.setMaxHoleCards(4);
+        player.addHoleCard(new Card(Card.Rank.QUEEN, Card.Suit.SPADES));
+        assertEquals(3, player.getHoleCards().size());
+    }
+
+    @Test
+    public void testShortDeckGame() {
+        PokerGameConfiguration config = new PokerGameConfiguration.Builder().shortDeck(true).build();
+        PokerGame game = new PokerGame(config);
+        TestPlayer p1 = new TestPlayer("p1", "Alice", 1000);
+        TestPlayer p2 = new TestPlayer("p2", "Bob", 1000);
+        game.join(p1);
+        game.join(p2);
+        game.startHand();
+
+        for (Card card : p1.getHoleCards()) {
+            assertTrue(card.rank().compareTo(Card.Rank.SIX) >= 0, "Short deck deals no cards below six");
+        }
+        ShortDeck deck = new ShortDeck();
+        assertEquals(36, deck.remainingCards());
+
+        // 8 players with 4 cards each plus the board need 37 of the 36 cards
+        assertThrows(IllegalArgumentException.class,
+                () -> new PokerGameConfiguration.Builder().shortDeck(true).maxPlayers(8).holeCardCount(4).build());
+    }
+
+    @Test
+    public void testAllInEquityBroadcast() {
+        StackedDeck deck = new StackedDeck();
+        PokerGameConfiguration config = new PokerGameConfiguration.Builder().smallBlind(10).bigBlind(20).build();
+        PokerGame game = new PokerGame(config, new StandardHandEvaluator(), deck);
+        TestPlayer p1 = new TestPlayer("p1", "Alice", 1000);
+        TestPlayer p2 = new TestPlayer("p2", "Bob", 1000);
+        game.join(p1);
+        game.join(p2);
+
+        List<String> rounds = new ArrayList<>();
+        List<Map<String, Double>> equities = new ArrayList<>();
+        game.addListener(new WaitingListTest.TestGameListener() {
+            @Override
+            public void onAllInEquity(String roundName, Map<String, Double> equity) {
+                rounds.add(roundName);
+                equities.add(equity);
+            }
+        });
+
+        // Board: 2c 7d 9h, Kh, 3s. P1: As Ah, P2: Kc Kd
+        deck.push(Card.Rank.THREE, Card.Suit.SPADES);
+        deck.push(Card.Rank.KING, Card.Suit.HEARTS);
+        deck.push(Card.Rank.NINE, Card.Suit.HEARTS);
+        deck.push(Card.Rank.SEVEN, Card.Suit.DIAMONDS);
+        deck.push(Card.Rank.TWO, Card.Suit.CLUBS);
+        deck.push(Card.Rank.KING, Card.Suit.DIAMONDS); // P2
+        deck.push(Card.Rank.KING, Card.Suit.CLUBS); // P2
+        deck.push(Card.Rank.ACE, Card.Suit.HEARTS); // P1
+        deck.push(Card.Rank.ACE, Card.Suit.SPADES); // P1
+
+        game.startHand();
+        game.performAction("p1", ActionType.ALL_IN, 0);
+        game.performAction("p2", ActionType.ALL_IN, 0);
+
+        assertEquals(GameState.GamePhase.HAND_ENDED, getPhase(game));
+        assertEquals(List.of("PRE_FLOP", "FLOP", "TURN"), rounds);
+        assertEquals(0.82, equities.get(0).get("p1"), 0.01);
+        for (Map<String, Double> equity : equities) {
+            assertEquals(List.of("p1", "p2"), new ArrayList<>(equity.keySet()));
+            assertEquals(1, equity.get("p1") + equity.get("p2"), 1e-12);
+        }
+        // After the turn king only the two remaining aces save the first player
+        assertEquals(2.0 / 44, equities.get(2).get("p1"), 1e-12);
+        assertEquals(2000, p2.getChips());
+    }
+
+    @Test
+    public void testRunItTwice() {
+        StackedDeck deck = new StackedDeck();
+        PokerGameConfiguration config = new PokerGameConfiguration.Builder().smallBlind(10).bigBlind(20)
+                .runItTimes(2).build();
+        PokerGame game = new PokerGame(config, new StandardHandEvaluator(), deck);
+        TestPlayer p1 = new TestPlayer("p1", "Alice", 1000);
+        TestPlayer p2 = new TestPlayer("p2", "Bob", 1001);
+        game.join(p1);
+        game.join(p2);
+        List<List<Card>> runBoards = new ArrayList<>();
+        List<Map<String, Integer>> runPayouts = new ArrayList<>();
+        game.addListener(new WaitingListTest.TestGameListener() {
+            @Override
+            public void onRunsCompleted(List<List<Card>> boards, List<Map<String, Integer>> payouts) {
+                runBoards.addAll(boards);
+                runPayouts.addAll(payouts);
+            }
+        });
+
+        // Second run after the flop: Kh, 3s gives Bob a set
+        deck.push(Card.Rank.THREE, Card.Suit.SPADES);
+        deck.push(Card.Rank.KING, Card.Suit.HEARTS);
+        // First run: 2c 7d 9h, 4c, 5d keeps Alice's aces ahead
+        deck.push(Card.Rank.FIVE, Card.Suit.DIAMONDS);
+        deck.push(Card.Rank.FOUR, Card.Suit.CLUBS);
+        deck.push(Card.Rank.NINE, Card.Suit.HEARTS);
+        deck.push(Card.Rank.SEVEN, Card.Suit.DIAMONDS);
+        deck.push(Card.Rank.TWO, Card.Suit.CLUBS);
+        deck.push(Card.Rank.KING, Card.Suit.DIAMONDS); // P2
+        deck.push(Card.Rank.KING, Card.Suit.CLUBS); // P2
+        deck.push(Card.Rank.ACE, Card.Suit.HEARTS); // P1
+        deck.push(Card.Rank.ACE, Card.Suit.SPADES); // P1
+
+        game.startHand();
+        // Bob only has to check on the flop, so the run-out starts there
+        game.performAction("p1", ActionType.CALL, 0);
+        game.performAction("p2", ActionType.CHECK, 0);
+        game.performAction("p2", ActionType.CHECK, 0);
+        game.performAction("p1", ActionType.ALL_IN, 0);
+        game.performAction("p2", ActionType.CALL, 0);
+
+        assertEquals(GameState.GamePhase.HAND_ENDED, getPhase(game));
+        List<List<Card>> extraBoards = game.getGameState().getExtraBoards();
+        assertEquals(1, extraBoards.size());
+        assertEquals(game.getGameState().getBoard().subList(0, 3), extraBoards.get(0).subList(0, 3));
+        assertEquals(List.of(new Card(Card.Rank.KING, Card.Suit.HEARTS), new Card(Card.Rank.THREE, Card.Suit.SPADES)),
+                extraBoards.get(0).subList(3, 5));
+        // Each run wins half of the 2000 pot, Bob keeps his extra chip
+        assertEquals(1000, p1.getChips());
+        assertEquals(1001, p2.getChips());
+
+        // Clients are shown every run's board and result
+        assertEquals(List.of(game.getGameState().getBoard(), extraBoards.get(0)), runBoards);
+        assertEquals(List.of(Map.of("p1", 1000), Map.of("p2", 1000)), runPayouts);
+        GameStateDTO dto = GameStateDTO.from(game.getGameState());
+        assertEquals(1, dto.extraBoards().size());
+        assertEquals(extraBoards.get(0).stream().map(CardDTO::from).toList(), dto.extraBoards().get(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PokerGameConfiguration.Builder().runItTimes(0).build());
+    }
+
     // Accessor for the game phase to verify correct transitions
     private GameState.GamePhase getPhase(PokerGame game) {
         return game.getGameState().getPhase();
@@ -0,0 +1,45 @@
+package de.simonaltschaeffl.poker.benchmark;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.service.CactusKevEvaluator;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the latency from JVM start to the first showdown evaluated by
+ * {@link CactusKevEvaluator}. Run it in a fresh JVM each time, with and
+ * without the generated {@code cactus-kev.tables} resource on the classpath:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="de.simonaltschaeffl.poker.benchmark.ColdStartBenchmark"
+ * </pre>
+ */
+public class ColdStartBenchmark {
+
+    public static void main(String[] args) {
+        long mainEntered = System.nanoTime();
+        boolean resourcePresent = CactusKevEvaluator.class.getResource("cactus-kev.tables") != null;
+
+        CactusKevEvaluator evaluator = new CactusKevEvaluator();
+        List<Card> board = List.of(new Card(Card.Rank.ACE, Card.Suit.SPADES), new Card(Card.Rank.KING, Card.Suit.HEARTS),
+                new Card(Card.Rank.SEVEN, Card.Suit.CLUBS), new Card(Card.Rank.SEVEN, Card.Suit.DIAMONDS),
+                new Card(Card.Rank.TWO, Card.Suit.SPADES));
+        List<List<Card>> holes = new ArrayList<>();
+        holes.add(List.of(new Card(Card.Rank.ACE, Card.Suit.CLUBS), new Card(Card.Rank.QUEEN, Card.Suit.CLUBS)));
+        holes.add(List.of(new Card(Card.Rank.KING, Card.Suit.CLUBS), new Card(Card.Rank.KING, Card.Suit.DIAMONDS)));
+        holes.add(List.of(new Card(Card.Rank.NINE, Card.Suit.SPADES), new Card(Card.Rank.EIGHT, Card.Suit.SPADES)));
+
+        long start = System.nanoTime();
+        int[] strengths = evaluator.evaluateAll(board, holes);
+        long firstShowdown = System.nanoTime() - start;
+
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("Tables from resource: %s%n", resourcePresent);
+        System.out.printf("First showdown:       %.2f ms (%.2f ms after main)%n", firstShowdown / 1e6,
+                (System.nanoTime() - mainEntered) / 1e6);
+        System.out.printf("JVM start to result:  %d ms (winner strength %d)%n", sinceJvmStart,
+                Math.max(strengths[0], Math.max(strengths[1], strengths[2])));
+    }
+}
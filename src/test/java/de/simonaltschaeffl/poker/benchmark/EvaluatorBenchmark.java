@@ -0,0 +1,82 @@
+package de.simonaltschaeffl.poker.benchmark;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.service.CactusKevEvaluator;
+import de.simonaltschaeffl.poker.service.HandEvaluator;
+import de.simonaltschaeffl.poker.service.LookupTableEvaluator;
+import de.simonaltschaeffl.poker.service.StandardHandEvaluator;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Single-threaded throughput comparison of the hand evaluators on the same
+ * set of random 7-card hands.
+ * <p>
+ * Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="de.simonaltschaeffl.poker.benchmark.EvaluatorBenchmark"
+ * </pre>
+ *
+ * Pass the path of a table written by
+ * {@code LookupTableGenerator} as {@code -Dexec.args} to include the
+ * memory-mapped lookup table evaluator.
+ */
+public class EvaluatorBenchmark {
+
+    private static final int HANDS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        List<List<Card>> holes = new ArrayList<>(HANDS);
+        List<List<Card>> boards = new ArrayList<>(HANDS);
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                deck.add(new Card(rank, suit));
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < HANDS; i++) {
+            Collections.shuffle(deck, random);
+            holes.add(List.copyOf(deck.subList(0, 2)));
+            boards.add(List.copyOf(deck.subList(2, 7)));
+        }
+
+        run("Standard", new StandardHandEvaluator(), holes, boards);
+        run("CactusKev (21 combinations)", new CactusKevEvaluator(CactusKevEvaluator.Mode.COMBINATIONS), holes,
+                boards);
+        run("CactusKev (7-card)", new CactusKevEvaluator(CactusKevEvaluator.Mode.SEVEN_CARD), holes, boards);
+        if (args.length > 0) {
+            run("Lookup table (mapped)", new LookupTableEvaluator(Paths.get(args[0])), holes, boards);
+        }
+    }
+
+    private static void run(String name, HandEvaluator evaluator, List<List<Card>> holes,
+            List<List<Card>> boards) {
+        long checksum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            checksum += evaluateAll(evaluator, holes, boards);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            checksum += evaluateAll(evaluator, holes, boards);
+        }
+        long elapsed = System.nanoTime() - start;
+        double perSecond = (double) HANDS * MEASURED_ROUNDS / (elapsed / 1_000_000_000.0);
+        System.out.printf("%-30s %,15.0f evals/s  (checksum %d)%n", name, perSecond, checksum);
+    }
+
+    private static long evaluateAll(HandEvaluator evaluator, List<List<Card>> holes, List<List<Card>> boards) {
+        long sum = 0;
+        for (int i = 0; i < holes.size(); i++) {
+            sum += evaluator.evaluate(holes.get(i), boards.get(i)).rank().getValue();
+        }
+        return sum;
+    }
+}
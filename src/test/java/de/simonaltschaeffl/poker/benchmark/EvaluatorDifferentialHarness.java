@@ -0,0 +1,281 @@
+package de.simonaltschaeffl.poker.benchmark;
+
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.service.BatchEvaluatorFactory;
+import de.simonaltschaeffl.poker.service.CactusKevEvaluator;
+import de.simonaltschaeffl.poker.service.HandEvaluator;
+import de.simonaltschaeffl.poker.service.LookupTableEvaluator;
+import de.simonaltschaeffl.poker.service.LookupTableGenerator;
+import de.simonaltschaeffl.poker.service.StandardHandEvaluator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exhaustive differential test of the hand evaluators with a throughput
+ * report.
+ * <p>
+ * Every 7-card hand, 133,784,560 in total, is enumerated on a
+ * {@link ForkJoinPool}. The reference is
+ * {@link CactusKevEvaluator#evalCardSet(long)}, which places each hand in one
+ * of 7,462 equivalence classes, 1 being the best. An evaluator passes when
+ * <ul>
+ * <li>all hands of a class get the same strength, so ties agree,</li>
+ * <li>the strengths strictly decrease from class 1 to class 7,462, so the
+ * ordering agrees, and</li>
+ * <li>every class has the reference category.</li>
+ * </ul>
+ * Each evaluator first runs a timed pass through
+ * {@link HandEvaluator#evaluateBatch}, then the checked pass. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="de.simonaltschaeffl.poker.benchmark.EvaluatorDifferentialHarness"
+ * </pre>
+ *
+ * {@code -Dexec.args} optionally takes the lowest card index to enumerate
+ * (default 0, the full set) and the path of a table written by
+ * {@link LookupTableGenerator} for the lookup table evaluator. Without a path
+ * a fresh table is generated into a temporary file, which takes about 130 MB
+ * of disk and a few seconds.
+ */
+public class EvaluatorDifferentialHarness {
+
+    /** Number of 7-card hands from a full deck. */
+    public static final long ALL_HANDS = 133_784_560L;
+
+    private static final int CLASSES = 7462;
+    // Largest leaf: the 4 cards above the third card, 49 choose 4
+    private static final int MAX_LEAF_HANDS = 211_876;
+    private static final CactusKevEvaluator REFERENCE = new CactusKevEvaluator();
+    private static final HandRank[] RANKS = HandRank.values();
+
+    /**
+     * Outcome for one evaluator.
+     *
+     * @param tieMismatches       hands whose strength differs from that of another
+     *                            hand in the same class
+     * @param categoryMismatches  hands in a class whose category differs from the
+     *                            reference
+     * @param orderViolations     classes not strictly weaker than the class before
+     * @param evaluationsPerSecond throughput of the timed pass
+     * @param handsByCategory     hands per category as reported by the evaluator,
+     *                            indexed by {@code HandRank.ordinal()}
+     */
+    public record Report(String name, long hands, long tieMismatches, long categoryMismatches, int orderViolations,
+            double evaluationsPerSecond, long[] handsByCategory) {
+
+        public boolean passed() {
+            return tieMismatches == 0 && categoryMismatches == 0 && orderViolations == 0;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    // Leaves of the enumeration: the three lowest cards, packed 6 bits each
+    private final int[] leaves;
+    private final int grain;
+
+    /**
+     * @param pool       the pool the enumeration runs on
+     * @param lowestCard only hands whose cards all have at least this index are
+     *                   enumerated; 0 covers every hand
+     */
+    public EvaluatorDifferentialHarness(ForkJoinPool pool, int lowestCard) {
+        if (lowestCard < 0 || lowestCard > 45) {
+            throw new IllegalArgumentException("Lowest card must be between 0 and 45, got " + lowestCard);
+        }
+        List<Integer> packed = new ArrayList<>();
+        for (int c0 = lowestCard; c0 < 52; c0++) {
+            for (int c1 = c0 + 1; c1 < 52; c1++) {
+                for (int c2 = c1 + 1; c2 < 49; c2++) {
+                    packed.add(c0 | c1 << 6 | c2 << 12);
+                }
+            }
+        }
+        this.pool = pool;
+        this.leaves = packed.stream().mapToInt(Integer::intValue).toArray();
+        this.grain = Math.max(1, leaves.length / (pool.getParallelism() * 32));
+    }
+
+    public Report run(String name, HandEvaluator evaluator) {
+        long start = System.nanoTime();
+        Tally timed = pool.invoke(new Pass(evaluator, false, 0, leaves.length));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Tally checked = pool.invoke(new Pass(evaluator, true, 0, leaves.length));
+        long categoryMismatches = 0;
+        int orderViolations = 0;
+        long[] handsByCategory = new long[RANKS.length];
+        int previous = Integer.MAX_VALUE;
+        for (int score = 1; score <= CLASSES; score++) {
+            long hands = checked.handsByScore[score];
+            if (hands == 0)
+                continue;
+            int strength = checked.strengthByScore[score];
+            int expected = REFERENCE.strength(0, checked.exampleByScore[score]);
+            if (category(strength) != category(expected)) {
+                categoryMismatches += hands;
+            }
+            if (strength >= previous) {
+                orderViolations++;
+            }
+            previous = strength;
+            handsByCategory[(strength >>> 20) - 1] += hands;
+        }
+        return new Report(name, timed.hands, checked.tieMismatches, categoryMismatches, orderViolations,
+                timed.hands / seconds, handsByCategory);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int lowestCard = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        EvaluatorDifferentialHarness harness = new EvaluatorDifferentialHarness(new ForkJoinPool(), lowestCard);
+
+        List<Report> reports = new ArrayList<>();
+        reports.add(harness.run("Standard", new StandardHandEvaluator()));
+        reports.add(harness.run("CactusKev (7-card)", new CactusKevEvaluator(CactusKevEvaluator.Mode.SEVEN_CARD)));
+        reports.add(harness.run(BatchEvaluatorFactory.isVectorized() ? "Batch (vector)" : "Batch (scalar)",
+                BatchEvaluatorFactory.create()));
+        Path tableFile = args.length > 1 ? Paths.get(args[1]) : Files.createTempFile("handranks", ".dat");
+        try {
+            if (args.length <= 1) {
+                LookupTableGenerator.generate(tableFile);
+            }
+            reports.add(harness.run("Lookup table (mapped)", new LookupTableEvaluator(tableFile)));
+        } finally {
+            if (args.length <= 1) {
+                Files.deleteIfExists(tableFile);
+            }
+        }
+
+        boolean passed = true;
+        System.out.printf("%-24s %13s %10s %10s %8s %15s%n", "Evaluator", "Hands", "Ties", "Category", "Order",
+                "Evals/s");
+        for (Report report : reports) {
+            System.out.printf("%-24s %,13d %,10d %,10d %,8d %,15.0f  %s%n", report.name(), report.hands(),
+                    report.tieMismatches(), report.categoryMismatches(), report.orderViolations(),
+                    report.evaluationsPerSecond(), report.passed() ? "OK" : "FAILED");
+            passed &= report.passed();
+        }
+        System.out.println();
+        System.out.printf("%-24s", "Category");
+        for (Report report : reports) {
+            System.out.printf(" %24s", report.name());
+        }
+        System.out.println();
+        for (int rank = RANKS.length - 1; rank >= 0; rank--) {
+            System.out.printf("%-24s", RANKS[rank]);
+            for (Report report : reports) {
+                System.out.printf(" %,24d", report.handsByCategory()[rank]);
+            }
+            System.out.println();
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static HandRank category(int strength) {
+        return RANKS[(strength >>> 20) - 1];
+    }
+
+    // Per-class results of one part of the enumeration
+    private static final class Tally {
+        final long[] handsByScore = new long[CLASSES + 1];
+        final int[] strengthByScore = new int[CLASSES + 1];
+        final long[] exampleByScore = new long[CLASSES + 1];
+        long hands;
+        long tieMismatches;
+        long checksum;
+
+        void add(long cards, int strength) {
+            int score = CactusKevEvaluator.evalCardSet(cards);
+            if (handsByScore[score]++ == 0) {
+                strengthByScore[score] = strength;
+                exampleByScore[score] = cards;
+            } else if (strengthByScore[score] != strength) {
+                tieMismatches++;
+            }
+        }
+
+        Tally merge(Tally other) {
+            for (int score = 1; score <= CLASSES; score++) {
+                if (other.handsByScore[score] == 0)
+                    continue;
+                if (handsByScore[score] == 0) {
+                    strengthByScore[score] = other.strengthByScore[score];
+                    exampleByScore[score] = other.exampleByScore[score];
+                } else if (strengthByScore[score] != other.strengthByScore[score]) {
+                    tieMismatches += other.handsByScore[score];
+                }
+                handsByScore[score] += other.handsByScore[score];
+            }
+            hands += other.hands;
+            tieMismatches += other.tieMismatches;
+            checksum += other.checksum;
+            return this;
+        }
+    }
+
+    private final class Pass extends RecursiveTask<Tally> {
+
+        private final HandEvaluator evaluator;
+        private final boolean check;
+        private final int from;
+        private final int to;
+
+        Pass(HandEvaluator evaluator, boolean check, int from, int to) {
+            this.evaluator = evaluator;
+            this.check = check;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > grain) {
+                int middle = (from + to) >>> 1;
+                Pass left = new Pass(evaluator, check, from, middle);
+                left.fork();
+                Tally right = new Pass(evaluator, check, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            Tally tally = new Tally();
+            long[] holes = new long[MAX_LEAF_HANDS];
+            long[] boards = new long[MAX_LEAF_HANDS];
+            int[] strengths = new int[MAX_LEAF_HANDS];
+            for (int leaf = from; leaf < to; leaf++) {
+                int c0 = leaves[leaf] & 0x3F;
+                int c1 = (leaves[leaf] >>> 6) & 0x3F;
+                int c2 = leaves[leaf] >>> 12;
+                long hole = 1L << c0 | 1L << c1;
+                int count = 0;
+                for (int c3 = c2 + 1; c3 < 52; c3++) {
+                    for (int c4 = c3 + 1; c4 < 52; c4++) {
+                        for (int c5 = c4 + 1; c5 < 52; c5++) {
+                            for (int c6 = c5 + 1; c6 < 52; c6++) {
+                                holes[count] = hole;
+                                boards[count++] = 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5 | 1L << c6;
+                            }
+                        }
+                    }
+                }
+                evaluator.evaluateBatch(holes, boards, strengths, count);
+                tally.hands += count;
+                for (int i = 0; i < count; i++) {
+                    if (check) {
+                        tally.add(holes[i] | boards[i], strengths[i]);
+                    } else {
+                        tally.checksum += strengths[i];
+                    }
+                }
+            }
+            return tally;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package de.simonaltschaeffl.poker.benchmark;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.service.BatchEvaluatorFactory;
+import de.simonaltschaeffl.poker.service.CactusKevEvaluator;
+import de.simonaltschaeffl.poker.service.HandEvaluator;
+import de.simonaltschaeffl.poker.service.StandardHandEvaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluatorDifferentialHarnessTest {
+
+    // Hands drawn from the top 20 cards, 20 choose 7; the full run is the main method
+    private static final int LOWEST_CARD = 32;
+    private static final long SLICE_HANDS = 77_520;
+
+    static Stream<Arguments> evaluators() {
+        return Stream.of(
+                Arguments.of("Standard", new StandardHandEvaluator()),
+                Arguments.of("CactusKev", new CactusKevEvaluator()),
+                Arguments.of("Batch", BatchEvaluatorFactory.create()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("evaluators")
+    void testEvaluatorAgreesWithReference(String name, HandEvaluator evaluator) {
+        EvaluatorDifferentialHarness harness = new EvaluatorDifferentialHarness(ForkJoinPool.commonPool(),
+                LOWEST_CARD);
+        EvaluatorDifferentialHarness.Report report = harness.run(name, evaluator);
+
+        assertEquals(SLICE_HANDS, report.hands());
+        assertEquals(0, report.tieMismatches(), "Tie mismatches");
+        assertEquals(0, report.categoryMismatches(), "Category mismatches");
+        assertEquals(0, report.orderViolations(), "Order violations");
+        assertTrue(report.passed());
+    }
+
+    @Test
+    void testDetectsBrokenTies() {
+        // Splitting ties by the suits of the hole cards must be reported
+        StandardHandEvaluator standard = new StandardHandEvaluator();
+        HandEvaluator suitSensitive = new HandEvaluator() {
+            @Override
+            public HandResult evaluate(List<Card> holeCards, List<Card> communityCards) {
+                return standard.evaluate(holeCards, communityCards);
+            }
+
+            @Override
+            public int strength(long holeCards, long communityCards) {
+                return standard.strength(holeCards, communityCards) + (int) (holeCards % 3);
+            }
+        };
+        EvaluatorDifferentialHarness harness = new EvaluatorDifferentialHarness(ForkJoinPool.commonPool(),
+                LOWEST_CARD);
+        EvaluatorDifferentialHarness.Report report = harness.run("Suit sensitive", suitSensitive);
+
+        assertTrue(report.tieMismatches() > 0);
+        assertFalse(report.passed());
+    }
+}
@@ -5,13 +5,25 @@ import de.simonaltschaeffl.poker.model.ActionType;
 import de.simonaltschaeffl.poker.model.Card;
 import de.simonaltschaeffl.poker.model.GameState;
 import de.simonaltschaeffl.poker.model.Player;
+import de.simonaltschaeffl.poker.model.PlayerStatus;
+import de.simonaltschaeffl.poker.service.HandStrengthCalculator;
+import de.simonaltschaeffl.poker.service.PushFoldSolver;
+import de.simonaltschaeffl.poker.service.PushFoldTable;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
 public class BotPlayer extends Player {
+    // Shared by all bots so they share its cache
+    private static final HandStrengthCalculator STRENGTH = new HandStrengthCalculator();
+
     private final Random random = new Random();
 
+    // Solved on first use and shared by all bots
+    private static final class PushFold {
+        static final PushFoldTable TABLE = new PushFoldSolver().solve();
+    }
+
     public BotPlayer(String id, String name, int chips) {
         super(id, name, chips);
     }
@@ -31,6 +43,10 @@ public class BotPlayer extends Player {
         int callAmount = highestBet - currentBet;
         int chips = getChips();
 
+        if (playPushFold(game, state, highestBet)) {
+            return;
+        }
+
         // Simple Logic
         // 1. If checking is free, check (90%) or small raise (10%)
         // 2. If calling is cheap (< 5% of stack), call.
@@ -58,7 +74,7 @@ public class BotPlayer extends Player {
                 System.out.println(getName() + " decides to go ALL-IN (Call)");
                 game.performAction(getId(), ActionType.CALL, 0); // Logic handles conversion to All-in
             } else {
-                boolean goodHand = hasHighCard(); // Fake logic
+                boolean goodHand = hasStrongHand(state);
                 if (callAmount < chips * 0.1 || goodHand || random.nextBoolean()) {
                     System.out.println(getName() + " decides to CALL " + callAmount);
                     game.performAction(getId(), ActionType.CALL, 0);
@@ -70,12 +86,45 @@ public class BotPlayer extends Player {
         }
     }
 
-    private boolean hasHighCard() {
-        // Very dumb "good hand" check
+    // Short-stacked preflop against a single opponent, e.g. heads-up or blind
+    // against blind, the bot shoves or calls a shove from the push/fold table
+    private boolean playPushFold(PokerGame game, GameState state, int highestBet) {
+        if (state.getPhase() != GameState.GamePhase.PRE_FLOP || getHoleCards().size() != 2)
+            return false;
+        List<Player> opponents = state.getPlayers().stream()
+                .filter(p -> p != this)
+                .filter(p -> p.getStatus() == PlayerStatus.ACTIVE || p.getStatus() == PlayerStatus.ALL_IN)
+                .toList();
+        if (opponents.size() != 1)
+            return false;
+        Player opponent = opponents.get(0);
+        int stack = Math.min(getChips() + getCurrentBet(), opponent.getChips() + opponent.getCurrentBet());
+        double bigBlinds = (double) stack / game.getBigBlind();
+        if (bigBlinds > PushFold.TABLE.getMaxStack())
+            return false;
+
+        if (highestBet == game.getBigBlind() && getCurrentBet() < highestBet) {
+            // First in from the small blind
+            boolean push = PushFold.TABLE.shouldPush(bigBlinds, getHoleCardMask());
+            System.out.println(getName() + " decides to " + (push ? "go ALL-IN" : "FOLD") + " (push/fold)");
+            game.performAction(getId(), push ? ActionType.ALL_IN : ActionType.FOLD, 0);
+            return true;
+        }
+        if (opponent.getStatus() == PlayerStatus.ALL_IN || opponent.getCurrentBet() >= stack) {
+            boolean call = PushFold.TABLE.shouldCall(bigBlinds, getHoleCardMask());
+            System.out.println(getName() + " decides to " + (call ? "CALL" : "FOLD") + " the all-in (push/fold)");
+            game.performAction(getId(), call ? ActionType.CALL : ActionType.FOLD, 0);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean hasStrongHand(GameState state) {
         List<Card> hole = getHoleCards();
-        if (hole.size() < 2)
+        if (hole.size() != 2)
             return false;
-        return hole.stream().anyMatch(c -> c.rank().getValue() >= 10); // 10, J, Q, K, A
+        // Likely to be ahead of a random hand after the next card
+        return STRENGTH.calculate(getHoleCardMask(), state.getBoardMask()).effectiveHandStrength() >= 0.6;
     }
 
     @Override
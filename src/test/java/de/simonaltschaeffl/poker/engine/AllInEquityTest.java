@@ -0,0 +1,110 @@
+package de.simonaltschaeffl.poker.engine;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.ShortDeck;
+import de.simonaltschaeffl.poker.service.CactusKevEvaluator;
+import de.simonaltschaeffl.poker.service.EquityCalculator;
+import de.simonaltschaeffl.poker.service.OmahaHandEvaluator;
+import de.simonaltschaeffl.poker.service.ShortDeckHandEvaluator;
+import de.simonaltschaeffl.poker.service.StandardHandEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AllInEquityTest {
+
+    private final EquityCalculator calculator = new EquityCalculator(new CactusKevEvaluator(),
+            ForkJoinPool.commonPool());
+
+    @Test
+    void testStreetsMatchEnumeration() {
+        AllInEquity equity = new AllInEquity(new StandardHandEvaluator(), null, CardSet.FULL_DECK, 2);
+        long[] holes = { mask("As Kd"), mask("Qh Qc"), mask("7h 6h") };
+        long flop = mask("Qs Th 5h");
+        assertArrayEquals(calculator.enumerate(holes, flop, CardSet.EMPTY).equity(), equity.equities(holes, flop),
+                1e-12);
+
+        // The turn reuses the flop run-outs and must match a fresh enumeration
+        long turn = flop | mask("Js");
+        double[] reused = equity.equities(holes, turn);
+        assertArrayEquals(calculator.enumerate(holes, turn, CardSet.EMPTY).equity(), reused, 1e-12);
+        assertArrayEquals(new AllInEquity(new StandardHandEvaluator(), null, CardSet.FULL_DECK, 2)
+                .equities(holes, turn), reused, 1e-12);
+    }
+
+    @Test
+    void testPreflopOnlyForHeadsUpHoldem() {
+        AllInEquity equity = new AllInEquity(new StandardHandEvaluator(), null, CardSet.FULL_DECK, 2);
+        double[] headsUp = equity.equities(new long[] { mask("Ah Ad"), mask("Kc Ks") }, CardSet.EMPTY);
+        assertNotNull(headsUp);
+        assertEquals(0.82, headsUp[0], 0.01);
+        assertEquals(1, headsUp[0] + headsUp[1], 1e-12);
+        assertNull(equity.equities(new long[] { mask("Ah Ad"), mask("Kc Ks"), mask("7d 2c") }, CardSet.EMPTY));
+
+        AllInEquity shortDeck = new AllInEquity(new ShortDeckHandEvaluator(), null, new ShortDeck().getCardMask(), 2);
+        assertNull(shortDeck.equities(new long[] { mask("Ah Ad"), mask("Kc Ks") }, CardSet.EMPTY));
+    }
+
+    @Test
+    void testShortDeckRunOutsStayInTheDeck() {
+        long deck = new ShortDeck().getCardMask();
+        AllInEquity equity = new AllInEquity(new ShortDeckHandEvaluator(), null, deck, 2);
+        long[] holes = { mask("Ah Kh"), mask("Js Tc") };
+        long board = mask("Qh 9d 6c 8h");
+        // Only the 28 cards left in the short deck can come on the river
+        double[] equities = equity.equities(holes, board);
+        int rivers = 0;
+        int wins = 0;
+        int ties = 0;
+        ShortDeckHandEvaluator evaluator = new ShortDeckHandEvaluator();
+        for (long live = deck & ~board & ~holes[0] & ~holes[1]; live != 0; live &= live - 1) {
+            long river = board | (live & -live);
+            int first = evaluator.strength(holes[0], river);
+            int second = evaluator.strength(holes[1], river);
+            rivers++;
+            wins += first > second ? 1 : 0;
+            ties += first == second ? 1 : 0;
+        }
+        assertEquals(28, rivers);
+        assertEquals((wins + ties / 2.0) / rivers, equities[0], 1e-12);
+    }
+
+    @Test
+    void testHiLoSplitsThePot() {
+        OmahaHandEvaluator omaha = new OmahaHandEvaluator();
+        AllInEquity equity = new AllInEquity(omaha, omaha, CardSet.FULL_DECK, 4);
+        // The first player has the nut flush, the second the only low
+        long[] holes = { mask("Ah Kh Qs Qd"), mask("2c 3d Kc Ks") };
+        double[] equities = equity.equities(holes, mask("4h 5h 8h 9c Jd"));
+        assertArrayEquals(new double[] { 0.5, 0.5 }, equities, 1e-12);
+    }
+
+    @Test
+    void testWorkIsBounded() {
+        OmahaHandEvaluator omaha = new OmahaHandEvaluator();
+        AllInEquity equity = new AllInEquity(omaha, null, CardSet.FULL_DECK, 4);
+        long[] holes = { mask("Ah Kh Qs Qd"), mask("2c 3d Kc Ks"), mask("Jh Th 9s 8s"), mask("7c 7d 6h 6s"),
+                mask("Ac Ad 5c 5d"), mask("Js Tc 4h 4s") };
+        // 325 run-outs for six seats of 60 five-card hands each
+        long flop = mask("9c 8d 2h");
+        assertNull(equity.equities(holes, flop));
+        assertNull(new AllInEquity(omaha, omaha, CardSet.FULL_DECK, 4).equities(holes, flop));
+        assertNull(equity.equities(new long[] { holes[0], holes[1] }, flop));
+        // The turn has 25 rivers left
+        long turn = flop | mask("3s");
+        assertNotNull(equity.equities(holes, turn));
+        assertNotNull(new AllInEquity(omaha, omaha, CardSet.FULL_DECK, 4).equities(holes, turn));
+
+        // A ten-way Hold'em flop is well within the limit
+        AllInEquity holdem = new AllInEquity(new StandardHandEvaluator(), null, CardSet.FULL_DECK, 2);
+        long[] tenWay = { mask("As Ks"), mask("Qs Js"), mask("Ts 9s"), mask("8s 7s"), mask("6s 5s"),
+                mask("Ah Kh"), mask("Qh Jh"), mask("Th 9h"), mask("8h 7h"), mask("6h 5h") };
+        assertNotNull(holdem.equities(tenWay, flop));
+    }
+}
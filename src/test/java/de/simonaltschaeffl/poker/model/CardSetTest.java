@@ -0,0 +1,59 @@
+package de.simonaltschaeffl.poker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CardSetTest {
+
+    @Test
+    void testIndexRoundTrip() {
+        long all = CardSet.EMPTY;
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                Card card = new Card(rank, suit);
+                assertEquals(card, CardSet.card(CardSet.index(card)));
+                all = CardSet.add(all, card);
+            }
+        }
+        assertEquals(CardSet.FULL_DECK, all);
+        assertEquals(52, CardSet.size(all));
+    }
+
+    @Test
+    void testSetOperations() {
+        Card aceSpades = new Card(Card.Rank.ACE, Card.Suit.SPADES);
+        Card kingHearts = new Card(Card.Rank.KING, Card.Suit.HEARTS);
+        Card twoClubs = new Card(Card.Rank.TWO, Card.Suit.CLUBS);
+
+        long hole = CardSet.of(aceSpades, kingHearts);
+        long board = CardSet.of(List.of(twoClubs));
+        long both = CardSet.union(hole, board);
+
+        assertEquals(3, CardSet.size(both));
+        assertTrue(CardSet.contains(both, twoClubs));
+        assertFalse(CardSet.contains(hole, twoClubs));
+        assertTrue(CardSet.containsAll(both, hole));
+        assertFalse(CardSet.intersects(hole, board));
+        assertEquals(hole, CardSet.remove(both, twoClubs));
+        assertEquals(1 << 12, CardSet.suitMask(both, Card.Suit.SPADES));
+        assertEquals(1, CardSet.suitMask(both, Card.Suit.CLUBS));
+    }
+
+    @Test
+    void testIteration() {
+        long set = CardSet.of(new Card(Card.Rank.ACE, Card.Suit.SPADES), new Card(Card.Rank.TWO, Card.Suit.CLUBS),
+                new Card(Card.Rank.TEN, Card.Suit.DIAMONDS));
+        assertEquals("[2c, Td, As]", CardSet.toString(set));
+
+        List<Integer> indices = new ArrayList<>();
+        CardSet.forEach(set, indices::add);
+        assertEquals(List.of(0, 21, 51), indices);
+        assertEquals(0, CardSet.firstIndex(set));
+    }
+}
@@ -0,0 +1,28 @@
+package de.simonaltschaeffl.poker.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CardTest {
+
+    @Test
+    void testCardsAreInterned() {
+        for (int index = 0; index < 52; index++) {
+            Card card = Card.of(index);
+            assertEquals(index, card.index());
+            assertSame(card, Card.of(card.rank(), card.suit()));
+            assertEquals(card, new Card(card.rank(), card.suit()));
+        }
+        assertSame(Card.of(Card.Rank.TWO, Card.Suit.CLUBS), Card.of(0));
+        assertSame(Card.of(Card.Rank.ACE, Card.Suit.SPADES), Card.of(51));
+    }
+
+    @Test
+    void testCactusKevInt() {
+        // King of diamonds: rank bit 11, diamond bit, rank 11, prime 37
+        assertEquals(0x08002B25, Card.of(Card.Rank.KING, Card.Suit.DIAMONDS).cactusKev());
+        assertEquals(0x00018002, Card.of(Card.Rank.TWO, Card.Suit.SPADES).cactusKev());
+    }
+}
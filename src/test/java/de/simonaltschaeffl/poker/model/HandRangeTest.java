@@ -0,0 +1,73 @@
+package de.simonaltschaeffl.poker.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandRangeTest {
+
+    static Stream<Arguments> provideNotations() {
+        return Stream.of(
+                Arguments.of("QQ", 6),
+                Arguments.of("TT+", 30),
+                Arguments.of("77-99", 18),
+                Arguments.of("99-77", 18),
+                Arguments.of("AK", 16),
+                Arguments.of("AKs", 4),
+                Arguments.of("AKo", 12),
+                Arguments.of("A9s+", 20),
+                Arguments.of("KQ+", 16),
+                Arguments.of("K9o-KJo", 36),
+                Arguments.of("AsKh", 1),
+                Arguments.of("TT+, AKs", 34),
+                // Overlapping entries count once
+                Arguments.of("AK,AKs", 16));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideNotations")
+    void testParseCountsCombos(String notation, int expectedCombos) {
+        assertEquals(expectedCombos, HandRange.parse(notation).size());
+    }
+
+    @Test
+    void testWeights() {
+        HandRange range = HandRange.parse("AK:0.5, AKs");
+        assertEquals(1.0f, range.weight(CardSet.of(Card.of(Card.Rank.ACE, Card.Suit.SPADES),
+                Card.of(Card.Rank.KING, Card.Suit.SPADES))), 0);
+        assertEquals(0.5f, range.weight(CardSet.of(Card.of(Card.Rank.ACE, Card.Suit.SPADES),
+                Card.of(Card.Rank.KING, Card.Suit.HEARTS))), 0);
+        assertEquals(0.0f, range.weight(CardSet.of(Card.of(Card.Rank.ACE, Card.Suit.SPADES),
+                Card.of(Card.Rank.QUEEN, Card.Suit.SPADES))), 0);
+        assertEquals(HandRange.parse("AKs, AKo:0.5"), range);
+        assertEquals(HandRange.parse("AKs, AKo:0.5").hashCode(), range.hashCode());
+        assertNotEquals(HandRange.parse("AK"), range);
+    }
+
+    @Test
+    void testComboIndex() {
+        for (int index = 0; index < HandRange.COMBOS; index++) {
+            assertEquals(index, HandRange.comboIndex(HandRange.comboCards(index)));
+        }
+        assertEquals(0, HandRange.comboIndex(0b11L));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.comboIndex(0b111L));
+    }
+
+    @Test
+    void testRejectsInvalidNotation() {
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("AKx"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("AAs"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("A2s-K5s"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("1K"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("AsAs"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("AK:-1"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.of(new float[12]));
+    }
+}
@@ -0,0 +1,34 @@
+package de.simonaltschaeffl.poker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandResultTest {
+
+    @Test
+    void testStrengthOrdersByFrequencyThenRank() {
+        // Two pair, nines and fives with an ace kicker, in arbitrary card order
+        HandResult twoPair = new HandResult(HandRank.TWO_PAIR, List.of(
+                new Card(Card.Rank.ACE, Card.Suit.CLUBS), new Card(Card.Rank.FIVE, Card.Suit.HEARTS),
+                new Card(Card.Rank.NINE, Card.Suit.SPADES), new Card(Card.Rank.FIVE, Card.Suit.CLUBS),
+                new Card(Card.Rank.NINE, Card.Suit.DIAMONDS)));
+        assertEquals(HandResult.packStrength(HandRank.TWO_PAIR, 9, 9, 5, 5, 14), twoPair.strength());
+    }
+
+    @Test
+    void testWheelIsTheLowestStraight() {
+        HandResult wheel = new HandResult(HandRank.STRAIGHT, List.of(
+                new Card(Card.Rank.ACE, Card.Suit.CLUBS), new Card(Card.Rank.FIVE, Card.Suit.HEARTS),
+                new Card(Card.Rank.FOUR, Card.Suit.SPADES), new Card(Card.Rank.THREE, Card.Suit.CLUBS),
+                new Card(Card.Rank.TWO, Card.Suit.DIAMONDS)));
+        HandResult sixHigh = new HandResult(HandRank.STRAIGHT, List.of(
+                new Card(Card.Rank.SIX, Card.Suit.CLUBS), new Card(Card.Rank.FIVE, Card.Suit.HEARTS),
+                new Card(Card.Rank.FOUR, Card.Suit.SPADES), new Card(Card.Rank.THREE, Card.Suit.CLUBS),
+                new Card(Card.Rank.TWO, Card.Suit.DIAMONDS)));
+        assertTrue(sixHigh.compareTo(wheel) > 0, "Six-high straight should beat the wheel");
+    }
+}
@@ -0,0 +1,49 @@
+package de.simonaltschaeffl.poker.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses cards written as rank and suit symbols, e.g. {@code "Ah Kd Tc"}, for
+ * tests.
+ */
+public final class TestCards {
+
+    private TestCards() {
+    }
+
+    /**
+     * @param input space-separated cards such as {@code "Ah Kd"}
+     * @return the cards in the order given
+     * @throws IllegalArgumentException if a card cannot be parsed
+     */
+    public static List<Card> parse(String input) {
+        List<Card> cards = new ArrayList<>();
+        for (String p : input.split(" ")) {
+            Card.Rank rank = null;
+            for (Card.Rank r : Card.Rank.values()) {
+                if (r.getSymbol().equals(p.substring(0, 1))) {
+                    rank = r;
+                }
+            }
+            Card.Suit suit = null;
+            for (Card.Suit s : Card.Suit.values()) {
+                if (s.getSymbol().equals(p.substring(1, 2))) {
+                    suit = s;
+                }
+            }
+            if (rank == null || suit == null || p.length() != 2) {
+                throw new IllegalArgumentException("Not a card: " + p);
+            }
+            cards.add(new Card(rank, suit));
+        }
+        return cards;
+    }
+
+    /**
+     * Card-mask variant of {@link #parse(String)}.
+     */
+    public static long mask(String input) {
+        return CardSet.of(parse(input));
+    }
+}
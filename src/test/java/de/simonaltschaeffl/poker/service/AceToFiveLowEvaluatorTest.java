@@ -0,0 +1,79 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AceToFiveLowEvaluatorTest {
+
+    private final AceToFiveLowEvaluator evaluator = new AceToFiveLowEvaluator();
+
+    static Stream<Arguments> provideLowHands() {
+        return Stream.of(
+                // The wheel is the best low, the straight does not count against it
+                Arguments.of("As 2d", "3c 4h 5s Kd Kc", 225),
+                // Eight-seven is the worst qualifying low
+                Arguments.of("8c 7d", "6h 5s 4c Kd Ks", 8),
+                // The five lowest ranks play
+                Arguments.of("As 2s", "3s 4s 5s 6s 7s", 225),
+                // Paired ranks leave only four distinct low cards
+                Arguments.of("Ac Ad", "2c 3d 4h 9s Ks", 0),
+                // A nine does not qualify
+                Arguments.of("9c 7d", "6h 5s 4c Kd Ks", 0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideLowHands")
+    void testLowStrength(String hole, String board, int expected) {
+        assertEquals(expected, evaluator.lowStrength(mask(hole), mask(board)));
+    }
+
+    @Test
+    void testHighestCardDecidesFirst() {
+        int sixFour = evaluator.lowStrength(mask("6c 4d"), mask("3h 2s Ac Kd Ks"));
+        int sixFive = evaluator.lowStrength(mask("6c 5d"), mask("4h 3s 2c Kd Ks"));
+        int sevenTwo = evaluator.lowStrength(mask("7c 4d"), mask("3h 2s Ac Kd Ks"));
+        assertTrue(sixFour > sixFive, "6-4 beats 6-5");
+        assertTrue(sixFive > sevenTwo, "Any six beats any seven");
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(8);
+        for (int i = 0; i < 10_000; i++) {
+            long cards = CardSet.EMPTY;
+            while (CardSet.size(cards) < 7) {
+                cards |= 1L << random.nextInt(52);
+            }
+            // Distinct ranks ace to eight, ace as 1, best five by comparing from the top
+            List<Integer> lows = new ArrayList<>();
+            for (Card card : CardSet.toList(cards)) {
+                int value = card.rank() == Card.Rank.ACE ? 1 : card.rank().getValue();
+                if (value <= 8 && !lows.contains(value))
+                    lows.add(value);
+            }
+            lows.sort(null);
+            int expected = 0;
+            if (lows.size() >= 5) {
+                int fiveMask = 0;
+                for (int value : lows.subList(0, 5)) {
+                    fiveMask |= 1 << (value - 1);
+                }
+                expected = 256 - fiveMask;
+            }
+            assertEquals(expected, evaluator.lowStrength(cards, CardSet.EMPTY));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BatchEvaluatorFactoryTest {
+
+    @Test
+    void testBatchMatchesScalarEvaluation() {
+        // Runs against the SIMD evaluator when the vector profile is active
+        HandEvaluator batch = BatchEvaluatorFactory.create();
+        CactusKevEvaluator scalar = new CactusKevEvaluator();
+
+        // Odd count so the tail after the last full vector is covered too
+        int count = 10_001;
+        long[] holes = new long[count];
+        long[] boards = new long[count];
+        Random random = new Random(5);
+        for (int i = 0; i < count; i++) {
+            long dealt = CardSet.EMPTY;
+            while (CardSet.size(dealt) < 2) {
+                dealt |= 1L << random.nextInt(52);
+            }
+            holes[i] = dealt;
+            // Mostly full 7-card hands, with some flops and turns mixed in
+            int cards = i % 10 == 0 ? 5 + random.nextInt(2) : 7;
+            while (CardSet.size(dealt) < cards) {
+                dealt |= 1L << random.nextInt(52);
+            }
+            boards[i] = dealt & ~holes[i];
+        }
+
+        int[] expected = new int[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = scalar.strength(holes[i], boards[i]);
+        }
+        int[] actual = new int[count];
+        batch.evaluateBatch(holes, boards, actual, count);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testIsVectorizedMatchesCreate() {
+        assertEquals(BatchEvaluatorFactory.isVectorized(),
+                BatchEvaluatorFactory.create().getClass() != CactusKevEvaluator.class);
+    }
+
+    @Test
+    void testDisableProperty() {
+        System.setProperty(BatchEvaluatorFactory.DISABLE_PROPERTY, "true");
+        try {
+            assertEquals(CactusKevEvaluator.class, BatchEvaluatorFactory.create().getClass());
+            assertFalse(BatchEvaluatorFactory.isVectorized());
+        } finally {
+            System.clearProperty(BatchEvaluatorFactory.DISABLE_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingHandEvaluatorTest {
+
+    @Test
+    void testMatchesDelegate() {
+        StandardHandEvaluator reference = new StandardHandEvaluator();
+        CachingHandEvaluator cache = new CachingHandEvaluator(new StandardHandEvaluator(), 1 << 12);
+
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                deck.add(new Card(rank, suit));
+            }
+        }
+        Random random = new Random(17);
+        for (int i = 0; i < 10_000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> hole = deck.subList(0, 2);
+            List<Card> board = deck.subList(2, 5 + i % 3);
+            HandResult expected = reference.evaluate(hole, board);
+            HandResult actual = cache.evaluate(hole, board);
+
+            assertEquals(expected.rank(), actual.rank());
+            assertEquals(expected.strength(), actual.strength());
+            long dealt = CardSet.of(hole) | CardSet.of(board);
+            assertTrue(CardSet.containsAll(dealt, CardSet.of(actual.bestFive())),
+                    "Best five must come from the dealt cards");
+        }
+        assertEquals(10_000, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    void testMatchesShortDeckDelegate() {
+        ShortDeckHandEvaluator reference = new ShortDeckHandEvaluator();
+        CachingHandEvaluator cache = new CachingHandEvaluator(new ShortDeckHandEvaluator(), 1 << 12);
+
+        // Short deck strengths swap flush and full house in the category bits;
+        // the second lookup of each hand is a hit
+        long flush = TestCards.mask("Ah Jh");
+        long fullHouse = TestCards.mask("Ac Kc");
+        for (int i = 0; i < 2; i++) {
+            assertEquals(HandRank.FLUSH, cache.evaluate(flush, TestCards.mask("8h 7h 6h Ad As")).rank());
+            assertEquals(HandRank.FULL_HOUSE, cache.evaluate(fullHouse, TestCards.mask("Kd 8h 7s Ad As")).rank());
+        }
+        assertEquals(2, cache.getHits());
+
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                if (rank.compareTo(Card.Rank.SIX) >= 0) {
+                    deck.add(new Card(rank, suit));
+                }
+            }
+        }
+        Random random = new Random(23);
+        for (int i = 0; i < 10_000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> holeCards = deck.subList(0, 2);
+            List<Card> boardCards = deck.subList(2, 5 + i % 3);
+            HandResult expected = reference.evaluate(holeCards, boardCards);
+            HandResult actual = cache.evaluate(holeCards, boardCards);
+
+            assertEquals(expected.rank(), actual.rank());
+            assertEquals(expected.strength(), actual.strength());
+            long dealt = CardSet.of(holeCards) | CardSet.of(boardCards);
+            assertTrue(CardSet.containsAll(dealt, CardSet.of(actual.bestFive())),
+                    "Best five must come from the dealt cards");
+        }
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    void testIsomorphicHandsHitTheCache() {
+        CachingHandEvaluator cache = new CachingHandEvaluator(new CactusKevEvaluator(), 1024);
+        long board = CardSet.of(new Card(Card.Rank.KING, Card.Suit.CLUBS), new Card(Card.Rank.SEVEN, Card.Suit.CLUBS),
+                new Card(Card.Rank.TWO, Card.Suit.CLUBS));
+
+        // On a monotone club board, any two non-club aces are the same situation
+        long aces1 = CardSet.of(new Card(Card.Rank.ACE, Card.Suit.SPADES), new Card(Card.Rank.ACE, Card.Suit.DIAMONDS));
+        long aces2 = CardSet.of(new Card(Card.Rank.ACE, Card.Suit.SPADES), new Card(Card.Rank.ACE, Card.Suit.HEARTS));
+        int first = cache.strength(aces1, board);
+        assertEquals(0, cache.getHits());
+        assertEquals(first, cache.strength(aces2, board));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        assertEquals(512, new CachingHandEvaluator(new CactusKevEvaluator(), 1000).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new CachingHandEvaluator(new CactusKevEvaluator(), 0));
+    }
+}
@@ -0,0 +1,144 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CactusKevEvaluatorTest {
+
+    private final CactusKevEvaluator evaluator = new CactusKevEvaluator();
+
+    static Stream<Arguments> provideFiveCardClasses() {
+        return Stream.of(
+                Arguments.of("As Ks Qs Js Ts", 1), // Royal Flush
+                Arguments.of("5h 4h 3h 2h Ah", 10), // Steel Wheel
+                Arguments.of("As Ah Ad Ac Kd", 11), // Best Quads
+                Arguments.of("2s 2h 2d 2c 3d", 166), // Worst Quads
+                Arguments.of("As Ah Ad Kc Kd", 167), // Best Full House
+                Arguments.of("As Ks Qs Js 9s", 323), // Best Flush
+                Arguments.of("7d 5d 4d 3d 2d", 1599), // Worst Flush
+                Arguments.of("Ad Ks Qh Jc Td", 1600), // Broadway
+                Arguments.of("5d 4s 3h 2c Ad", 1609), // Wheel
+                Arguments.of("As Ah Ad Kc Qd", 1610), // Best Trips
+                Arguments.of("As Ah Kd Kc Qd", 2468), // Best Two Pair
+                Arguments.of("As Ah Kd Qc Jd", 3326), // Best Pair
+                Arguments.of("2s 2h 5d 4c 3d", 6185), // Worst Pair
+                Arguments.of("As Kh Qd Jc 9d", 6186), // Best High Card
+                Arguments.of("7s 5h 4d 3c 2d", 7462)); // Worst High Card
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideFiveCardClasses")
+    void testEval5ReturnsExactEquivalenceClass(String hand, int expectedScore) {
+        List<Card> cards = TestCards.parse(hand);
+        int[] ints = new int[5];
+        for (int i = 0; i < 5; i++) {
+            ints[i] = CactusKevCommon.toInt(cards.get(i));
+        }
+        assertEquals(expectedScore, evaluator.eval5(ints));
+    }
+
+    @Test
+    void testKickersAreOrdered() {
+        // Same pair of Aces, the King kicker must beat the Queen kicker
+        HandResult kingKicker = evaluate("As Kd", "Ah 9c 7d 4s 2h");
+        HandResult queenKicker = evaluate("Ac Qd", "Ah 9c 7d 4s 2h");
+        assertTrue(kingKicker.compareTo(queenKicker) > 0, "King kicker should win");
+
+        // Both players play the board's best five, resulting in a split
+        HandResult split1 = evaluate("2c 3d", "Ah Kc Qd Js 9h");
+        HandResult split2 = evaluate("2d 3h", "Ah Kc Qd Js 9h");
+        assertEquals(0, split1.compareTo(split2), "Should be a split pot");
+    }
+
+    @Test
+    void testFewerThanSevenCards() {
+        HandResult flopOnly = evaluate("As Ad", "Ac 7h 2d");
+        assertEquals(HandRank.THREE_OF_A_KIND, flopOnly.rank());
+        assertEquals(5, flopOnly.bestFive().size());
+    }
+
+    @Test
+    void testSevenCardModeMatchesCombinations() {
+        CactusKevEvaluator combinations = new CactusKevEvaluator(CactusKevEvaluator.Mode.COMBINATIONS);
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                deck.add(new Card(rank, suit));
+            }
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> hole = deck.subList(0, 2);
+            List<Card> board = deck.subList(2, 5 + i % 3);
+            HandResult fast = evaluator.evaluate(hole, board);
+            HandResult slow = combinations.evaluate(hole, board);
+            assertEquals(slow.rank(), fast.rank());
+            assertEquals(0, fast.compareTo(slow), "Modes disagree on " + hole + " " + board);
+            assertEquals(HandResult.strengthOf(fast.rank(), fast.bestFive()), fast.strength());
+        }
+    }
+
+    @Test
+    void testCardSetOverloadMatchesLists() {
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                deck.add(new Card(rank, suit));
+            }
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> hole = deck.subList(0, 2);
+            List<Card> board = deck.subList(2, 5 + i % 3);
+            HandResult fromLists = evaluator.evaluate(hole, board);
+            HandResult fromMasks = evaluator.evaluate(CardSet.of(hole), CardSet.of(board));
+            assertEquals(fromLists.rank(), fromMasks.rank());
+            assertEquals(0, fromLists.compareTo(fromMasks), "Overloads disagree on " + hole + " " + board);
+        }
+    }
+
+    @Test
+    void testEvaluateAllMatchesSingleEvaluation() {
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                deck.add(new Card(rank, suit));
+            }
+        }
+        Random random = new Random(13);
+        for (int i = 0; i < 5_000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> board = deck.subList(0, 3 + i % 3);
+            List<List<Card>> holes = new ArrayList<>();
+            for (int seat = 0; seat < 9; seat++) {
+                holes.add(deck.subList(5 + seat * 2, 7 + seat * 2));
+            }
+            int[] strengths = evaluator.evaluateAll(board, holes);
+            for (int seat = 0; seat < 9; seat++) {
+                assertEquals(evaluator.evaluate(holes.get(seat), board).strength(), strengths[seat]);
+            }
+        }
+    }
+
+    private HandResult evaluate(String hole, String board) {
+        return evaluator.evaluate(TestCards.parse(hole), TestCards.parse(board));
+    }
+}
@@ -0,0 +1,56 @@
+package de.simonaltschaeffl.poker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CactusKevTablesTest {
+
+    @Test
+    void testResourceFormatRoundTrip() throws IOException {
+        short[] flush = CactusKevTables.flushLookup.clone();
+        short[] sevenCards = CactusKevTables.noFlushLookup[2].clone();
+        int[] strengths = CactusKevTables.classStrength.clone();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CactusKevTables.write(bytes);
+        CactusKevTables.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertArrayEquals(flush, CactusKevTables.flushLookup);
+        assertArrayEquals(sevenCards, CactusKevTables.noFlushLookup[2]);
+        assertArrayEquals(strengths, CactusKevTables.classStrength);
+    }
+
+    @Test
+    void testShippedResourceMatchesGeneratedTables() throws IOException {
+        byte[] shipped;
+        try (InputStream resource = CactusKevTables.class.getResourceAsStream(CactusKevTables.RESOURCE)) {
+            assertNotNull(resource, "The build did not generate " + CactusKevTables.RESOURCE);
+            shipped = new GZIPInputStream(resource).readAllBytes();
+        }
+
+        CactusKevTables.generate();
+        ByteArrayOutputStream generated = new ByteArrayOutputStream();
+        CactusKevTables.write(generated);
+        assertArrayEquals(shipped,
+                new GZIPInputStream(new ByteArrayInputStream(generated.toByteArray())).readAllBytes());
+    }
+
+    @Test
+    void testRejectsUnknownFormat() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(new byte[] { 1, 2, 3, 4 });
+        }
+        assertThrows(IOException.class, () -> CactusKevTables.read(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,178 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EquityCalculatorTest {
+
+    private final CactusKevEvaluator evaluator = new CactusKevEvaluator();
+    private final EquityCalculator calculator = new EquityCalculator(evaluator, ForkJoinPool.commonPool());
+
+    @Test
+    void testCompleteBoardIsExact() {
+        EquityCalculator.Result result = calculator.calculate(
+                List.of(TestCards.parse("Ah Ad"), TestCards.parse("Kh Kd"), TestCards.parse("Qc 3s")),
+                TestCards.parse("Kc 7s 2d Th 9c"), List.of(), budget().build());
+        assertEquals(1, result.samples());
+        assertArrayEquals(new double[] { 0, 1, 0 }, result.equity(), 0);
+        assertEquals(0, result.standardError(), 0);
+    }
+
+    @Test
+    void testSplitPotCountsAsTie() {
+        EquityCalculator.Result result = calculator.calculate(
+                List.of(TestCards.parse("2h 3d"), TestCards.parse("4c 5s")),
+                TestCards.parse("Ah Kd Qc Js Td"), List.of(), budget().build());
+        assertArrayEquals(new double[] { 0, 0 }, result.win(), 0);
+        assertArrayEquals(new double[] { 1, 1 }, result.tie(), 0);
+        assertArrayEquals(new double[] { 0.5, 0.5 }, result.equity(), 0);
+    }
+
+    @Test
+    void testMatchesEnumerationOnTheTurn() {
+        long[] holes = { mask("Ah Kh"), mask("Qs Qd"), mask("9c 8c") };
+        long board = mask("Qh 7h 6c 2s");
+        long dead = mask("Js");
+        double[] exact = enumerateBoards(holes, board, dead);
+
+        EquityCalculator.Result result = calculator.calculate(holes, board, dead,
+                budget().maxSamples(200_000).build());
+        assertEquals(200_000, result.samples());
+        double sum = 0;
+        for (int p = 0; p < holes.length; p++) {
+            assertEquals(exact[p], result.equity()[p], 5 * result.standardError(), "player " + p);
+            sum += result.equity()[p];
+        }
+        assertEquals(1, sum, 1e-9);
+    }
+
+    @Test
+    void testEnumerationIsExactOnTheFlop() {
+        long[] holes = { mask("Ah Kh"), mask("Qs Qd"), mask("9c 8c") };
+        long board = mask("Qh 7h 6c");
+        double[] exact = enumerateBoards(holes, board, CardSet.EMPTY);
+
+        EquityCalculator.Result result = calculator.enumerate(holes, board, CardSet.EMPTY);
+        // 43 cards left, 43 choose 2 turn and river pairs
+        assertEquals(903, result.samples());
+        assertArrayEquals(exact, result.equity(), 1e-12);
+        assertEquals(0, result.standardError(), 0);
+        assertEquals(1, result.equity()[0] + result.equity()[1] + result.equity()[2], 1e-12);
+    }
+
+    @Test
+    void testEnumerationOnTheTurnWithDeadCards() {
+        List<List<Card>> holes = List.of(TestCards.parse("Ah Kh"), TestCards.parse("Qs Qd"));
+        EquityCalculator.Result result = calculator.enumerate(holes, TestCards.parse("Qh 7h 6c 2s"),
+                TestCards.parse("Js 3h"));
+        assertEquals(42, result.samples());
+        // Eight hearts are left, but the six and the deuce fill up the set
+        assertEquals(6.0 / 42, result.equity()[0], 1e-12);
+    }
+
+    @Test
+    void testSeededRunIsIndependentOfParallelism() {
+        long[] holes = { mask("As Ks"), mask("7d 7c") };
+        EquityCalculator.Budget budget = budget().maxSamples(50_000).seed(7).build();
+        EquityCalculator.Result single = new EquityCalculator(evaluator, new ForkJoinPool(1))
+                .calculate(holes, CardSet.EMPTY, CardSet.EMPTY, budget);
+        EquityCalculator.Result parallel = new EquityCalculator(evaluator, new ForkJoinPool(4))
+                .calculate(holes, CardSet.EMPTY, CardSet.EMPTY, budget);
+        assertEquals(single.equity()[0], parallel.equity()[0], 0);
+        assertEquals(single.tie()[1], parallel.tie()[1], 0);
+        // Pocket sevens are a slight favourite over ace-king suited
+        assertEquals(0.46, single.equity()[0], 0.02);
+    }
+
+    @Test
+    void testStopsAtTargetStandardError() {
+        EquityCalculator.Result result = calculator.calculate(new long[] { mask("Ah Ad"), mask("Kh Kd") },
+                CardSet.EMPTY, CardSet.EMPTY, budget().maxSamples(100_000_000).targetStandardError(0.005).build());
+        assertTrue(result.standardError() <= 0.005);
+        assertTrue(result.samples() < 100_000_000);
+        assertEquals(0.82, result.equity()[0], 0.02);
+    }
+
+    @Test
+    void testStopsAtTimeLimit() {
+        long start = System.nanoTime();
+        EquityCalculator.Result result = calculator.calculate(new long[] { mask("Ah Ad"), mask("Kh Kd") },
+                CardSet.EMPTY, CardSet.EMPTY,
+                budget().maxSamples(Long.MAX_VALUE).maxTime(Duration.ofMillis(50)).build());
+        assertTrue(result.samples() > 0);
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        EquityCalculator.Budget budget = budget().build();
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(new long[] { mask("Ah Ad") }, CardSet.EMPTY, CardSet.EMPTY, budget));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(new long[] { mask("Ah Ad"), mask("Ah Kd") }, CardSet.EMPTY, CardSet.EMPTY,
+                        budget));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(new long[] { mask("Ah Ad"), mask("Kh Kd") }, mask("2c 3c 4c"),
+                        mask("4c"), budget));
+        assertThrows(IllegalArgumentException.class, () -> budget().maxSamples(0).build());
+        assertThrows(IllegalArgumentException.class, () -> budget().maxTime(Duration.ZERO).build());
+    }
+
+    private static EquityCalculator.Budget.Builder budget() {
+        return new EquityCalculator.Budget.Builder().seed(42);
+    }
+
+    // Exact equity over every completion of the board, one card at a time
+    private double[] enumerateBoards(long[] holes, long board, long dead) {
+        long used = board | dead;
+        for (long hole : holes) {
+            used |= hole;
+        }
+        double[] equity = new double[holes.length];
+        int boards = addBoards(holes, board, CardSet.FULL_DECK & ~used, equity);
+        for (int p = 0; p < holes.length; p++) {
+            equity[p] /= boards;
+        }
+        return equity;
+    }
+
+    private int addBoards(long[] holes, long board, long live, double[] equity) {
+        if (Long.bitCount(board) < 5) {
+            int boards = 0;
+            for (long rest = live; rest != 0; rest &= rest - 1) {
+                long card = Long.lowestOneBit(rest);
+                boards += addBoards(holes, board | card, rest & ~card, equity);
+            }
+            return boards;
+        }
+        int[] strengths = evaluator.evaluateAll(board, holes);
+        int best = Integer.MIN_VALUE;
+        int winners = 0;
+        for (int strength : strengths) {
+            if (strength > best) {
+                best = strength;
+                winners = 1;
+            } else if (strength == best) {
+                winners++;
+            }
+        }
+        for (int p = 0; p < holes.length; p++) {
+            if (strengths[p] == best) {
+                equity[p] += 1.0 / winners;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,99 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandStrengthCalculatorTest {
+
+    private static final double FIXED_POINT = 1e-6;
+
+    private final HandStrengthCalculator calculator = new HandStrengthCalculator();
+
+    @Test
+    void testTurnMatchesBruteForce() {
+        long hole = mask("Ah 5h");
+        long board = mask("Kh 9h 2c Qs");
+        HandStrengthCalculator.Metrics metrics = calculator.calculate(hole, board);
+
+        // Counts by the outcome now and after the river: ahead, tied, behind
+        StandardHandEvaluator evaluator = new StandardHandEvaluator();
+        long[][] counts = new long[3][3];
+        long ahead = 0;
+        long tied = 0;
+        long opponents = 0;
+        long live = CardSet.FULL_DECK & ~hole & ~board;
+        for (long first = live; first != 0; first &= first - 1) {
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                long opponent = (first & -first) | (second & -second);
+                int now = outcome(evaluator, hole, opponent, board);
+                opponents++;
+                ahead += now == 0 ? 1 : 0;
+                tied += now == 1 ? 1 : 0;
+                for (long river = live & ~opponent; river != 0; river &= river - 1) {
+                    counts[now][outcome(evaluator, hole, opponent, board | (river & -river))]++;
+                }
+            }
+        }
+        double behindTotal = sum(counts[2]) + sum(counts[1]) / 2.0;
+        double aheadTotal = sum(counts[0]) + sum(counts[1]) / 2.0;
+        assertEquals((ahead + tied / 2.0) / opponents, metrics.handStrength(), FIXED_POINT);
+        assertEquals((counts[2][0] + counts[2][1] / 2.0 + counts[1][0] / 2.0) / behindTotal,
+                metrics.positivePotential(), FIXED_POINT);
+        assertEquals((counts[0][2] + counts[1][2] / 2.0 + counts[0][1] / 2.0) / aheadTotal,
+                metrics.negativePotential(), FIXED_POINT);
+        // A nut flush draw behind most hands has plenty of potential
+        assertTrue(metrics.positivePotential() > 0.15);
+    }
+
+    @Test
+    void testIsomorphicSituationsShareTheCache() {
+        HandStrengthCalculator.Metrics first = calculator.calculate(mask("As Ks"), mask("Qs 7s 2d"));
+        HandStrengthCalculator.Metrics renamed = calculator.calculate(mask("Ah Kh"), mask("Qh 7h 2c"));
+        assertEquals(first, renamed);
+        assertEquals(1, calculator.getHits());
+        assertEquals(1, calculator.getMisses());
+
+        HandStrengthCalculator uncached = new HandStrengthCalculator(new StandardHandEvaluator(),
+                ForkJoinPool.commonPool(), 1);
+        assertEquals(first, uncached.calculate(mask("Ad Kd"), mask("Qd 7d 2s")));
+    }
+
+    @Test
+    void testRiverAndPreflop() {
+        HandStrengthCalculator.Metrics nuts = calculator.calculate(mask("Ah Kh"), mask("Qh Jh Th 2c 3d"));
+        assertEquals(1, nuts.handStrength(), 0);
+        assertEquals(0, nuts.positivePotential(), 0);
+        assertEquals(0, nuts.negativePotential(), 0);
+        assertEquals(1, nuts.effectiveHandStrength(), 0);
+
+        HandStrengthCalculator.Metrics aces = calculator.calculate(mask("As Ad"), CardSet.EMPTY);
+        assertEquals(0.852, aces.handStrength(), 0.001);
+        assertEquals(aces.handStrength(), aces.effectiveHandStrength(), 0);
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(mask("As"), CardSet.EMPTY));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(mask("As Ad"), mask("Kh Qh")));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(mask("As Ad"), mask("As Qh Jh")));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HandStrengthCalculator(new CactusKevEvaluator(), ForkJoinPool.commonPool(), 0));
+    }
+
+    private static int outcome(HandEvaluator evaluator, long hole, long opponent, long board) {
+        int hero = evaluator.strength(hole, board);
+        int villain = evaluator.strength(opponent, board);
+        return hero > villain ? 0 : hero == villain ? 1 : 2;
+    }
+
+    private static long sum(long[] counts) {
+        return counts[0] + counts[1] + counts[2];
+    }
+}
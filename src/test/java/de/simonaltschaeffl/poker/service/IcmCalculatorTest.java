@@ -0,0 +1,128 @@
+package de.simonaltschaeffl.poker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IcmCalculatorTest {
+
+    private final IcmCalculator calculator = new IcmCalculator(ForkJoinPool.commonPool());
+
+    @Test
+    void testMatchesEveryFinishingOrder() {
+        int[] stacks = { 5000, 3000, 2000, 1500, 800, 200 };
+        double[] payouts = { 50, 30, 20 };
+        IcmCalculator.Result result = calculator.calculate(stacks, payouts);
+        assertEquals(0, result.samples());
+        assertEquals(0, result.standardError(), 0);
+        assertArrayEquals(harville(stacks, payouts), result.equity(), 1e-12);
+
+        double sum = 0;
+        for (double equity : result.equity()) {
+            sum += equity;
+        }
+        assertEquals(100, sum, 1e-9);
+    }
+
+    @Test
+    void testEqualStacksShareThePrizes() {
+        IcmCalculator.Result result = calculator.calculate(new int[] { 100, 100, 100, 100 },
+                new double[] { 60, 25, 15, 0 });
+        assertArrayEquals(new double[] { 25, 25, 25, 25 }, result.equity(), 1e-12);
+    }
+
+    @Test
+    void testLargestExactField() {
+        int[] stacks = new int[IcmCalculator.MAX_EXACT_PLAYERS];
+        double[] payouts = new double[stacks.length];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = 1000 + 250 * i;
+            payouts[i] = stacks.length - i;
+        }
+        IcmCalculator.Result result = calculator.calculate(stacks, payouts);
+        assertEquals(0, result.samples());
+        double sum = 0;
+        for (int i = 0; i < stacks.length; i++) {
+            sum += result.equity()[i];
+            if (i > 0) {
+                assertTrue(result.equity()[i] > result.equity()[i - 1], "player " + i);
+            }
+        }
+        assertEquals(stacks.length * (stacks.length + 1) / 2.0, sum, 1e-9);
+    }
+
+    @Test
+    void testLargeFieldIsSampled() {
+        int[] stacks = new int[IcmCalculator.MAX_EXACT_PLAYERS + 5];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = 500 + 300 * i;
+        }
+        double[] payouts = { 50, 30, 20 };
+        double[] exact = harville(stacks, payouts);
+
+        IcmCalculator.Result result = calculator.calculate(stacks, payouts,
+                new EquityCalculator.Budget.Builder().maxSamples(200_000).seed(7).build());
+        assertEquals(200_000, result.samples());
+        assertTrue(result.standardError() > 0);
+        double sum = 0;
+        for (int i = 0; i < stacks.length; i++) {
+            assertEquals(exact[i], result.equity()[i], 5 * result.standardError(), "player " + i);
+            sum += result.equity()[i];
+        }
+        assertEquals(100, sum, 1e-9);
+    }
+
+    @Test
+    void testSamplingStopsAtTheTargetError() {
+        int[] stacks = new int[30];
+        Arrays.fill(stacks, 1000);
+        IcmCalculator.Result result = calculator.calculate(stacks, new double[] { 70, 30 },
+                new EquityCalculator.Budget.Builder().targetStandardError(0.5).seed(1).build());
+        assertTrue(result.standardError() <= 0.5);
+        assertTrue(result.samples() < 1_000_000);
+    }
+
+    @Test
+    void testInvalidInputs() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new int[0], new double[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(new int[] { 100, 0 }, new double[] { 10 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(new int[] { 100, 50 }, new double[] { 10, -1 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(new int[] { 100, 50 }, new double[] { 10, 5, 1 }));
+    }
+
+    // The Malmuth-Harville recursion over every order of the paid places
+    private static double[] harville(int[] stacks, double[] payouts) {
+        double[] equity = new double[stacks.length];
+        long total = 0;
+        for (int stack : stacks) {
+            total += stack;
+        }
+        place(stacks, payouts, new boolean[stacks.length], total, 0, 1, equity);
+        return equity;
+    }
+
+    private static void place(int[] stacks, double[] payouts, boolean[] placed, long rest, int place,
+            double probability, double[] equity) {
+        if (place == payouts.length) {
+            return;
+        }
+        for (int i = 0; i < stacks.length; i++) {
+            if (placed[i])
+                continue;
+            double next = probability * stacks[i] / rest;
+            equity[i] += next * payouts[place];
+            placed[i] = true;
+            place(stacks, payouts, placed, rest - stacks[i], place + 1, next, equity);
+            placed[i] = false;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The full table is checked against every 7-card hand by EvaluatorDifferentialHarness
+class LookupTableEvaluatorTest {
+
+    private static final int ROW_SIZE = LookupTableGenerator.ROW_SIZE;
+
+    @Test
+    void testWalksTableOfSampledHands() throws IOException {
+        List<Card> deck = new ArrayList<>();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                deck.add(new Card(rank, suit));
+            }
+        }
+        Random random = new Random(3);
+        List<List<Card>> hands = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Collections.shuffle(deck, random);
+            hands.add(new ArrayList<>(deck.subList(0, 5 + i % 3)));
+        }
+
+        // The mask-based methods walk the hand in bit order, evaluateAll the
+        // board first
+        List<List<Card>> walks = new ArrayList<>(hands);
+        for (List<Card> hand : hands) {
+            walks.add(CardSet.toList(CardSet.of(hand)));
+            List<Card> boardFirst = CardSet.toList(CardSet.of(hand.subList(2, hand.size())));
+            boardFirst.addAll(CardSet.toList(CardSet.of(hand.subList(0, 2))));
+            walks.add(boardFirst);
+        }
+
+        Path tableFile = Files.createTempFile("handranks", ".dat");
+        try {
+            Files.write(tableFile, tableOf(walks));
+            LookupTableEvaluator evaluator = new LookupTableEvaluator(tableFile);
+            CactusKevEvaluator reference = new CactusKevEvaluator();
+            for (List<Card> hand : hands) {
+                List<Card> hole = hand.subList(0, 2);
+                List<Card> board = hand.subList(2, hand.size());
+                HandResult expected = reference.evaluate(hole, board);
+                HandResult actual = evaluator.evaluate(hole, board);
+                assertEquals(expected.rank(), actual.rank());
+                assertEquals(expected.bestFive(), actual.bestFive(), "Mismatch on " + hand);
+
+                long holeMask = CardSet.of(hole);
+                long boardMask = CardSet.of(board);
+                assertEquals(expected.strength(), evaluator.strength(holeMask, boardMask));
+                assertEquals(expected.strength(), evaluator.evaluate(holeMask, boardMask).strength());
+                assertEquals(expected.rank(), evaluator.evaluate(holeMask, boardMask).rank());
+                assertArrayEquals(new int[] { expected.strength() },
+                        evaluator.evaluateAll(boardMask, new long[] { holeMask }));
+            }
+
+            long[] holeMasks = new long[hands.size()];
+            long[] boardMasks = new long[hands.size()];
+            int[] expected = new int[hands.size()];
+            for (int i = 0; i < hands.size(); i++) {
+                holeMasks[i] = CardSet.of(hands.get(i).subList(0, 2));
+                boardMasks[i] = CardSet.of(hands.get(i).subList(2, hands.get(i).size()));
+                expected[i] = reference.strength(holeMasks[i], boardMasks[i]);
+            }
+            int[] strengths = new int[hands.size()];
+            evaluator.evaluateBatch(holeMasks, boardMasks, strengths, hands.size());
+            assertArrayEquals(expected, strengths);
+
+            List<Card> hand = hands.get(2);
+            assertThrows(IllegalArgumentException.class,
+                    () -> evaluator.evaluate(hand.subList(0, 2), hand.subList(2, 4)));
+            List<Card> repeated = new ArrayList<>(hand.subList(2, 7));
+            repeated.set(4, hand.get(0));
+            assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(hand.subList(0, 2), repeated));
+            assertThrows(IllegalArgumentException.class,
+                    () -> evaluator.strength(CardSet.of(hand.subList(0, 2)), CardSet.of(repeated)));
+        } finally {
+            Files.deleteIfExists(tableFile);
+        }
+    }
+
+    @Test
+    void testMissingTableFile() {
+        assertThrows(RuntimeException.class,
+                () -> new LookupTableEvaluator(Path.of("does-not-exist", "handranks.dat")));
+    }
+
+    // Table in the generator's format that holds only the states the hands
+    // pass through, one row per distinct prefix
+    private static byte[] tableOf(List<List<Card>> hands) {
+        List<int[]> rows = new ArrayList<>();
+        rows.add(new int[ROW_SIZE]);
+        rows.add(new int[ROW_SIZE]);
+        for (List<Card> hand : hands) {
+            int row = 1;
+            for (int i = 0; i < hand.size(); i++) {
+                int index = hand.get(i).rank().ordinal() * 4 + hand.get(i).suit().ordinal() + 1;
+                if (i == 6) {
+                    rows.get(row)[index] = CactusKevEvaluator.evalCardSet(CardSet.of(hand));
+                    break;
+                }
+                if (rows.get(row)[index] == 0) {
+                    rows.get(row)[index] = rows.size() * ROW_SIZE;
+                    rows.add(new int[ROW_SIZE]);
+                }
+                row = rows.get(row)[index] / ROW_SIZE;
+                if (i >= 4) {
+                    rows.get(row)[0] = CactusKevEvaluator.evalCardSet(CardSet.of(hand.subList(0, i + 1)));
+                }
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(rows.size() * ROW_SIZE * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int[] row : rows) {
+            for (int value : row) {
+                buffer.putInt(value);
+            }
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,164 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OmahaHandEvaluatorTest {
+
+    private final OmahaHandEvaluator evaluator = new OmahaHandEvaluator();
+
+    static Stream<Arguments> provideOmahaHands() {
+        return Stream.of(
+                // A single heart in hand does not make a flush with four on the board
+                Arguments.of("Ah Kc Qd 2s", "9h 8h 5h 3h Jc", HandRank.HIGH_CARD),
+                // Two hearts do
+                Arguments.of("Ah 2h Qd Qs", "9h 8h 5h 3c Jc", HandRank.FLUSH),
+                // Three aces on the board only make trips without a pair in hand
+                Arguments.of("2c 3d 4h 6s", "Ah Ad Ac Ks Kd", HandRank.THREE_OF_A_KIND),
+                // A pocket pair fills up with the board trips
+                Arguments.of("Kh Kc 7d 2s", "Ah Ad Ac 9s 4d", HandRank.FULL_HOUSE),
+                // Four to a straight in hand needs three board cards
+                Arguments.of("9c Td Jh Qs", "Kc 2d 2h 3s 8c", HandRank.ONE_PAIR),
+                // PLO5: the fifth card completes the straight
+                Arguments.of("9c Td 2h 3s 4d", "Jc Qd Kh 6s 7c", HandRank.STRAIGHT),
+                // Flop only
+                Arguments.of("As Ks 4d 4c", "Qs Js Ts", HandRank.ROYAL_FLUSH));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideOmahaHands")
+    void testUsesExactlyTwoHoleCards(String hole, String board, HandRank expectedRank) {
+        HandResult result = evaluator.evaluate(TestCards.parse(hole), TestCards.parse(board));
+        assertEquals(expectedRank, result.rank());
+        assertEquals(5, result.bestFive().size());
+        long bestFive = CardSet.of(result.bestFive());
+        assertEquals(2, Long.bitCount(bestFive & TestCards.mask(hole)));
+        assertEquals(3, Long.bitCount(bestFive & TestCards.mask(board)));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        CactusKevEvaluator fiveCards = new CactusKevEvaluator();
+        Random random = new Random(13);
+        for (int i = 0; i < 5_000; i++) {
+            int holeCount = 4 + i % 2;
+            int boardCount = 3 + i % 3;
+            long dealt = CardSet.EMPTY;
+            long hole = CardSet.EMPTY;
+            while (CardSet.size(hole) < holeCount) {
+                hole |= 1L << random.nextInt(52);
+            }
+            dealt |= hole;
+            while (CardSet.size(dealt) < holeCount + boardCount) {
+                dealt |= 1L << random.nextInt(52);
+            }
+            long board = dealt & ~hole;
+
+            int expected = 0;
+            for (long pair : subsets(hole, 2)) {
+                for (long triple : subsets(board, 3)) {
+                    expected = Math.max(expected, fiveCards.strength(pair, triple));
+                }
+            }
+            assertEquals(expected, evaluator.strength(hole, board));
+            assertEquals(expected, evaluator.evaluate(hole, board).strength());
+        }
+    }
+
+    @Test
+    void testEvaluateAllMatchesSingleEvaluation() {
+        long board = TestCards.mask("Ah Kh 7h 7d 2c");
+        long[] holes = {
+                TestCards.mask("Qh Jh 3c 4c"),
+                TestCards.mask("7s 7c Ad Kd"),
+                TestCards.mask("As Ac 2d 2s 9h"),
+                TestCards.mask("5d 6d 8s 9s")
+        };
+        int[] expected = new int[holes.length];
+        for (int i = 0; i < holes.length; i++) {
+            expected[i] = evaluator.strength(holes[i], board);
+        }
+        assertArrayEquals(expected, evaluator.evaluateAll(board, holes));
+        assertTrue(expected[1] > expected[2], "Quads beat a full house");
+        assertTrue(expected[2] > expected[0], "Full house beats a flush");
+    }
+
+    @Test
+    void testLowUsesExactlyTwoHoleCards() {
+        long board = TestCards.mask("Ad 2c 7h Kh Qs");
+        // 3-4 with the board's A-2-7
+        assertEquals(256 - 0b1001111, evaluator.lowStrength(TestCards.mask("3c 4d Ks Kd"), board));
+        // A single low card in hand does not make a low
+        assertEquals(0, evaluator.lowStrength(TestCards.mask("3c Jd Ks Kd"), board));
+        // Neither does a low pair that duplicates the board
+        assertEquals(0, evaluator.lowStrength(TestCards.mask("Ac 2d Ks Kd"), board));
+    }
+
+    @Test
+    void testLowMatchesBruteForce() {
+        AceToFiveLowEvaluator fiveCards = new AceToFiveLowEvaluator();
+        Random random = new Random(8);
+        for (int i = 0; i < 5_000; i++) {
+            long dealt = CardSet.EMPTY;
+            long hole = CardSet.EMPTY;
+            while (CardSet.size(hole) < 4 + i % 2) {
+                hole |= 1L << random.nextInt(52);
+            }
+            dealt |= hole;
+            while (CardSet.size(dealt) < CardSet.size(hole) + 5) {
+                dealt |= 1L << random.nextInt(52);
+            }
+            long board = dealt & ~hole;
+
+            int expected = 0;
+            for (long pair : subsets(hole, 2)) {
+                for (long triple : subsets(board, 3)) {
+                    expected = Math.max(expected, fiveCards.lowStrength(pair, triple));
+                }
+            }
+            assertEquals(expected, evaluator.lowStrength(hole, board));
+            assertEquals(expected, evaluator.evaluateAllLow(board, new long[] { hole })[0]);
+        }
+    }
+
+    @Test
+    void testBoardTriples() {
+        assertEquals(10, OmahaHandEvaluator.boardTriples(TestCards.mask("Ah Kh 7h 7d 2c")).length);
+        assertEquals(4, OmahaHandEvaluator.boardTriples(TestCards.mask("Ah Kh 7h 7d")).length);
+        assertEquals(1, OmahaHandEvaluator.boardTriples(TestCards.mask("Ah Kh 7h")).length);
+    }
+
+    @Test
+    void testRejectsInvalidHands() {
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluator.evaluate(TestCards.parse("Ah Kh Qh Jh"), TestCards.parse("2c 3c")));
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluator.evaluate(TestCards.parse("Ah"), TestCards.parse("2c 3c 4d 5d 6s")));
+    }
+
+    private static List<Long> subsets(long cards, int size) {
+        List<Long> subsets = new ArrayList<>();
+        for (long subset = cards; subset != 0; subset = (subset - 1) & cards) {
+            if (Long.bitCount(subset) == size) {
+                subsets.add(subset);
+            }
+        }
+        return subsets;
+    }
+}
@@ -0,0 +1,124 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import org.junit.jupiter.api.Test;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutsAnalyzerTest {
+
+    private final OutsAnalyzer analyzer = new OutsAnalyzer();
+
+    @Test
+    void testFlushDrawOuts() {
+        long[] holes = { mask("Qs Qd"), mask("Ah 5h") };
+        OutsAnalyzer.Street flop = analyzer.analyze(holes, mask("Kh 9h 2c"));
+        assertTrue(flop.isLeading(0));
+        assertEquals(CardSet.EMPTY, flop.outs(0));
+        // Nine hearts and three aces
+        assertEquals(12, Long.bitCount(flop.outs(1)));
+        assertEquals(mask("Ac Ad As"), flop.outs(1) & ~mask("2h 3h 4h 6h 7h 8h Th Jh Qh"));
+        assertEquals(CardSet.EMPTY, flop.splitOuts(1));
+    }
+
+    @Test
+    void testOutsMatchBruteForce() {
+        long[] holes = { mask("As Kd"), mask("Qh Qc"), mask("7h 6h") };
+        long board = mask("Qs Th 5h");
+        assertOutsMatchBruteForce(analyzer.analyze(holes, board), holes, board);
+    }
+
+    @Test
+    void testAdvanceMatchesFreshAnalysis() {
+        long[] holes = { mask("As Kd"), mask("Qh Qc"), mask("7h 6h") };
+        OutsAnalyzer.Street flop = analyzer.analyze(holes, mask("Qs Th 5h"));
+        long turnBoard = mask("Qs Th 5h Js");
+        OutsAnalyzer.Street turn = analyzer.advance(flop, turnBoard);
+        assertStreetsEqual(analyzer.analyze(holes, turnBoard), turn);
+        assertOutsMatchBruteForce(turn, holes, turnBoard);
+
+        OutsAnalyzer.Street river = analyzer.advance(turn, turnBoard | mask("4h"));
+        assertStreetsEqual(analyzer.analyze(holes, turnBoard | mask("4h")), river);
+        assertTrue(river.isLeading(2));
+        assertEquals(CardSet.EMPTY, river.unseen());
+    }
+
+    @Test
+    void testAdvanceDropsFoldedSeats() {
+        long[] holes = { mask("As Kd"), mask("Qh Qc"), mask("7h 6h") };
+        OutsAnalyzer.Street flop = analyzer.analyze(holes, mask("Qs Th 5h"));
+        long[] live = { holes[2], holes[0] };
+        OutsAnalyzer.Street turn = analyzer.advance(flop, live, mask("Qs Th 5h 2c"));
+        assertEquals(2, turn.seats());
+        assertEquals(holes[2], turn.hole(0));
+        // The folded queens stay out of the outs
+        assertEquals(CardSet.EMPTY, turn.unseen() & holes[1]);
+        assertFalse(turn.isLeading(0));
+        assertTrue(turn.isLeading(1));
+        // Eight hearts make the flush and a six or seven pairs the hand against
+        // ace high; the folded Qh is not among them
+        assertEquals(mask("2h 3h 4h 8h 9h Jh Kh Ah 6c 6d 6s 7c 7d 7s"), turn.outs(0));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        long[] holes = { mask("As Kd"), mask("Qh Qc") };
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(holes, mask("Qs Th")));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(holes, mask("As Th 5h")));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(new long[] { holes[0] }, mask("Qs Th 5h")));
+        OutsAnalyzer.Street flop = analyzer.analyze(holes, mask("Qs Th 5h"));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.advance(flop, mask("Qs Th 5h 2c 3c")));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.advance(flop, mask("Qs Th 5h Kd")));
+        assertThrows(IllegalArgumentException.class,
+                () -> analyzer.advance(flop, new long[] { holes[0], mask("2d 2s") }, mask("Qs Th 5h 2c")));
+    }
+
+    private static void assertOutsMatchBruteForce(OutsAnalyzer.Street street, long[] holes, long board) {
+        StandardHandEvaluator evaluator = new StandardHandEvaluator();
+        int[] now = evaluator.evaluateAll(board, holes);
+        for (int seat = 0; seat < holes.length; seat++) {
+            boolean alone = true;
+            for (int other = 0; other < holes.length; other++) {
+                alone &= other == seat || now[other] < now[seat];
+            }
+            assertEquals(alone, street.isLeading(seat));
+            long outs = CardSet.EMPTY;
+            long splitOuts = CardSet.EMPTY;
+            long unseen = CardSet.FULL_DECK & ~board;
+            for (long hole : holes) {
+                unseen &= ~hole;
+            }
+            for (long rest = unseen; rest != 0 && !alone; rest &= rest - 1) {
+                long card = rest & -rest;
+                int[] next = evaluator.evaluateAll(board | card, holes);
+                int better = 0;
+                int equal = 0;
+                for (int other = 0; other < holes.length; other++) {
+                    better += next[other] > next[seat] ? 1 : 0;
+                    equal += other != seat && next[other] == next[seat] ? 1 : 0;
+                }
+                if (better == 0 && equal == 0) {
+                    outs |= card;
+                } else if (better == 0) {
+                    splitOuts |= card;
+                }
+            }
+            assertEquals(outs, street.outs(seat));
+            assertEquals(splitOuts, street.splitOuts(seat));
+        }
+    }
+
+    private static void assertStreetsEqual(OutsAnalyzer.Street expected, OutsAnalyzer.Street actual) {
+        assertEquals(expected.board(), actual.board());
+        assertEquals(expected.unseen(), actual.unseen());
+        for (int seat = 0; seat < expected.seats(); seat++) {
+            assertEquals(expected.isLeading(seat), actual.isLeading(seat));
+            assertEquals(expected.outs(seat), actual.outs(seat));
+            assertEquals(expected.splitOuts(seat), actual.splitOuts(seat));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.TestPlayer;
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.Player;
+import de.simonaltschaeffl.poker.model.Pot;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PayoutCalculatorTest {
+
+    private final PayoutCalculator omahaHiLo = new PayoutCalculator(new OmahaHandEvaluator(),
+            new OmahaHandEvaluator(), new NoRakeStrategy(), new ArrayList<>());
+
+    @Test
+    void testHighOnlyWithoutLowEvaluator() {
+        PayoutCalculator holdem = new PayoutCalculator(new StandardHandEvaluator());
+        Player alice = player("alice", "Ks Kd");
+        Player bob = player("bob", "3c 4d");
+        Pot pot = pot(Map.of(alice, 100, bob, 100));
+
+        Map<String, Integer> payouts = holdem.calculate(List.of(alice, bob), TestCards.parse("Ad 2c 7h Kh Qs"), pot)
+                .payouts();
+        assertEquals(Map.of("alice", 200), payouts);
+    }
+
+    @Test
+    void testHoldemHiLoSplit() {
+        PayoutCalculator holdemHiLo = new PayoutCalculator(new StandardHandEvaluator(), new AceToFiveLowEvaluator(),
+                new NoRakeStrategy(), new ArrayList<>());
+        Player alice = player("alice", "Ks Kd");
+        Player bob = player("bob", "3c 4d");
+        Pot pot = pot(Map.of(alice, 100, bob, 100));
+
+        // Alice's trips take the high, Bob's 7-4-3-2-A the low
+        Map<String, Integer> payouts = holdemHiLo.calculate(List.of(alice, bob), TestCards.parse("Ad 2c 7h Kh Qs"), pot)
+                .payouts();
+        assertEquals(Map.of("alice", 100, "bob", 100), payouts);
+    }
+
+    @Test
+    void testQuartering() {
+        Player alice = player("alice", "3c 4d Ks Kd");
+        Player bob = player("bob", "3h 4s 9c 9d");
+        Player carol = player("carol", "Jc Jd 9s 9h");
+        Pot pot = pot(Map.of(alice, 100, bob, 100, carol, 100));
+
+        // Alice scoops the high with trips and ties Bob for the low
+        Map<String, Integer> payouts = omahaHiLo
+                .calculate(List.of(alice, bob, carol), TestCards.parse("Ad 2c 7h Kh Qs"), pot).payouts();
+        assertEquals(Map.of("alice", 150 + 75, "bob", 75), payouts);
+    }
+
+    @Test
+    void testNoQualifyingLowAwardsHighOnly() {
+        Player alice = player("alice", "3c 4d Ks Kd");
+        Player bob = player("bob", "3h 4s 9c 9d");
+        Pot pot = pot(Map.of(alice, 100, bob, 100));
+
+        // Only two low cards on the board
+        Map<String, Integer> payouts = omahaHiLo.calculate(List.of(alice, bob), TestCards.parse("Kc Qc 9h 7s 2c"), pot)
+                .payouts();
+        assertEquals(Map.of("alice", 200), payouts);
+    }
+
+    @Test
+    void testOddChipGoesToHighAndSidePotsSplitSeparately() {
+        Player alice = player("alice", "5c 6d Ks Kd");
+        Player bob = player("bob", "3h 4s 9c 9d");
+        Player carol = player("carol", "Jc Jd 9s 9h");
+        // Bob is all-in for 33: a main pot of 99 and a side pot of 134
+        Pot pot = pot(Map.of(alice, 100, bob, 33, carol, 100));
+
+        Map<String, Integer> payouts = omahaHiLo
+                .calculate(List.of(alice, bob, carol), TestCards.parse("Ad 2c 7h Kh Qs"), pot).payouts();
+        // Main pot: high 50 to Alice, low 49 to Bob's 7-4-3-2-A. Side pot: Alice
+        // scoops with the only low left, 7-6-5-2-A
+        assertEquals(Map.of("alice", 50 + 134, "bob", 49), payouts);
+    }
+
+    @Test
+    void testRunsSplitEverySlice() {
+        PayoutCalculator holdem = new PayoutCalculator(new StandardHandEvaluator());
+        Player alice = player("alice", "Ks Kd");
+        Player bob = player("bob", "3c 4d");
+        Player carol = player("carol", "Jc Jh");
+        // Bob is all-in for 33: a main pot of 99 and a side pot of 134
+        Pot pot = pot(Map.of(alice, 100, bob, 33, carol, 100));
+
+        // First run: Alice's trip kings take both pots. Second run: Bob's
+        // straight takes the main pot, Carol's trip jacks the side pot
+        PayoutCalculator.ShowdownResult result = holdem.calculateRuns(List.of(alice, bob, carol),
+                List.of(TestCards.parse("Ad 2c 7h Kh Qs"), TestCards.parse("5s 6h 9c Jd 2h")), pot);
+        assertEquals(List.of(Map.of("alice", 50 + 67), Map.of("bob", 49, "carol", 67)), result.runPayouts());
+        assertEquals(Map.of("alice", 117, "bob", 49, "carol", 67), result.payouts());
+        assertEquals(List.of(alice, carol, bob), result.winners());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> holdem.calculateRuns(List.of(alice, bob), List.of(), pot(Map.of(alice, 10, bob, 10))));
+    }
+
+    private static Player player(String id, String holeCards) {
+        Player player = new TestPlayer(id, id, 1000);
+        player.setMaxHoleCards(5);
+        for (Card card : TestCards.parse(holeCards)) {
+            player.addHoleCard(card);
+        }
+        return player;
+    }
+
+    private static Pot pot(Map<Player, Integer> contributions) {
+        Pot pot = new Pot();
+        contributions.forEach(pot::add);
+        return pot;
+    }
+}
@@ -0,0 +1,112 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreflopEquityTableTest {
+
+    private final PreflopEquityTable table = PreflopEquityTable.getDefault();
+
+    static Stream<Arguments> provideClassMatchups() {
+        return Stream.of(
+                Arguments.of("AA", "KK", 0.82),
+                Arguments.of("AKs", "QQ", 0.46),
+                Arguments.of("22", "AKo", 0.52),
+                Arguments.of("AKo", "AQo", 0.74),
+                Arguments.of("72o", "AA", 0.12));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideClassMatchups")
+    void testClassEquities(String hero, String villain, double expected) {
+        assertEquals(expected, table.classEquity(hero, villain), 0.01);
+        assertEquals(1, table.classEquity(hero, villain) + table.classEquity(villain, hero), 2.0 / 65535);
+    }
+
+    @Test
+    void testComboEquityMatchesEnumeration() {
+        // Shared flush suit and straight blockers make this matchup suit-sensitive
+        long hero = mask("As Ks");
+        long villain = mask("Qs Js");
+        EquityCalculator.Result exact = new EquityCalculator(new CactusKevEvaluator(), ForkJoinPool.commonPool())
+                .enumerate(new long[] { hero, villain }, CardSet.EMPTY, CardSet.EMPTY);
+        assertEquals(PreflopEquityTable.BOARDS, exact.samples());
+        assertEquals(exact.equity()[0], table.equity(hero, villain), 1e-12);
+        assertEquals(exact.equity()[1], table.equity(villain, hero), 1e-12);
+    }
+
+    @Test
+    void testSuitsAreRespected() {
+        // Renaming suits does not change the equity
+        assertEquals(table.equity(mask("As Ks"), mask("Qh Qd")), table.equity(mask("Ah Kh"), mask("Qs Qc")), 0);
+        assertEquals(table.equity(mask("As Ks"), mask("Qh Qd")),
+                table.equity(TestCards.parse("Ac Kc"), TestCards.parse("Qd Qs")), 0);
+        // A queen of spades blocks the suited hand's flushes
+        assertTrue(table.equity(mask("As Ks"), mask("Qs Qh")) < table.equity(mask("As Ks"), mask("Qh Qd")));
+    }
+
+    @Test
+    void testCardRemoval() {
+        long hero = mask("As Ah");
+        // Only the king of spades and hearts are left for the villain
+        assertEquals(table.equity(hero, mask("Ks Kh")), table.equity(hero, PreflopEquityTable.classOf("KK"),
+                mask("Kc Kd")), 1e-12);
+        double unblocked = table.classEquity(PreflopEquityTable.classOf("AKs"), PreflopEquityTable.classOf("QQ"), 0L);
+        assertEquals(table.classEquity("AKs", "QQ"), unblocked, 1.0 / 65535);
+        assertThrows(IllegalArgumentException.class,
+                () -> table.equity(hero, PreflopEquityTable.classOf("AA"), mask("Ac")));
+    }
+
+    @Test
+    void testHandClasses() {
+        assertEquals(0, PreflopEquityTable.classOf("AA"));
+        assertEquals(1, PreflopEquityTable.classOf("AKs"));
+        assertEquals(13, PreflopEquityTable.classOf("AKo"));
+        assertEquals(168, PreflopEquityTable.classOf("22"));
+        assertEquals(PreflopEquityTable.classOf("T9s"), PreflopEquityTable.handClass(mask("9d Td")));
+        int combos = 0;
+        for (int handClass = 0; handClass < PreflopEquityTable.CLASSES; handClass++) {
+            assertEquals(handClass, PreflopEquityTable.classOf(PreflopEquityTable.className(handClass)));
+            for (long combo : PreflopEquityTable.combos(handClass)) {
+                assertEquals(handClass, PreflopEquityTable.handClass(combo));
+                combos++;
+            }
+        }
+        assertEquals(1326, combos);
+        assertThrows(IllegalArgumentException.class, () -> PreflopEquityTable.classOf("AAs"));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PreflopEquityGenerator.write(table, out);
+        PreflopEquityTable copy = PreflopEquityTable.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(47_008, copy.keys().length);
+        assertArrayEquals(table.keys(), copy.keys());
+        assertArrayEquals(table.doubledWins(), copy.doubledWins());
+        assertEquals(table.classEquity("AKs", "QQ"), copy.classEquity("AKs", "QQ"), 0);
+    }
+
+    @Test
+    void testRejectsInvalidHands() {
+        assertThrows(IllegalArgumentException.class, () -> table.equity(mask("As Ks Qs"), mask("2c 2d")));
+        assertThrows(IllegalArgumentException.class, () -> table.equity(mask("As Ks"), mask("As 2d")));
+        assertThrows(IllegalArgumentException.class, () -> table.classEquity(169, 0));
+    }
+}
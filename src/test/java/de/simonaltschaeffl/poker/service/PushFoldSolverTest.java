@@ -0,0 +1,94 @@
+package de.simonaltschaeffl.poker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PushFoldSolverTest {
+
+    private static final int CLASSES = PreflopEquityTable.CLASSES;
+
+    // Solved once for all tests
+    private static final PushFoldTable TABLE = new PushFoldSolver(PreflopEquityTable.getDefault(),
+            ForkJoinPool.commonPool()).solve(12, 2000);
+
+    @Test
+    void testKnownRanges() {
+        int aces = PreflopEquityTable.classOf("AA");
+        int sevenTwo = PreflopEquityTable.classOf("72o");
+        for (int stack = 1; stack <= TABLE.getMaxStack(); stack++) {
+            assertTrue(TABLE.shouldPush(stack, aces), "push AA at " + stack);
+            assertTrue(TABLE.shouldCall(stack, aces), "call AA at " + stack);
+        }
+        assertFalse(TABLE.shouldPush(10, sevenTwo));
+        assertFalse(TABLE.shouldCall(10, sevenTwo));
+        // With one big blind the big blind is all-in already and calls for free
+        assertEquals(1, TABLE.callFrequency(1), 0);
+
+        // About 58% pushes and 37% calls at 10 big blinds
+        assertEquals(0.58, TABLE.pushFrequency(10), 0.03);
+        assertEquals(0.37, TABLE.callFrequency(10), 0.03);
+        assertTrue(TABLE.pushFrequency(5) > TABLE.pushFrequency(10));
+        assertTrue(TABLE.callFrequency(5) > TABLE.callFrequency(10));
+    }
+
+    @Test
+    void testRangesAreBestResponses() {
+        PreflopEquityTable equities = PreflopEquityTable.getDefault();
+        int stack = 10;
+        int wrong = 0;
+        for (int hero = 0; hero < CLASSES; hero++) {
+            double pushGain = 0;
+            double callGain = 0;
+            for (int villain = 0; villain < CLASSES; villain++) {
+                double pairs = pairs(hero, villain);
+                double net = stack * (2 * equities.classEquity(hero, villain) - 1);
+                pushGain += pairs * (TABLE.shouldCall(stack, villain) ? net + 0.5 : 1.5);
+                callGain += TABLE.shouldPush(stack, villain) ? pairs * (net + 1) : 0;
+            }
+            wrong += pushGain > 0 != TABLE.shouldPush(stack, hero) ? 1 : 0;
+            wrong += callGain > 0 != TABLE.shouldCall(stack, hero) ? 1 : 0;
+        }
+        // Only hands next to the indifference point may differ after rounding
+        assertTrue(wrong <= 4, wrong + " decisions are not best responses");
+    }
+
+    @Test
+    void testStackIsRoundedAndClamped() {
+        for (int handClass = 0; handClass < CLASSES; handClass++) {
+            assertEquals(TABLE.shouldPush(10, handClass), TABLE.shouldPush(9.6, handClass));
+            assertEquals(TABLE.shouldPush(12, handClass), TABLE.shouldPush(40, handClass));
+            assertEquals(TABLE.shouldCall(1, handClass), TABLE.shouldCall(0.2, handClass));
+        }
+        long hole = mask(0, 13);
+        assertEquals(TABLE.shouldPush(7, PreflopEquityTable.handClass(hole)), TABLE.shouldPush(7, hole));
+    }
+
+    @Test
+    void testInvalidInputs() {
+        PushFoldSolver solver = new PushFoldSolver();
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> TABLE.shouldPush(10, CLASSES));
+        assertThrows(IllegalArgumentException.class, () -> TABLE.shouldCall(Double.NaN, 0));
+    }
+
+    private static int pairs(int hero, int villain) {
+        int count = 0;
+        for (long first : PreflopEquityTable.combos(hero)) {
+            for (long second : PreflopEquityTable.combos(villain)) {
+                count += (first & second) == 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    private static long mask(int first, int second) {
+        return 1L << first | 1L << second;
+    }
+}
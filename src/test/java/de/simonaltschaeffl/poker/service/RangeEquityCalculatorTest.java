@@ -0,0 +1,102 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.CardSet;
+import de.simonaltschaeffl.poker.model.HandRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static de.simonaltschaeffl.poker.model.TestCards.mask;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RangeEquityCalculatorTest {
+
+    private final CactusKevEvaluator evaluator = new CactusKevEvaluator();
+    private final RangeEquityCalculator calculator = new RangeEquityCalculator(evaluator, ForkJoinPool.commonPool(),
+            16);
+    private final EquityCalculator pairwise = new EquityCalculator(evaluator, ForkJoinPool.commonPool());
+
+    static Stream<Arguments> provideSpots() {
+        return Stream.of(
+                Arguments.of("QQ+, AKs", "JJ, AQs:0.5, 76s", "Qh 7h 6c"),
+                Arguments.of("AhKh, 99", "TT+, KQ", "Qh 7h 6c 2s"),
+                Arguments.of("AK, 76s:0.25", "QQ, 77", "Qh 7h 6c 2s Ks"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSpots")
+    void testMatchesPairwiseEnumeration(String hero, String villain, String board) {
+        HandRange heroRange = HandRange.parse(hero);
+        HandRange villainRange = HandRange.parse(villain);
+        long boardMask = mask(board);
+        double expected = pairwiseEquity(heroRange, villainRange, boardMask);
+        assertEquals(expected, calculator.equity(heroRange, villainRange, boardMask), 1e-9);
+        // Heads-up, the two sides' equities add up to one
+        assertEquals(1 - expected, calculator.equity(villainRange, heroRange, boardMask), 1e-9);
+    }
+
+    @Test
+    void testPreflopUsesTheTable() {
+        PreflopEquityTable table = PreflopEquityTable.getDefault();
+        double equity = calculator.equity(HandRange.parse("AA"), HandRange.parse("KK"), CardSet.EMPTY);
+        assertEquals(table.classEquity(PreflopEquityTable.classOf("AA"), PreflopEquityTable.classOf("KK"), 0L),
+                equity, 1e-12);
+
+        long hero = mask("As Ah");
+        assertEquals(table.equity(hero, PreflopEquityTable.classOf("KK"), 0L),
+                calculator.equity(hero, HandRange.parse("KK"), CardSet.EMPTY), 1e-12);
+    }
+
+    @Test
+    void testBlockedCombosAreSkipped() {
+        // With the ace of hearts on the board and the ace of clubs in the hero's
+        // hand, AsAd is the only pair of aces left
+        double equity = calculator.equity(mask("Ac Kc"), HandRange.parse("AA"), mask("Ah 7d 2s"));
+        double expected = pairwiseEquity(HandRange.of(mask("Ac Kc")), HandRange.parse("AsAd"), mask("Ah 7d 2s"));
+        assertEquals(expected, equity, 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.equity(mask("Ac Kc"), HandRange.parse("AcAd"), mask("Ah 7d 2s")));
+    }
+
+    @Test
+    void testCachesResults() {
+        HandRange hero = HandRange.parse("TT+");
+        HandRange villain = HandRange.parse("AK");
+        long board = mask("Ts 9s 8s");
+        double first = calculator.equity(hero, villain, board);
+        assertEquals(first, calculator.equity(HandRange.parse("TT+"), HandRange.parse("AK"), board), 0);
+        assertEquals(1, calculator.getCacheHits());
+        assertEquals(1, calculator.getCacheMisses());
+    }
+
+    @Test
+    void testRejectsPartialFlop() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.equity(HandRange.parse("AA"), HandRange.parse("KK"), mask("2c 3c")));
+    }
+
+    // Weighted average of the exact equity of every compatible pair of combos
+    private double pairwiseEquity(HandRange hero, HandRange villain, long board) {
+        double won = 0;
+        double total = 0;
+        for (int h = 0; h < HandRange.COMBOS; h++) {
+            long heroHole = HandRange.comboCards(h);
+            if (hero.weight(h) == 0 || (heroHole & board) != 0)
+                continue;
+            for (int v = 0; v < HandRange.COMBOS; v++) {
+                long villainHole = HandRange.comboCards(v);
+                if (villain.weight(v) == 0 || (villainHole & (board | heroHole)) != 0)
+                    continue;
+                double weight = (double) hero.weight(h) * villain.weight(v);
+                won += weight * pairwise.enumerate(new long[] { heroHole, villainHole }, board, 0L).equity()[0];
+                total += weight;
+            }
+        }
+        return won / total;
+    }
+}
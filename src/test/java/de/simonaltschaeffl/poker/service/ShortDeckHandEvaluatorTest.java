@@ -0,0 +1,124 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.HandRank;
+import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.model.ShortDeck;
+import de.simonaltschaeffl.poker.model.TestCards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortDeckHandEvaluatorTest {
+
+    private final ShortDeckHandEvaluator evaluator = new ShortDeckHandEvaluator();
+
+    static Stream<Arguments> provideShortDeckHands() {
+        return Stream.of(
+                Arguments.of("Ah 6d", "7c 8s 9h Kd Kc", HandRank.STRAIGHT, "[9h, 8s, 7c, 6d, Ah]"),
+                Arguments.of("Ah 6h", "7h 8h 9h Kd Kc", HandRank.STRAIGHT_FLUSH, "[9h, 8h, 7h, 6h, Ah]"),
+                Arguments.of("Ah Kh", "Qh Jh Th 9d 9c", HandRank.ROYAL_FLUSH, "[Ah, Kh, Qh, Jh, Th]"),
+                Arguments.of("Kh Th", "9h 7h 6h 6d 6c", HandRank.FLUSH, "[Kh, Th, 9h, 7h, 6h]"),
+                Arguments.of("Kh Kd", "Kc 9s 9d 7h 6h", HandRank.FULL_HOUSE, "[Kh, Kd, Kc, 9s, 9d]"),
+                Arguments.of("Ac Ad", "As Ah 9c 8d 7h", HandRank.FOUR_OF_A_KIND, "[As, Ah, Ad, Ac, 9c]"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideShortDeckHands")
+    void testCategories(String hole, String board, HandRank expectedRank, String expectedBestFive) {
+        HandResult result = evaluator.evaluate(TestCards.parse(hole), TestCards.parse(board));
+        assertEquals(expectedRank, result.rank());
+        assertEquals(expectedBestFive, result.bestFive().toString());
+    }
+
+    @Test
+    void testShortDeckOrdering() {
+        int flush = strength("9h 7h", "6h Jh 8h");
+        int fullHouse = strength("Ah Ad", "Ac Ks Kd");
+        int lowStraight = strength("Ah 6d", "7c 8s 9h");
+        int nextStraight = strength("6h 7d", "8c 9s Th");
+        int trips = strength("Ah Ad", "Ac Ks Qh");
+        assertTrue(flush > fullHouse, "Flush beats full house");
+        assertTrue(nextStraight > lowStraight, "A-6-7-8-9 is the lowest straight");
+        assertTrue(lowStraight > trips, "A straight beats three of a kind");
+    }
+
+    @Test
+    void testMatchesBestOfFiveCardSubsets() {
+        List<Card> deck = new ArrayList<>();
+        ShortDeck shortDeck = new ShortDeck();
+        while (shortDeck.remainingCards() > 0) {
+            deck.add(shortDeck.deal().orElseThrow());
+        }
+        Random random = new Random(36);
+        for (int i = 0; i < 5_000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> hole = deck.subList(0, 2);
+            List<Card> board = deck.subList(2, 5 + i % 3);
+
+            List<Card> cards = new ArrayList<>(hole);
+            cards.addAll(board);
+            int expected = 0;
+            for (List<Card> five : subsets(cards, 5)) {
+                expected = Math.max(expected, naiveStrength(five));
+            }
+            assertEquals(expected, evaluator.evaluate(hole, board).strength());
+        }
+    }
+
+    @Test
+    void testRejectsCardsBelowSix() {
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluator.evaluate(TestCards.parse("Ah 2d"), TestCards.parse("7c 8s 9h")));
+    }
+
+    // Five-card strength from the Hold'em evaluator, adjusted to short-deck rules
+    private static int naiveStrength(List<Card> five) {
+        HandResult standard = new StandardHandEvaluator().evaluate(five.subList(0, 2), five.subList(2, 5));
+        HandRank rank = standard.rank();
+        int kickers = standard.strength() & 0xFFFFF;
+        long ranks = 0;
+        for (Card card : five) {
+            ranks |= 1L << card.rank().ordinal();
+        }
+        boolean lowStraight = ranks == (1L << 12 | 0b11110000L);
+        if (lowStraight) {
+            boolean suited = five.stream().allMatch(c -> c.suit() == five.get(0).suit());
+            rank = suited ? HandRank.STRAIGHT_FLUSH : HandRank.STRAIGHT;
+            kickers = 9 << 16 | 8 << 12 | 7 << 8 | 6 << 4 | 1;
+        }
+        int category = rank == HandRank.FLUSH ? HandRank.FULL_HOUSE.getValue()
+                : rank == HandRank.FULL_HOUSE ? HandRank.FLUSH.getValue() : rank.getValue();
+        return category << 20 | kickers;
+    }
+
+    private int strength(String hole, String board) {
+        return evaluator.evaluate(TestCards.parse(hole), TestCards.parse(board)).strength();
+    }
+
+    private static List<List<Card>> subsets(List<Card> cards, int size) {
+        List<List<Card>> subsets = new ArrayList<>();
+        for (int mask = 0; mask < 1 << cards.size(); mask++) {
+            if (Integer.bitCount(mask) != size)
+                continue;
+            List<Card> subset = new ArrayList<>(size);
+            for (int i = 0; i < cards.size(); i++) {
+                if ((mask & (1 << i)) != 0)
+                    subset.add(cards.get(i));
+            }
+            subsets.add(subset);
+        }
+        return subsets;
+    }
+}
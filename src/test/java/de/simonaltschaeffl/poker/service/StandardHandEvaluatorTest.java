@@ -1,7 +1,9 @@
 package de.simonaltschaeffl.poker.service;
 
 import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.HandRank;
 import de.simonaltschaeffl.poker.model.HandResult;
+import de.simonaltschaeffl.poker.model.TestCards;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -64,4 +66,29 @@ class StandardHandEvaluatorTest {
             assertEquals(0, comparison, "Should be a split pot");
         }
     }
+
+    static Stream<Arguments> provideBestFive() {
+        return Stream.of(
+                Arguments.of("As Ks", "Qs Js Ts 2d 3c", HandRank.ROYAL_FLUSH, "[As, Ks, Qs, Js, Ts]"),
+                Arguments.of("Ah 2h", "3h 4h 5h Kd Kc", HandRank.STRAIGHT_FLUSH, "[5h, 4h, 3h, 2h, Ah]"),
+                Arguments.of("9c 9d", "9h 9s Ad Kd 2c", HandRank.FOUR_OF_A_KIND, "[9c, 9d, 9h, 9s, Ad]"),
+                // Two sets of trips: the lower one supplies the pair
+                Arguments.of("Ac Ad", "Ah Kc Kd Ks 2c", HandRank.FULL_HOUSE, "[Ac, Ad, Ah, Kc, Kd]"),
+                Arguments.of("2d 9d", "Jd 4d Kd 7d Ac", HandRank.FLUSH, "[Kd, Jd, 9d, 7d, 4d]"),
+                Arguments.of("Ac 2d", "3h 4s 5c Kd 9h", HandRank.STRAIGHT, "[5c, 4s, 3h, 2d, Ac]"),
+                Arguments.of("7c 7d", "7h Ks 2c 4d 9h", HandRank.THREE_OF_A_KIND, "[7c, 7d, 7h, Ks, 9h]"),
+                // Three pairs: the third pair's first card is the kicker
+                Arguments.of("Qc Qd", "5h 5s 8c 8d 2h", HandRank.TWO_PAIR, "[Qc, Qd, 8c, 8d, 5h]"),
+                Arguments.of("Tc Td", "3h Ks 8c 4d 2h", HandRank.ONE_PAIR, "[Tc, Td, Ks, 8c, 4d]"),
+                Arguments.of("Ac Jd", "3h Ks 8c 4d 2h", HandRank.HIGH_CARD, "[Ac, Ks, Jd, 8c, 4d]"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideBestFive")
+    void testBestFive(String hole, String board, HandRank expectedRank, String expectedBestFive) {
+        HandResult result = evaluator.evaluate(TestCards.parse(hole), TestCards.parse(board));
+        assertEquals(expectedRank, result.rank());
+        assertEquals(expectedBestFive, result.bestFive().toString());
+        assertEquals(HandResult.strengthOf(result.rank(), result.bestFive()), result.strength());
+    }
 }
@@ -0,0 +1,62 @@
+package de.simonaltschaeffl.poker.service;
+
+import de.simonaltschaeffl.poker.model.Card;
+import de.simonaltschaeffl.poker.model.CardSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SuitCanonicalizerTest {
+
+    @Test
+    void testStartingHandsCollapseTo169() {
+        Set<Long> classes = new HashSet<>();
+        for (int i = 0; i < 52; i++) {
+            for (int j = i + 1; j < 52; j++) {
+                classes.add(SuitCanonicalizer.canonicalIndex(1L << i | 1L << j, CardSet.EMPTY));
+            }
+        }
+        assertEquals(169, classes.size());
+    }
+
+    @Test
+    void testSuitRenamingKeepsIndex() {
+        // AhKh on Qh7c2d is the same situation as AsKs on Qs7d2c
+        long hole1 = CardSet.of(card(Card.Rank.ACE, Card.Suit.HEARTS), card(Card.Rank.KING, Card.Suit.HEARTS));
+        long board1 = CardSet.of(card(Card.Rank.QUEEN, Card.Suit.HEARTS), card(Card.Rank.SEVEN, Card.Suit.CLUBS),
+                card(Card.Rank.TWO, Card.Suit.DIAMONDS));
+        long hole2 = CardSet.of(card(Card.Rank.ACE, Card.Suit.SPADES), card(Card.Rank.KING, Card.Suit.SPADES));
+        long board2 = CardSet.of(card(Card.Rank.QUEEN, Card.Suit.SPADES), card(Card.Rank.SEVEN, Card.Suit.DIAMONDS),
+                card(Card.Rank.TWO, Card.Suit.CLUBS));
+        assertEquals(SuitCanonicalizer.canonicalIndex(hole1, board1), SuitCanonicalizer.canonicalIndex(hole2, board2));
+
+        // Moving the queen off-suit is a different situation
+        long board3 = CardSet.of(card(Card.Rank.QUEEN, Card.Suit.CLUBS), card(Card.Rank.SEVEN, Card.Suit.HEARTS),
+                card(Card.Rank.TWO, Card.Suit.DIAMONDS));
+        assertNotEquals(SuitCanonicalizer.canonicalIndex(hole1, board1),
+                SuitCanonicalizer.canonicalIndex(hole1, board3));
+    }
+
+    @Test
+    void testApplyAndOriginalIndexAreInverse() {
+        long hole = CardSet.of(card(Card.Rank.TEN, Card.Suit.DIAMONDS), card(Card.Rank.FOUR, Card.Suit.SPADES));
+        long board = CardSet.of(card(Card.Rank.NINE, Card.Suit.DIAMONDS), card(Card.Rank.NINE, Card.Suit.HEARTS),
+                card(Card.Rank.ACE, Card.Suit.CLUBS));
+        int order = SuitCanonicalizer.suitOrder(hole, board);
+        long canonical = SuitCanonicalizer.apply(hole | board, order);
+
+        long restored = CardSet.EMPTY;
+        for (long rest = canonical; rest != 0; rest &= rest - 1) {
+            restored |= 1L << SuitCanonicalizer.originalIndex(CardSet.firstIndex(rest), order);
+        }
+        assertEquals(hole | board, restored);
+    }
+
+    private static Card card(Card.Rank rank, Card.Suit suit) {
+        return new Card(rank, suit);
+    }
+}